@@ -0,0 +1,131 @@
+package com.daidaisuki.inventory.benchmark;
+
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.DatasetGenerator;
+import com.daidaisuki.inventory.db.DatasetGenerator.Scale;
+import com.daidaisuki.inventory.db.PragmaProfile;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A scratch SQLite file migrated to the current schema and filled by {@link DatasetGenerator},
+ * opened with the same writer connection and reader pool settings as the app.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+  static final long SEED = DatasetGenerator.DEFAULT_SEED;
+  static final int USER_ID = DatasetGenerator.USER_ID;
+  static final int SUPPLIERS = DatasetGenerator.SUPPLIERS;
+
+  @Param("2000")
+  public int products;
+
+  @Param("500")
+  public int customers;
+
+  @Param("5000")
+  public int orders;
+
+  private Path directory;
+  private Connection connection;
+  private HikariDataSource readerDataSource;
+
+  @Setup(Level.Trial)
+  public void open() throws IOException, SQLException {
+    this.directory = Files.createTempDirectory("inventory-jmh");
+    String url = "jdbc:sqlite:" + this.directory.resolve("inventory.db");
+    PragmaProfile profile = this.profile();
+    this.connection = profile.openWriter(url);
+    DatabaseManager.migrate(this.connection);
+    Scale small = Scale.SMALL;
+    Scale scale =
+        new Scale(
+            this.products,
+            small.batchesPerProduct(),
+            small.transactionsPerBatch(),
+            this.customers,
+            this.orders,
+            small.itemsPerOrder());
+    new DatasetGenerator(SEED, scale).generate(this.connection);
+    try (Statement stmt = this.connection.createStatement()) {
+      stmt.execute(
+          "CREATE TEMP TABLE seeded_stock AS SELECT id, quantity_remaining FROM stock_batches");
+    }
+    this.readerDataSource = DatabaseManager.openReaderPool(url, profile);
+  }
+
+  @TearDown(Level.Trial)
+  public void close() throws IOException, SQLException {
+    this.readerDataSource.close();
+    this.connection.close();
+    try (Stream<Path> files = Files.walk(this.directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  // The app's profile unless a subclass compares several
+  protected PragmaProfile profile() {
+    return PragmaProfile.fromSystemProperty();
+  }
+
+  public Connection getConnection() {
+    return this.connection;
+  }
+
+  public HikariDataSource getReaderDataSource() {
+    return this.readerDataSource;
+  }
+
+  public int[] findProductIdsWithStock(int minimumStock) throws SQLException {
+    String sql = "SELECT id FROM products WHERE current_stock >= ? ORDER BY id";
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql)) {
+      stmt.setInt(1, minimumStock);
+      IntStream.Builder ids = IntStream.builder();
+      try (ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          ids.add(rs.getInt(1));
+        }
+      }
+      return ids.build().toArray();
+    }
+  }
+
+  /** Puts the generated batches back to their generated stock, so deductions never run dry. */
+  public void restock() throws SQLException {
+    try (Statement stmt = this.connection.createStatement()) {
+      stmt.executeUpdate(
+          """
+          UPDATE stock_batches
+          SET quantity_remaining = s.quantity_remaining
+          FROM seeded_stock s
+          WHERE s.id = stock_batches.id
+          """);
+      stmt.executeUpdate(
+          """
+          UPDATE products
+          SET current_stock = (
+            SELECT COALESCE(SUM(quantity_remaining), 0)
+            FROM stock_batches
+            WHERE product_id = products.id)
+          """);
+    }
+  }
+}
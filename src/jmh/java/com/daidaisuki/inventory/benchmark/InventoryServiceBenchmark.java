@@ -0,0 +1,78 @@
+package com.daidaisuki.inventory.benchmark;
+
+import com.daidaisuki.inventory.enums.TransactionType;
+import com.daidaisuki.inventory.model.dto.StockAdjustRequest;
+import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
+import com.daidaisuki.inventory.service.InventoryService;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Write paths, each a full committed transaction on the writer connection. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryServiceBenchmark {
+  // Far more than one iteration deducts from any single product
+  private static final int MINIMUM_STOCK = 50;
+
+  private InventoryService inventoryService;
+  private Random random;
+  private int products;
+  private int[] stockedProductIds;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkDatabase database) throws SQLException {
+    this.inventoryService =
+        new InventoryService(database.getConnection(), database.getReaderDataSource());
+    this.random = new Random(BenchmarkDatabase.SEED);
+    this.products = database.products;
+    this.stockedProductIds = database.findProductIdsWithStock(MINIMUM_STOCK);
+  }
+
+  // Keeps iterations comparable: every one starts from the same stock levels
+  @Setup(Level.Iteration)
+  public void restock(BenchmarkDatabase database) throws SQLException {
+    database.restock();
+  }
+
+  @Benchmark
+  public void receiveNewStock() {
+    StockReceiveRequest request =
+        new StockReceiveRequest(
+            1 + this.random.nextInt(this.products),
+            1 + this.random.nextInt(BenchmarkDatabase.SUPPLIERS),
+            null,
+            1 + this.random.nextInt(50),
+            100 + this.random.nextInt(5_000),
+            null,
+            "RECEIVED");
+    this.inventoryService.receiveNewStock(request, BenchmarkDatabase.USER_ID);
+  }
+
+  @Benchmark
+  public void stockAdjustDeduction() {
+    StockAdjustRequest request =
+        new StockAdjustRequest(
+            this.stockedProductIds[this.random.nextInt(this.stockedProductIds.length)],
+            -(1 + this.random.nextInt(3)),
+            0L,
+            TransactionType.STOCK_OUT,
+            "SOLD");
+    this.inventoryService.stockAdjust(request, BenchmarkDatabase.USER_ID);
+  }
+}
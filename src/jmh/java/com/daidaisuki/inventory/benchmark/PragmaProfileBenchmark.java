@@ -0,0 +1,161 @@
+package com.daidaisuki.inventory.benchmark;
+
+import com.daidaisuki.inventory.db.DatasetGenerator;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The hot reads and a small committed write under each {@link
+ * com.daidaisuki.inventory.db.PragmaProfile}, on the same generated dataset. Reads go through one
+ * pooled reader connection and writes through the writer, both opened the way the app opens them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PragmaProfileBenchmark {
+  private static final String LOOKUP_SQL = "SELECT * FROM products WHERE sku = ?";
+  private static final String FIFO_SQL =
+      """
+      SELECT id, quantity_remaining, unit_cost_cents FROM (
+        SELECT
+          id,
+          quantity_remaining,
+          unit_cost_cents,
+          created_at,
+          SUM(quantity_remaining) OVER (
+            ORDER BY created_at ASC, id ASC
+            ROWS UNBOUNDED PRECEDING) AS running_total
+        FROM stock_batches
+        WHERE product_id = ? AND quantity_remaining > 0)
+      WHERE running_total - quantity_remaining < ?
+      ORDER BY created_at ASC, id ASC
+      """;
+  private static final String HISTORY_SQL =
+      """
+      SELECT * FROM inventory_transactions
+      WHERE product_id = ?
+      ORDER BY created_at DESC, id DESC
+      LIMIT 100
+      """;
+  private static final String MOVEMENT_SQL =
+      """
+      INSERT INTO inventory_transactions(
+        product_id, batch_id, user_id, reference_id, change_amount, transaction_type,
+        reason_code, created_at, updated_at, is_deleted)
+      SELECT product_id, id, 1, 0, 1, 'ADJUSTMENT', 'COUNT', ?, ?, 0
+      FROM stock_batches WHERE id = ?
+      """;
+  private static final String STOCK_SQL =
+      "UPDATE products SET current_stock = current_stock + 1, updated_at = ? WHERE id = ?";
+
+  private Connection writer;
+  private Connection reader;
+  private PreparedStatement lookup;
+  private PreparedStatement fifo;
+  private PreparedStatement history;
+  private PreparedStatement movement;
+  private PreparedStatement stock;
+  private Random random;
+  private int products;
+  private int batches;
+
+  @Setup(Level.Trial)
+  public void setUp(ProfiledBenchmarkDatabase database) throws SQLException {
+    this.writer = database.getConnection();
+    this.reader = database.getReaderDataSource().getConnection();
+    this.lookup = this.reader.prepareStatement(LOOKUP_SQL);
+    this.fifo = this.reader.prepareStatement(FIFO_SQL);
+    this.history = this.reader.prepareStatement(HISTORY_SQL);
+    this.movement = this.writer.prepareStatement(MOVEMENT_SQL);
+    this.stock = this.writer.prepareStatement(STOCK_SQL);
+    this.random = new Random(BenchmarkDatabase.SEED);
+    this.products = database.products;
+    try (Statement stmt = this.writer.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM stock_batches")) {
+      this.batches = rs.next() ? rs.getInt(1) : 0;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    this.lookup.close();
+    this.fifo.close();
+    this.history.close();
+    this.movement.close();
+    this.stock.close();
+    // Hands the connection back to the pool, which the database state closes
+    this.reader.close();
+  }
+
+  @Benchmark
+  public int lookupBySku() throws SQLException {
+    this.lookup.setString(1, DatasetGenerator.sku(this.randomProductId()));
+    return drain(this.lookup);
+  }
+
+  @Benchmark
+  public int fifoCoveringBatches() throws SQLException {
+    this.fifo.setInt(1, this.randomProductId());
+    this.fifo.setInt(2, 1 + this.random.nextInt(50));
+    return drain(this.fifo);
+  }
+
+  @Benchmark
+  public int historyPage() throws SQLException {
+    this.history.setInt(1, this.randomProductId());
+    return drain(this.history);
+  }
+
+  // One committed stock movement, like receiving stock from the UI
+  @Benchmark
+  public void committedMovement() throws SQLException {
+    long now = System.currentTimeMillis();
+    this.writer.setAutoCommit(false);
+    try {
+      this.movement.setLong(1, now);
+      this.movement.setLong(2, now);
+      this.movement.setInt(3, 1 + this.random.nextInt(this.batches));
+      this.movement.executeUpdate();
+      this.stock.setLong(1, now);
+      this.stock.setInt(2, this.randomProductId());
+      this.stock.executeUpdate();
+      this.writer.commit();
+    } finally {
+      this.writer.setAutoCommit(true);
+    }
+  }
+
+  private int randomProductId() {
+    return 1 + this.random.nextInt(this.products);
+  }
+
+  private static int drain(PreparedStatement stmt) throws SQLException {
+    int rows = 0;
+    try (ResultSet rs = stmt.executeQuery()) {
+      while (rs.next()) {
+        rows++;
+      }
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,18 @@
+package com.daidaisuki.inventory.benchmark;
+
+import com.daidaisuki.inventory.db.PragmaProfile;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** The generated database opened once per {@link PragmaProfile}, for comparing the profiles. */
+@State(Scope.Benchmark)
+public class ProfiledBenchmarkDatabase extends BenchmarkDatabase {
+  @Param({"SAFE", "BALANCED", "FAST"})
+  public PragmaProfile profile;
+
+  @Override
+  protected PragmaProfile profile() {
+    return this.profile;
+  }
+}
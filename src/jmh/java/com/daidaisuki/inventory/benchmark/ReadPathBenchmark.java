@@ -0,0 +1,72 @@
+package com.daidaisuki.inventory.benchmark;
+
+import com.daidaisuki.inventory.dao.impl.CustomerDAO;
+import com.daidaisuki.inventory.dao.impl.InventoryTransactionDAO;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.model.Customer;
+import com.daidaisuki.inventory.model.InventoryTransaction;
+import com.daidaisuki.inventory.model.Order;
+import com.daidaisuki.inventory.model.Product;
+import com.daidaisuki.inventory.service.OrderService;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read paths behind the list views, plus full-table reads that are dominated by the {@code
+ * BaseDAO} row mappers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+  private OrderService orderService;
+  private CustomerDAO customerDAO;
+  private ProductDAO productDAO;
+  private InventoryTransactionDAO inventoryTransactionDAO;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkDatabase database) {
+    Connection connection = database.getConnection();
+    DataSource readerDataSource = database.getReaderDataSource();
+    this.orderService = new OrderService(connection, readerDataSource);
+    this.customerDAO = new CustomerDAO(connection, readerDataSource);
+    this.productDAO = new ProductDAO(connection, readerDataSource);
+    this.inventoryTransactionDAO = new InventoryTransactionDAO(connection, readerDataSource);
+  }
+
+  @Benchmark
+  public List<Order> listOrdersWithDetails() {
+    return this.orderService.listOrdersWithDetails();
+  }
+
+  @Benchmark
+  public List<Customer> findAllCustomers() {
+    return this.customerDAO.findAll();
+  }
+
+  @Benchmark
+  public List<Product> mapAllProducts() {
+    return this.productDAO.findAll();
+  }
+
+  @Benchmark
+  public List<InventoryTransaction> mapAllTransactions() {
+    return this.inventoryTransactionDAO.findAll();
+  }
+}
@@ -5,6 +5,7 @@ import com.daidaisuki.inventory.controller.view.MainController;
 import com.daidaisuki.inventory.db.DatabaseManager;
 import com.daidaisuki.inventory.serviceregistry.ServiceRegistry;
 import com.daidaisuki.inventory.util.AlertHelper;
+import com.daidaisuki.inventory.viewmodel.base.BackgroundExecutor;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -16,10 +17,12 @@ import javafx.scene.Scene;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.util.Callback;
+import javax.sql.DataSource;
 
 public class App extends Application {
 
   private static Scene scene;
+  private ServiceRegistry registry;
   public static final double WIDTH_RATIO = 1.0;
   public static final double HEIGHT_RATIO = 1.0;
   public static final int MIN_WIDTH = 1200;
@@ -28,9 +31,11 @@ public class App extends Application {
   @Override
   public void start(Stage stage) throws IOException {
     Connection connection = null;
+    DataSource readerDataSource = null;
     try {
       DatabaseManager.initializeDatabase();
       connection = DatabaseManager.getConnection();
+      readerDataSource = DatabaseManager.getReaderDataSource();
     } catch (SQLException e) {
       e.printStackTrace();
       AlertHelper.showErrorAlert(
@@ -38,7 +43,13 @@ public class App extends Application {
     }
 
     final Connection finalConnection = connection;
-    ServiceRegistry registry = new ServiceRegistry(finalConnection);
+    final DataSource finalReaderDataSource = readerDataSource;
+    ServiceRegistry registry = new ServiceRegistry(finalConnection, finalReaderDataSource);
+    this.registry = registry;
+    if (finalConnection != null) {
+      registry.getStockSnapshotService().startScheduledCapture();
+      registry.getDiagnosticsService().startPeriodicDump();
+    }
 
     Callback<Class<?>, Object> controllerFactory =
         type -> {
@@ -74,6 +85,16 @@ public class App extends Application {
     stage.show();
   }
 
+  @Override
+  public void stop() {
+    if (this.registry != null) {
+      this.registry.getStockSnapshotService().stopScheduledCapture();
+      this.registry.getDiagnosticsService().stopPeriodicDump();
+    }
+    BackgroundExecutor.shutdown();
+    DatabaseManager.closeConnection();
+  }
+
   private static void resizeStageToDynamicSize(Stage stage) {
     Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
     stage.setWidth(Math.max(bounds.getWidth() * WIDTH_RATIO, MIN_WIDTH));
@@ -2,14 +2,14 @@ package com.daidaisuki.inventory.base.controller;
 
 import com.daidaisuki.inventory.ui.dialog.DialogService;
 import com.daidaisuki.inventory.util.AlertHelper;
-import com.daidaisuki.inventory.viewmodel.base.BaseListViewModel;
+import com.daidaisuki.inventory.viewmodel.base.BaseCrudViewModel;
 import javafx.beans.binding.BooleanBinding;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import javafx.scene.control.ToggleButton;
 
-public abstract class BaseCrudController<T, VM extends BaseListViewModel<T>>
+public abstract class BaseCrudController<T, VM extends BaseCrudViewModel<T>>
     extends BaseTableController<T, VM> {
   @FXML protected Button addButton;
   @FXML protected Button editButton;
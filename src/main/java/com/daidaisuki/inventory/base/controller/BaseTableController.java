@@ -4,7 +4,9 @@ import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.user.AppSession;
 import com.daidaisuki.inventory.util.AlertHelper;
 import com.daidaisuki.inventory.util.FxWindowUtils;
+import com.daidaisuki.inventory.util.TableViewUtils;
 import com.daidaisuki.inventory.viewmodel.base.BaseListViewModel;
+import com.daidaisuki.inventory.viewmodel.base.PagedCrudViewModel;
 import java.sql.SQLException;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
@@ -49,6 +51,7 @@ public abstract class BaseTableController<T, VM extends BaseListViewModel<T>> {
     this.bindSelectionModel();
     this.setupDeselectOnEmptySpace(this.table);
     this.setupSceneKeyFilter();
+    this.setupPageOnScroll();
     this.bindViewModelProperties();
     this.initializeBaseUI();
     this.viewModel.refresh();
@@ -61,6 +64,12 @@ public abstract class BaseTableController<T, VM extends BaseListViewModel<T>> {
     }
   }
 
+  private void setupPageOnScroll() {
+    if (this.table != null && this.viewModel instanceof PagedCrudViewModel<?> paged) {
+      TableViewUtils.onScrolledNearEnd(this.table, paged::loadNextPage);
+    }
+  }
+
   private void bindSelectionModel() {
     this.viewModel
         .selectedItemProperty()
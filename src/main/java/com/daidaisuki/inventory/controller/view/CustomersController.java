@@ -5,7 +5,7 @@ package com.daidaisuki.inventory.controller.view;
 
 public class CustomersController extends BaseTableController<Customer, CustomersViewModel> {
   @FXML private TableColumn<Customer, String> fullNameCol;
-  @FXML private TableColumn<Customer, BigDecimal> totalSpentCol;
+  @FXML private TableColumn<Customer, Number> totalSpentCol;
   @FXML private TableColumn<Customer, String> acquisitionSourceCol;
   @FXML private TableColumn<Customer, OffsetDateTime> lastOrderDateCol;
 
@@ -56,7 +56,8 @@ public class CustomersController extends BaseTableController<Customer, Customers
     this.fullNameCol.setCellValueFactory(cellData -> cellData.getValue().fullNameProperty());
     this.acquisitionSourceCol.setCellValueFactory(
         cellData -> cellData.getValue().acquisitionSourceProperty());
-    this.totalSpentCol.setCellValueFactory(cellData -> cellData.getValue().totalSpentProperty());
+    this.totalSpentCol.setCellValueFactory(
+        cellData -> cellData.getValue().totalSpentCentsProperty());
     this.lastOrderDateCol.setCellValueFactory(
         cellData -> cellData.getValue().lastOrderDateProperty());
 
@@ -100,20 +101,20 @@ public class CustomersController extends BaseTableController<Customer, Customers
         .textProperty()
         .bind(
             Bindings.createStringBinding(
-                () -> CurrencyUtil.format(customer.getTotalSpent()),
-                customer.totalSpentProperty()));
+                () -> CurrencyUtil.formatCents(customer.getTotalSpentCents()),
+                customer.totalSpentCentsProperty()));
     this.totalDiscountLabel
         .textProperty()
         .bind(
             Bindings.createStringBinding(
-                () -> CurrencyUtil.format(customer.getTotalDiscount()),
-                customer.totalDiscountProperty()));
+                () -> CurrencyUtil.formatCents(customer.getTotalDiscountCents()),
+                customer.totalDiscountCentsProperty()));
     this.averageOrderValueLabel
         .textProperty()
         .bind(
             Bindings.createStringBinding(
-                () -> CurrencyUtil.format(customer.getAverageOrderValue()),
-                customer.averageOrderValueProperty()));
+                () -> CurrencyUtil.formatCents(customer.getAverageOrderValueCents()),
+                customer.averageOrderValueCentsProperty()));
     this.createdAtLabel
         .textProperty()
         .bind(
@@ -0,0 +1,112 @@
+package com.daidaisuki.inventory.controller.view;
+
+import com.daidaisuki.inventory.base.controller.BaseTableController;
+import com.daidaisuki.inventory.model.projection.StatementMetrics;
+import com.daidaisuki.inventory.serviceregistry.ServiceRegistry;
+import com.daidaisuki.inventory.util.TableCellUtils;
+import com.daidaisuki.inventory.util.TableColumnUtils;
+import com.daidaisuki.inventory.viewmodel.view.DiagnosticsViewModel;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+
+public class DiagnosticsController
+    extends BaseTableController<StatementMetrics, DiagnosticsViewModel> {
+  @FXML private TableColumn<StatementMetrics, String> sqlCol;
+  @FXML private TableColumn<StatementMetrics, Number> callsCol;
+  @FXML private TableColumn<StatementMetrics, Number> errorsCol;
+  @FXML private TableColumn<StatementMetrics, Number> totalCol;
+  @FXML private TableColumn<StatementMetrics, Number> averageCol;
+  @FXML private TableColumn<StatementMetrics, Number> p50Col;
+  @FXML private TableColumn<StatementMetrics, Number> p95Col;
+  @FXML private TableColumn<StatementMetrics, Number> p99Col;
+  @FXML private TableColumn<StatementMetrics, Number> maxCol;
+  @FXML private TableColumn<StatementMetrics, Number> rowsReturnedCol;
+  @FXML private TableColumn<StatementMetrics, Number> rowsAffectedCol;
+
+  @FXML private Label statementCountLabel;
+  @FXML private Label totalTimeLabel;
+  @FXML private Label cacheHitRateLabel;
+  @FXML private Label cacheDetailLabel;
+  @FXML private Label generatedLabel;
+  @FXML private Button refreshButton;
+  @FXML private Button resetButton;
+
+  public DiagnosticsController(ServiceRegistry registry) {
+    super(new DiagnosticsViewModel(registry.getDiagnosticsService()));
+  }
+
+  @FXML
+  public void initialize() {
+    this.setupMetricsColumns();
+    this.bindLabels();
+    this.refreshButton.disableProperty().bind(this.viewModel.isLoadingProperty());
+    this.resetButton.disableProperty().bind(this.viewModel.isBusyProperty());
+    this.initializeBaseTableController();
+  }
+
+  @FXML
+  private void handleRefresh() {
+    this.viewModel.refresh();
+  }
+
+  @FXML
+  private void handleReset() {
+    this.viewModel.resetMetrics();
+  }
+
+  private void setupMetricsColumns() {
+    this.sqlCol.setCellValueFactory(
+        cellData -> new ReadOnlyStringWrapper(cellData.getValue().sql()));
+    this.callsCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().calls()));
+    this.errorsCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().errors()));
+    this.totalCol.setCellValueFactory(cellData -> millis(cellData.getValue().totalNanos()));
+    this.averageCol.setCellValueFactory(cellData -> millis(cellData.getValue().averageNanos()));
+    this.p50Col.setCellValueFactory(cellData -> millis(cellData.getValue().p50Nanos()));
+    this.p95Col.setCellValueFactory(cellData -> millis(cellData.getValue().p95Nanos()));
+    this.p99Col.setCellValueFactory(cellData -> millis(cellData.getValue().p99Nanos()));
+    this.maxCol.setCellValueFactory(cellData -> millis(cellData.getValue().maxNanos()));
+    this.rowsReturnedCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().rowsReturned()));
+    this.rowsAffectedCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().rowsAffected()));
+
+    TableCellUtils.setupStringCells(this.sqlCol);
+    TableCellUtils.setupNumberCells(
+        this.callsCol,
+        this.errorsCol,
+        this.totalCol,
+        this.averageCol,
+        this.p50Col,
+        this.p95Col,
+        this.p99Col,
+        this.maxCol,
+        this.rowsReturnedCol,
+        this.rowsAffectedCol);
+
+    TableColumnUtils.bindColumnWidthsByRatio(
+        this.table, List.of(0.34, 0.06, 0.05, 0.07, 0.07, 0.06, 0.06, 0.06, 0.07, 0.08, 0.08));
+  }
+
+  // Shown in milliseconds, kept numeric so the columns still sort by value
+  private static ReadOnlyObjectWrapper<Number> millis(long nanos) {
+    return new ReadOnlyObjectWrapper<>(
+        BigDecimal.valueOf(nanos, 6).setScale(2, RoundingMode.HALF_UP));
+  }
+
+  private void bindLabels() {
+    this.statementCountLabel.textProperty().bind(this.viewModel.statementCountTextProperty());
+    this.totalTimeLabel.textProperty().bind(this.viewModel.totalTimeTextProperty());
+    this.cacheHitRateLabel.textProperty().bind(this.viewModel.cacheHitRateTextProperty());
+    this.cacheDetailLabel.textProperty().bind(this.viewModel.cacheDetailTextProperty());
+    this.generatedLabel.textProperty().bind(this.viewModel.generatedTextProperty());
+  }
+}
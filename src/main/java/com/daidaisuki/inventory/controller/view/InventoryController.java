@@ -12,15 +12,20 @@ import com.daidaisuki.inventory.model.Supplier;
 import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
 import com.daidaisuki.inventory.serviceregistry.ServiceRegistry;
 import com.daidaisuki.inventory.user.AppSession;
+import com.daidaisuki.inventory.util.AlertHelper;
 import com.daidaisuki.inventory.util.TableCellUtils;
 import com.daidaisuki.inventory.util.TableColumnUtils;
+import com.daidaisuki.inventory.util.TableViewUtils;
 import com.daidaisuki.inventory.viewmodel.dialog.ProductDialogViewModel;
 import com.daidaisuki.inventory.viewmodel.dialog.ReceiveStockDialogViewModel;
 import com.daidaisuki.inventory.viewmodel.view.InventoryViewModel;
-import java.math.BigDecimal;
+import java.io.File;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -29,16 +34,19 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.Tooltip;
+import javafx.stage.FileChooser;
 
 public class InventoryController extends BaseCrudController<Product, InventoryViewModel> {
   @FXML private TableColumn<Product, String> skuCol;
   @FXML private TableColumn<Product, String> nameCol;
   @FXML private TableColumn<Product, String> categoryCol;
   @FXML private TableColumn<Product, Number> currentStockCol;
-  @FXML private TableColumn<Product, BigDecimal> sellingPriceCol;
+  @FXML private TableColumn<Product, Number> sellingPriceCol;
   @FXML private TableColumn<Product, String> statusCol;
 
   @FXML private Button receiveStockButton;
+  @FXML private Button exportCatalogButton;
+  @FXML private Button exportLedgerButton;
 
   @FXML private TableView<StockBatch> batchesTable;
   @FXML private TableColumn<StockBatch, Number> batchIdCol;
@@ -46,8 +54,8 @@ public class InventoryController extends BaseCrudController<Product, InventoryVi
   @FXML private TableColumn<StockBatch, OffsetDateTime> batchDateCol;
   @FXML private TableColumn<StockBatch, OffsetDateTime> batchExpiryCol;
   @FXML private TableColumn<StockBatch, Number> quantityRemainingCol;
-  @FXML private TableColumn<StockBatch, BigDecimal> unitCostCol;
-  @FXML private TableColumn<StockBatch, BigDecimal> landedCostCol;
+  @FXML private TableColumn<StockBatch, Number> unitCostCol;
+  @FXML private TableColumn<StockBatch, Number> landedCostCol;
 
   @FXML private TableView<InventoryTransaction> transactionTable;
   @FXML private TableColumn<InventoryTransaction, OffsetDateTime> transactionDateCol;
@@ -70,7 +78,8 @@ public class InventoryController extends BaseCrudController<Product, InventoryVi
         new InventoryViewModel(
             registry.getProductService(),
             registry.getInventoryService(),
-            registry.getSupplierService()));
+            registry.getSupplierService(),
+            registry.getExportService()));
   }
 
   @FXML
@@ -102,7 +111,7 @@ public class InventoryController extends BaseCrudController<Product, InventoryVi
     this.currentStockCol.setCellValueFactory(
         cellData -> cellData.getValue().currentStockProperty());
     this.sellingPriceCol.setCellValueFactory(
-        cellData -> cellData.getValue().sellingPriceProperty());
+        cellData -> cellData.getValue().sellingPriceCentsProperty());
     this.statusCol.setCellValueFactory(cellData -> cellData.getValue().stockStatusProperty());
 
     TableCellUtils.setupStringCells(this.nameCol, this.skuCol, this.categoryCol, this.statusCol);
@@ -124,8 +133,9 @@ public class InventoryController extends BaseCrudController<Product, InventoryVi
     this.batchExpiryCol.setCellValueFactory(celldata -> celldata.getValue().expiryDateProperty());
     this.quantityRemainingCol.setCellValueFactory(
         celldata -> celldata.getValue().quantityRemainingProperty());
-    this.unitCostCol.setCellValueFactory(celldata -> celldata.getValue().unitCostProperty());
-    this.landedCostCol.setCellValueFactory(celldata -> celldata.getValue().landedCostProperty());
+    this.unitCostCol.setCellValueFactory(celldata -> celldata.getValue().unitCostCentsProperty());
+    this.landedCostCol.setCellValueFactory(
+        celldata -> celldata.getValue().landedCostCentsProperty());
 
     TableCellUtils.setupNumberCells(this.batchIdCol, this.quantityRemainingCol);
     TableCellUtils.setupCurrencyCells(this.unitCostCol, this.landedCostCol);
@@ -180,8 +190,11 @@ public class InventoryController extends BaseCrudController<Product, InventoryVi
     this.receiveStockButton
         .disableProperty()
         .bind(this.viewModel.selectedItemProperty().isNull().or(this.viewModel.isBusyProperty()));
+    this.exportCatalogButton.disableProperty().bind(this.viewModel.isBusyProperty());
+    this.exportLedgerButton.disableProperty().bind(this.viewModel.isBusyProperty());
     this.setupDeselectOnEmptySpace(batchesTable);
     this.setupDeselectOnEmptySpace(transactionTable);
+    TableViewUtils.onScrolledNearEnd(this.transactionTable, this.viewModel::loadMoreTransactions);
   }
 
   private void setupBinding() {
@@ -246,6 +259,36 @@ public class InventoryController extends BaseCrudController<Product, InventoryVi
     }
   }
 
+  @FXML
+  private void handleExportCatalog() {
+    this.exportTo("products.csv", "products", this.viewModel::exportProductCatalog);
+  }
+
+  @FXML
+  private void handleExportLedger() {
+    this.exportTo("inventory-ledger.csv", "transactions", this.viewModel::exportTransactionLedger);
+  }
+
+  private void exportTo(
+      String initialFileName, String rowNoun, BiConsumer<Path, Consumer<Long>> export) {
+    FileChooser chooser = new FileChooser();
+    chooser.setTitle("Export CSV");
+    chooser.setInitialFileName(initialFileName);
+    chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+    File file = chooser.showSaveDialog(this.getWindow());
+    if (file == null) {
+      return;
+    }
+    export.accept(
+        file.toPath(),
+        rows ->
+            AlertHelper.showInfoAlert(
+                this.getWindow(),
+                "Export Complete",
+                null,
+                "Exported " + rows + " " + rowNoun + " to " + file.getName()));
+  }
+
   @FXML
   private void handleAdjustStock(ActionEvent event) {}
 
@@ -1,3 +1,85 @@
 package com.daidaisuki.inventory.controller.view;
 
-public class ReportsController {}
+import com.daidaisuki.inventory.base.controller.BaseTableController;
+import com.daidaisuki.inventory.model.projection.CategoryValuation;
+import com.daidaisuki.inventory.serviceregistry.ServiceRegistry;
+import com.daidaisuki.inventory.util.TableCellUtils;
+import com.daidaisuki.inventory.util.TableColumnUtils;
+import com.daidaisuki.inventory.viewmodel.view.ReportsViewModel;
+import java.util.List;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+
+public class ReportsController extends BaseTableController<CategoryValuation, ReportsViewModel> {
+  @FXML private TableColumn<CategoryValuation, String> categoryCol;
+  @FXML private TableColumn<CategoryValuation, Number> productCountCol;
+  @FXML private TableColumn<CategoryValuation, Number> batchCountCol;
+  @FXML private TableColumn<CategoryValuation, Number> quantityCol;
+  @FXML private TableColumn<CategoryValuation, Number> fifoValueCol;
+  @FXML private TableColumn<CategoryValuation, Number> averageCostValueCol;
+  @FXML private TableColumn<CategoryValuation, Number> differenceCol;
+
+  @FXML private Label fifoValueLabel;
+  @FXML private Label averageCostValueLabel;
+  @FXML private Label valueDifferenceLabel;
+  @FXML private Label quantityLabel;
+  @FXML private Label generatedLabel;
+  @FXML private Button refreshButton;
+
+  public ReportsController(ServiceRegistry registry) {
+    super(new ReportsViewModel(registry.getReportService()));
+  }
+
+  @FXML
+  public void initialize() {
+    this.setupValuationColumns();
+    this.bindLabels();
+    this.refreshButton.disableProperty().bind(this.viewModel.isLoadingProperty());
+    this.initializeBaseTableController();
+  }
+
+  @FXML
+  private void handleRefresh() {
+    this.viewModel.refresh();
+  }
+
+  private void setupValuationColumns() {
+    this.categoryCol.setCellValueFactory(
+        cellData -> new ReadOnlyStringWrapper(cellData.getValue().category()));
+    this.productCountCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().productCount()));
+    this.batchCountCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().batchCount()));
+    this.quantityCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().quantity()));
+    this.fifoValueCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().fifoValueCents()));
+    this.averageCostValueCol.setCellValueFactory(
+        cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().averageCostValueCents()));
+    this.differenceCol.setCellValueFactory(
+        cellData ->
+            new ReadOnlyObjectWrapper<>(
+                cellData.getValue().fifoValueCents()
+                    - cellData.getValue().averageCostValueCents()));
+
+    TableCellUtils.setupStringCells(this.categoryCol);
+    TableCellUtils.setupNumberCells(this.productCountCol, this.batchCountCol, this.quantityCol);
+    TableCellUtils.setupCurrencyCells(
+        this.fifoValueCol, this.averageCostValueCol, this.differenceCol);
+
+    TableColumnUtils.bindColumnWidthsByRatio(
+        this.table, List.of(0.2, 0.1, 0.1, 0.1, 0.16, 0.16, 0.16));
+  }
+
+  private void bindLabels() {
+    this.fifoValueLabel.textProperty().bind(this.viewModel.fifoValueTextProperty());
+    this.averageCostValueLabel.textProperty().bind(this.viewModel.averageCostValueTextProperty());
+    this.valueDifferenceLabel.textProperty().bind(this.viewModel.valueDifferenceTextProperty());
+    this.quantityLabel.textProperty().bind(this.viewModel.quantityTextProperty());
+    this.generatedLabel.textProperty().bind(this.viewModel.generatedTextProperty());
+  }
+}
@@ -1,22 +1,40 @@
 package com.daidaisuki.inventory.dao;
 
+import com.daidaisuki.inventory.db.QueryMetrics;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
 import com.daidaisuki.inventory.exception.DataAccessException;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import javax.sql.DataSource;
 
 public abstract class BaseDAO<T> {
+  // Stays well below SQLite's bound parameter limit
+  private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+  private static final int STREAM_FETCH_SIZE = 500;
+
   protected final Connection connection;
+  private final DataSource readerDataSource;
 
   protected BaseDAO(Connection connection) {
+    this(connection, null);
+  }
+
+  protected BaseDAO(Connection connection, DataSource readerDataSource) {
     this.connection = connection;
+    this.readerDataSource = readerDataSource;
   }
 
   @FunctionalInterface
@@ -29,6 +47,16 @@ public abstract class BaseDAO<T> {
     T mapKey(int id) throws SQLException;
   }
 
+  @FunctionalInterface
+  protected interface BatchKeysMapper<T> {
+    T mapKey(int index, int id) throws SQLException;
+  }
+
+  @FunctionalInterface
+  private interface StatementWork<V> {
+    V execute(PreparedStatement pStmt) throws SQLException;
+  }
+
   protected <R> Optional<R> queryForObject(String sql, RowMapper<R> mapper, Object... params) {
     List<R> results = query(sql, mapper, params);
     if (results.isEmpty()) {
@@ -41,38 +69,143 @@ public abstract class BaseDAO<T> {
   }
 
   protected <R> List<R> query(String sql, RowMapper<R> mapper, Object... params) {
+    return this.executeQuery(this.connection, sql, mapper, params);
+  }
+
+  protected <R> Optional<R> readQueryForObject(String sql, RowMapper<R> mapper, Object... params) {
+    List<R> results = readQuery(sql, mapper, params);
+    if (results.isEmpty()) {
+      return Optional.empty();
+    }
+    if (results.size() > 1) {
+      throw new DataAccessException("Expected one result but found multiple.");
+    }
+    return Optional.ofNullable(results.get(0));
+  }
+
+  // Runs on a pooled reader unless the caller is inside a transaction and must see its own writes
+  protected <R> List<R> readQuery(String sql, RowMapper<R> mapper, Object... params) {
+    if (this.readerDataSource == null || TransactionManager.isInTransaction()) {
+      return this.query(sql, mapper, params);
+    }
+    try (Connection reader = this.readerDataSource.getConnection()) {
+      return this.executeQuery(reader, sql, mapper, params);
+    } catch (SQLException e) {
+      throw new DataAccessException("Failed to acquire reader connection.", e);
+    }
+  }
+
+  // Hands each row to the consumer as it is read, so large scans never sit on the heap at once
+  protected <R> long streamQuery(
+      String sql, RowMapper<R> mapper, Consumer<? super R> consumer, Object... params) {
+    if (this.readerDataSource == null || TransactionManager.isInTransaction()) {
+      return this.executeStream(this.connection, sql, mapper, consumer, params);
+    }
+    try (Connection reader = this.readerDataSource.getConnection()) {
+      return this.executeStream(reader, sql, mapper, consumer, params);
+    } catch (SQLException e) {
+      throw new DataAccessException("Failed to acquire reader connection.", e);
+    }
+  }
+
+  // The SQL template takes a single %s where the IN (...) placeholders go
+  protected <R> List<R> readQueryInChunks(String sqlTemplate, RowMapper<R> mapper, List<?> ids) {
     List<R> results = new ArrayList<>();
-    try (PreparedStatement pStmt = connection.prepareStatement(sql)) {
-      for (int i = 0; i < params.length; i++) {
-        pStmt.setObject(i + 1, params[i]);
-      }
-      try (ResultSet rs = pStmt.executeQuery()) {
-        while (rs.next()) {
-          results.add(mapper.mapRow(rs));
-        }
-      }
-      return results;
+    for (int start = 0; start < ids.size(); start += IN_CLAUSE_CHUNK_SIZE) {
+      List<?> chunk = ids.subList(start, Math.min(start + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+      String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+      results.addAll(
+          this.readQuery(String.format(sqlTemplate, placeholders), mapper, chunk.toArray()));
+    }
+    return results;
+  }
+
+  private <R> List<R> executeQuery(
+      Connection target, String sql, RowMapper<R> mapper, Object... params) {
+    try {
+      return this.withStatement(
+          target,
+          sql,
+          Statement.NO_GENERATED_KEYS,
+          false,
+          List::size,
+          pStmt -> {
+            bindParameters(pStmt, params);
+            List<R> results = new ArrayList<>();
+            try (ResultSet rs = pStmt.executeQuery()) {
+              while (rs.next()) {
+                results.add(mapper.mapRow(rs));
+              }
+            }
+            return results;
+          });
+    } catch (SQLException e) {
+      throw new DataAccessException("Database query failed.", e);
+    }
+  }
+
+  private <R> long executeStream(
+      Connection target,
+      String sql,
+      RowMapper<R> mapper,
+      Consumer<? super R> consumer,
+      Object... params) {
+    // Time spent in the consumer is left out, so a slow caller never shows up as a slow query
+    long[] consumerNanos = new long[1];
+    long start = System.nanoTime();
+    boolean failed = true;
+    long rows = 0;
+    try {
+      rows =
+          this.executeStatement(
+              target,
+              sql,
+              Statement.NO_GENERATED_KEYS,
+              pStmt -> {
+                bindParameters(pStmt, params);
+                pStmt.setFetchSize(STREAM_FETCH_SIZE);
+                long rowCount = 0;
+                try (ResultSet rs = pStmt.executeQuery()) {
+                  while (rs.next()) {
+                    R row = mapper.mapRow(rs);
+                    long consumerStart = System.nanoTime();
+                    consumer.accept(row);
+                    consumerNanos[0] += System.nanoTime() - consumerStart;
+                    rowCount++;
+                  }
+                }
+                return rowCount;
+              });
+      failed = false;
+      return rows;
     } catch (SQLException e) {
       throw new DataAccessException("Database query failed.", e);
+    } finally {
+      QueryMetrics.record(sql, System.nanoTime() - start - consumerNanos[0], rows, false, failed);
     }
   }
 
   protected T insert(String sql, GeneratedKeysMapper<T> mapper, Object... params) {
-    try (PreparedStatement pStmt =
-        connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-      for (int i = 0; i < params.length; i++) {
-        pStmt.setObject(i + 1, params[i]);
-      }
-      int affectedRows = pStmt.executeUpdate();
-      if (affectedRows == 0) {
-        throw new DataAccessException("Insert failed.");
-      }
-      try (ResultSet generatedKeys = pStmt.getGeneratedKeys()) {
-        if (generatedKeys.next()) {
-          return mapper.mapKey(generatedKeys.getInt(1));
-        }
-        throw new DataAccessException("Database insert succeeded but no ID returned.");
-      }
+    try {
+      return this.withStatement(
+          this.connection,
+          sql,
+          Statement.RETURN_GENERATED_KEYS,
+          true,
+          key -> 1,
+          pStmt -> {
+            bindParameters(pStmt, params);
+            int affectedRows = pStmt.executeUpdate();
+            if (affectedRows == 0) {
+              throw new DataAccessException("Insert failed.");
+            }
+            try (ResultSet generatedKeys = pStmt.getGeneratedKeys()) {
+              if (generatedKeys.next()) {
+                return mapper.mapKey(generatedKeys.getInt(1));
+              }
+              throw new DataAccessException("Database insert succeeded but no ID returned.");
+            }
+          });
     } catch (SQLException e) {
       throw new DataAccessException("Database insert failed.", e);
     }
@@ -86,20 +219,152 @@ public abstract class BaseDAO<T> {
   }
 
   protected int updateReturningAffectedRows(String sql, Object... params) {
-    try (PreparedStatement pStmt = connection.prepareStatement(sql)) {
-      for (int i = 0; i < params.length; i++) {
-        pStmt.setObject(i + 1, params[i]);
-      }
-      return pStmt.executeUpdate();
+    try {
+      return this.withStatement(
+          this.connection,
+          sql,
+          Statement.NO_GENERATED_KEYS,
+          true,
+          Integer::longValue,
+          pStmt -> {
+            bindParameters(pStmt, params);
+            return pStmt.executeUpdate();
+          });
     } catch (SQLException e) {
       throw new DataAccessException("Database update failed.", e);
     }
   }
 
+  protected void batchInsert(String sql, List<Object[]> paramsList) {
+    int[] affectedRows = batchUpdate(sql, paramsList);
+    for (int affected : affectedRows) {
+      if (affected == 0) {
+        throw new DataAccessException("Batch insert failed.");
+      }
+    }
+  }
+
+  // SQLite cannot report per-row keys for a batch. Inside a transaction the single writer gets a
+  // contiguous AUTOINCREMENT range, so the ids are derived from last_insert_rowid().
+  protected List<T> batchInsert(
+      String sql, BatchKeysMapper<T> mapper, List<Object[]> paramsList) {
+    if (paramsList.isEmpty()) {
+      return new ArrayList<>();
+    }
+    if (!TransactionManager.isInTransaction()) {
+      throw new IllegalStateException("Batch insert with generated ids requires a transaction.");
+    }
+    this.batchInsert(sql, paramsList);
+    int lastId =
+        this.query("SELECT last_insert_rowid()", rs -> rs.getInt(1)).stream()
+            .findFirst()
+            .orElseThrow(() -> new DataAccessException("Batch insert returned no ID."));
+    int firstId = lastId - paramsList.size() + 1;
+    List<T> results = new ArrayList<>(paramsList.size());
+    try {
+      for (int i = 0; i < paramsList.size(); i++) {
+        results.add(mapper.mapKey(i, firstId + i));
+      }
+    } catch (SQLException e) {
+      throw new DataAccessException("Database batch insert failed.", e);
+    }
+    return results;
+  }
+
+  protected int[] batchUpdate(String sql, List<Object[]> paramsList) {
+    if (paramsList.isEmpty()) {
+      return new int[0];
+    }
+    try {
+      return this.withStatement(
+          this.connection,
+          sql,
+          Statement.NO_GENERATED_KEYS,
+          true,
+          counts -> Arrays.stream(counts).filter(n -> n > 0).sum(),
+          pStmt -> {
+            for (Object[] params : paramsList) {
+              bindParameters(pStmt, params);
+              pStmt.addBatch();
+            }
+            return pStmt.executeBatch();
+          });
+    } catch (SQLException e) {
+      throw new DataAccessException("Database batch update failed.", e);
+    }
+  }
+
+  // Every statement is timed and counted in QueryMetrics, failures included
+  private <V> V withStatement(
+      Connection target,
+      String sql,
+      int autoGeneratedKeys,
+      boolean isWrite,
+      ToLongFunction<? super V> rowCount,
+      StatementWork<V> work)
+      throws SQLException {
+    long start = System.nanoTime();
+    boolean failed = true;
+    long rows = 0;
+    try {
+      V result = this.executeStatement(target, sql, autoGeneratedKeys, work);
+      failed = false;
+      rows = rowCount.applyAsLong(result);
+      return result;
+    } finally {
+      QueryMetrics.record(sql, System.nanoTime() - start, rows, isWrite, failed);
+    }
+  }
+
+  // Only the writer is cached, pooled reader proxies close their statements when returned
+  private <V> V executeStatement(
+      Connection target, String sql, int autoGeneratedKeys, StatementWork<V> work)
+      throws SQLException {
+    if (target != this.connection) {
+      try (PreparedStatement pStmt = target.prepareStatement(sql, autoGeneratedKeys)) {
+        return work.execute(pStmt);
+      }
+    }
+    // Already held when the current thread has a transaction open
+    ReentrantLock writerLock = TransactionManager.writerLock(target);
+    writerLock.lock();
+    try {
+      return this.executeCached(target, sql, autoGeneratedKeys, work);
+    } finally {
+      writerLock.unlock();
+    }
+  }
+
+  private <V> V executeCached(
+      Connection target, String sql, int autoGeneratedKeys, StatementWork<V> work)
+      throws SQLException {
+    StatementCache cache = StatementCache.forConnection(target);
+    PreparedStatement pStmt = cache.acquire(sql, autoGeneratedKeys);
+    boolean succeeded = false;
+    try {
+      V result = work.execute(pStmt);
+      succeeded = true;
+      return result;
+    } finally {
+      if (succeeded) {
+        cache.release(sql, autoGeneratedKeys, pStmt);
+      } else {
+        cache.discard(pStmt);
+      }
+    }
+  }
+
+  private static void bindParameters(PreparedStatement pStmt, Object... params)
+      throws SQLException {
+    for (int i = 0; i < params.length; i++) {
+      pStmt.setObject(i + 1, params[i]);
+    }
+  }
+
   protected void setDeletionStatus(String tableName, int id, boolean isDeleted) {
     String sql =
         String.format("UPDATE %s SET is_deleted = ?, updated_at = ? WHERE id = ?", tableName);
-    update(sql, isDeleted ? 1 : 0, OffsetDateTime.now(ZoneOffset.UTC).toString(), id);
+    update(sql, isDeleted ? 1 : 0, TimestampUtil.nowMillis(), id);
   }
 
   protected void deleteById(String tableName, int id) {
@@ -0,0 +1,357 @@
+package com.daidaisuki.inventory.dao;
+
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.model.Product;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of products for one database, keyed by id with secondary SKU and barcode
+ * indexes.
+ *
+ * <p>Entries are immutable snapshots and every lookup hands out a fresh {@link Product}, so callers
+ * and the UI can edit what they get back without touching the cache. Writes made inside a
+ * transaction evict the row at once and only publish the new snapshot after commit, so a rollback
+ * can never leave uncommitted values behind.
+ */
+public class ProductCache {
+  public static final int DEFAULT_MAX_SIZE = 5_000;
+
+  private static final Map<Connection, ProductCache> CACHES = new ConcurrentHashMap<>();
+
+  private final LinkedHashMap<Integer, Snapshot> productsById;
+  private final Map<String, Integer> idsBySku = new HashMap<>();
+  private final Map<String, Integer> idsByBarcode = new HashMap<>();
+  // Bumped on every write so a read that raced a write does not cache what it saw
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private ProductCache(int maxSize) {
+    this.productsById =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Integer, Snapshot> eldest) {
+            if (size() > maxSize) {
+              evictions.incrementAndGet();
+              removeSecondaryKeys(eldest.getValue());
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  public static ProductCache forConnection(Connection connection) {
+    return CACHES.computeIfAbsent(connection, conn -> new ProductCache(DEFAULT_MAX_SIZE));
+  }
+
+  public static void invalidate(Connection connection) {
+    ProductCache cache = CACHES.remove(connection);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  public Optional<Product> get(int id) {
+    Snapshot snapshot;
+    synchronized (this) {
+      snapshot = this.productsById.get(id);
+    }
+    return this.record(snapshot);
+  }
+
+  public Optional<Product> getBySku(String sku) {
+    Snapshot snapshot;
+    synchronized (this) {
+      Integer id = this.idsBySku.get(sku);
+      snapshot = id == null ? null : this.productsById.get(id);
+    }
+    return this.record(snapshot);
+  }
+
+  public Optional<Product> getByBarcode(String barcode) {
+    Snapshot snapshot;
+    synchronized (this) {
+      Integer id = this.idsByBarcode.get(barcode);
+      snapshot = id == null ? null : this.productsById.get(id);
+    }
+    return this.record(snapshot);
+  }
+
+  /** Marks the start of a database read whose result may later be passed to {@link #fill}. */
+  public long readStamp() {
+    return this.generation.get();
+  }
+
+  /**
+   * Caches a product loaded from the database, unless a write happened since the read began or the
+   * row came from an open transaction and may still be rolled back.
+   */
+  public void fill(Product product, long readStamp) {
+    if (TransactionManager.isInTransaction()) {
+      return;
+    }
+    Snapshot snapshot = Snapshot.of(product);
+    synchronized (this) {
+      if (this.generation.get() == readStamp) {
+        this.putInternal(snapshot);
+      }
+    }
+  }
+
+  public void put(Product product) {
+    this.publish(product.getId(), Snapshot.of(product));
+  }
+
+  /** Applies a stock change to the cached row, if it is cached at all. */
+  public void applyStockChange(int productId, int changeAmount, OffsetDateTime updatedAt) {
+    Snapshot current;
+    synchronized (this) {
+      current = this.productsById.get(productId);
+    }
+    Snapshot changed =
+        current == null
+            ? null
+            : current.withStockChange(changeAmount, current.averageUnitCostCents(), updatedAt);
+    this.publish(productId, changed);
+  }
+
+  /** Applies a stock and average cost change to the cached row, if it is cached at all. */
+  public void applyStockAndCostChange(
+      int productId,
+      int changeAmount,
+      long newAverageUnitCostCents,
+      OffsetDateTime updatedAt) {
+    Snapshot current;
+    synchronized (this) {
+      current = this.productsById.get(productId);
+    }
+    Snapshot changed =
+        current == null
+            ? null
+            : current.withStockChange(changeAmount, newAverageUnitCostCents, updatedAt);
+    this.publish(productId, changed);
+  }
+
+  /** Applies a full-row update to the cached row, keeping the columns the update leaves alone. */
+  public void applyUpdate(Product product, OffsetDateTime updatedAt) {
+    Snapshot current;
+    synchronized (this) {
+      current = this.productsById.get(product.getId());
+    }
+    Snapshot changed =
+        current == null
+            ? null
+            : Snapshot.of(product).withRowState(current.createdAt(), updatedAt, current.deleted());
+    this.publish(product.getId(), changed);
+  }
+
+  public void evict(int productId) {
+    this.publish(productId, null);
+  }
+
+  public synchronized void clear() {
+    this.generation.incrementAndGet();
+    this.productsById.clear();
+    this.idsBySku.clear();
+    this.idsByBarcode.clear();
+  }
+
+  public synchronized int size() {
+    return this.productsById.size();
+  }
+
+  public long getHitCount() {
+    return this.hits.get();
+  }
+
+  public long getMissCount() {
+    return this.misses.get();
+  }
+
+  public long getEvictionCount() {
+    return this.evictions.get();
+  }
+
+  public double getHitRate() {
+    long hitCount = this.hits.get();
+    long total = hitCount + this.misses.get();
+    return total == 0 ? 0.0 : (double) hitCount / total;
+  }
+
+  private Optional<Product> record(Snapshot snapshot) {
+    if (snapshot == null) {
+      this.misses.incrementAndGet();
+      return Optional.empty();
+    }
+    this.hits.incrementAndGet();
+    return Optional.of(snapshot.toProduct());
+  }
+
+  // Drops the row now and, once the write is committed, replaces it with the new snapshot
+  private void publish(int productId, Snapshot snapshot) {
+    this.remove(productId);
+    TransactionManager.runAfterCommit(
+        () -> {
+          this.remove(productId);
+          if (snapshot != null) {
+            synchronized (this) {
+              this.putInternal(snapshot);
+            }
+          }
+        });
+  }
+
+  private synchronized void remove(int productId) {
+    this.generation.incrementAndGet();
+    Snapshot removed = this.productsById.remove(productId);
+    if (removed != null) {
+      this.removeSecondaryKeys(removed);
+    }
+  }
+
+  private void putInternal(Snapshot snapshot) {
+    Snapshot previous = this.productsById.put(snapshot.id(), snapshot);
+    if (previous != null) {
+      this.removeSecondaryKeys(previous);
+    }
+    if (snapshot.sku() != null) {
+      this.idsBySku.put(snapshot.sku(), snapshot.id());
+    }
+    if (snapshot.barcode() != null) {
+      this.idsByBarcode.put(snapshot.barcode(), snapshot.id());
+    }
+  }
+
+  private void removeSecondaryKeys(Snapshot snapshot) {
+    if (snapshot.sku() != null) {
+      this.idsBySku.remove(snapshot.sku(), snapshot.id());
+    }
+    if (snapshot.barcode() != null) {
+      this.idsByBarcode.remove(snapshot.barcode(), snapshot.id());
+    }
+  }
+
+  private record Snapshot(
+      int id,
+      String sku,
+      String barcode,
+      String name,
+      String category,
+      String unitType,
+      String taxCategory,
+      String description,
+      int weight,
+      int currentStock,
+      int minStockLevel,
+      int maxStockLevel,
+      int reorderingLevel,
+      long sellingPriceCents,
+      long averageUnitCostCents,
+      boolean active,
+      OffsetDateTime createdAt,
+      OffsetDateTime updatedAt,
+      boolean deleted) {
+    static Snapshot of(Product product) {
+      return new Snapshot(
+          product.getId(),
+          product.getSku(),
+          product.getBarcode(),
+          product.getName(),
+          product.getCategory(),
+          product.getUnitType(),
+          product.getTaxCategory(),
+          product.getDescription(),
+          product.getWeight(),
+          product.getCurrentStock(),
+          product.getMinStockLevel(),
+          product.getMaxStockLevel(),
+          product.getReorderingLevel(),
+          product.getSellingPriceCents(),
+          product.getAverageUnitCostCents(),
+          product.isActive(),
+          product.getCreatedAt(),
+          product.getUpdatedAt(),
+          product.isDeleted());
+    }
+
+    Snapshot withStockChange(
+        int changeAmount, long newAverageUnitCostCents, OffsetDateTime newUpdatedAt) {
+      return new Snapshot(
+          id,
+          sku,
+          barcode,
+          name,
+          category,
+          unitType,
+          taxCategory,
+          description,
+          weight,
+          currentStock + changeAmount,
+          minStockLevel,
+          maxStockLevel,
+          reorderingLevel,
+          sellingPriceCents,
+          newAverageUnitCostCents,
+          active,
+          createdAt,
+          newUpdatedAt,
+          deleted);
+    }
+
+    Snapshot withRowState(
+        OffsetDateTime newCreatedAt, OffsetDateTime newUpdatedAt, boolean newDeleted) {
+      return new Snapshot(
+          id,
+          sku,
+          barcode,
+          name,
+          category,
+          unitType,
+          taxCategory,
+          description,
+          weight,
+          currentStock,
+          minStockLevel,
+          maxStockLevel,
+          reorderingLevel,
+          sellingPriceCents,
+          averageUnitCostCents,
+          active,
+          newCreatedAt,
+          newUpdatedAt,
+          newDeleted);
+    }
+
+    Product toProduct() {
+      return new Product(
+          id,
+          sku,
+          barcode,
+          name,
+          category,
+          unitType,
+          taxCategory,
+          description,
+          weight,
+          currentStock,
+          minStockLevel,
+          maxStockLevel,
+          reorderingLevel,
+          sellingPriceCents,
+          averageUnitCostCents,
+          active,
+          createdAt,
+          updatedAt,
+          deleted);
+    }
+  }
+}
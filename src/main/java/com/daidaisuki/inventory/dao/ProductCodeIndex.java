@@ -0,0 +1,151 @@
+package com.daidaisuki.inventory.dao;
+
+import com.daidaisuki.inventory.db.TransactionManager;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Complete in-memory map of every product's SKU and barcode to its id, for scanner lookups and
+ * uniqueness checks that should not touch SQLite.
+ *
+ * <p>Unlike {@link ProductCache} this holds every row, archived ones included, since the UNIQUE
+ * constraints cover them too. It is loaded once on first use and then kept in step with ProductDAO
+ * writes, each applied only after its transaction commits.
+ */
+public class ProductCodeIndex {
+  private static final Map<Connection, ProductCodeIndex> INDEXES = new ConcurrentHashMap<>();
+
+  private final Map<String, Integer> idsBySku = new HashMap<>();
+  private final Map<String, Integer> idsByBarcode = new HashMap<>();
+  private final Map<Integer, Entry> entriesById = new HashMap<>();
+  private boolean loaded;
+
+  /** The codes of one product row. */
+  public record Entry(int id, String sku, String barcode, boolean deleted) {}
+
+  private ProductCodeIndex() {}
+
+  public static ProductCodeIndex forConnection(Connection connection) {
+    return INDEXES.computeIfAbsent(connection, conn -> new ProductCodeIndex());
+  }
+
+  public static void invalidate(Connection connection) {
+    INDEXES.remove(connection);
+  }
+
+  /**
+   * Loads the index from the given source unless it already has been. The lock is held for the
+   * load, so a write committed meanwhile is applied after it rather than lost.
+   */
+  public synchronized void ensureLoaded(Supplier<List<Entry>> loader) {
+    if (this.loaded) {
+      return;
+    }
+    for (Entry entry : loader.get()) {
+      this.putInternal(entry);
+    }
+    this.loaded = true;
+  }
+
+  public synchronized OptionalInt findIdBySku(String sku) {
+    return toOptional(sku == null ? null : this.idsBySku.get(sku));
+  }
+
+  public synchronized OptionalInt findIdByBarcode(String barcode) {
+    return toOptional(barcode == null ? null : this.idsByBarcode.get(barcode));
+  }
+
+  /** True when an active product already uses the SKU. */
+  public synchronized boolean hasActiveSku(String sku) {
+    Integer id = sku == null ? null : this.idsBySku.get(sku);
+    return id != null && !this.entriesById.get(id).deleted();
+  }
+
+  /** True when an active product already uses the barcode. */
+  public synchronized boolean hasActiveBarcode(String barcode) {
+    Integer id = barcode == null ? null : this.idsByBarcode.get(barcode);
+    return id != null && !this.entriesById.get(id).deleted();
+  }
+
+  public synchronized int size() {
+    return this.entriesById.size();
+  }
+
+  public void put(Entry entry) {
+    TransactionManager.runAfterCommit(
+        () -> {
+          synchronized (this) {
+            if (this.loaded) {
+              this.putInternal(entry);
+            }
+          }
+        });
+  }
+
+  /** Replaces a product's codes, keeping its archived flag. */
+  public void updateCodes(int productId, String sku, String barcode) {
+    TransactionManager.runAfterCommit(
+        () -> {
+          synchronized (this) {
+            Entry current = this.entriesById.get(productId);
+            if (this.loaded && current != null) {
+              this.putInternal(new Entry(productId, sku, barcode, current.deleted()));
+            }
+          }
+        });
+  }
+
+  public void setDeleted(int productId, boolean deleted) {
+    TransactionManager.runAfterCommit(
+        () -> {
+          synchronized (this) {
+            Entry current = this.entriesById.get(productId);
+            if (this.loaded && current != null) {
+              this.putInternal(new Entry(productId, current.sku(), current.barcode(), deleted));
+            }
+          }
+        });
+  }
+
+  public void remove(int productId) {
+    TransactionManager.runAfterCommit(
+        () -> {
+          synchronized (this) {
+            this.removeInternal(productId);
+          }
+        });
+  }
+
+  private void putInternal(Entry entry) {
+    this.removeInternal(entry.id());
+    this.entriesById.put(entry.id(), entry);
+    if (entry.sku() != null) {
+      this.idsBySku.put(entry.sku(), entry.id());
+    }
+    if (entry.barcode() != null) {
+      this.idsByBarcode.put(entry.barcode(), entry.id());
+    }
+  }
+
+  private void removeInternal(int productId) {
+    Entry previous = this.entriesById.remove(productId);
+    if (previous == null) {
+      return;
+    }
+    if (previous.sku() != null) {
+      this.idsBySku.remove(previous.sku(), productId);
+    }
+    if (previous.barcode() != null) {
+      this.idsByBarcode.remove(previous.barcode(), productId);
+    }
+  }
+
+  private static OptionalInt toOptional(Integer id) {
+    return id == null ? OptionalInt.empty() : OptionalInt.of(id);
+  }
+}
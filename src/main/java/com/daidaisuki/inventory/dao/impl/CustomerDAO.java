@@ -1,22 +1,23 @@
 package com.daidaisuki.inventory.dao.impl;
 
 import com.daidaisuki.inventory.dao.BaseDAO;
+import com.daidaisuki.inventory.db.DatabaseManager;
 import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.Customer;
 import com.daidaisuki.inventory.util.CurrencyUtil;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import javax.sql.DataSource;
 
 public class CustomerDAO extends BaseDAO<Customer> {
-  public CustomerDAO(Connection connection) {
-    super(connection);
+  public CustomerDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
   }
 
   public List<Customer> findAll() {
@@ -40,7 +41,7 @@ public class CustomerDAO extends BaseDAO<Customer> {
         WHERE is_deleted = 0
         ORDER BY full_name ASC
         """;
-    return query(sql, this::mapResultSetToCustomer);
+    return readQuery(sql, this::mapResultSetToCustomer);
   }
 
   public Customer save(Customer customer) {
@@ -59,8 +60,8 @@ public class CustomerDAO extends BaseDAO<Customer> {
           ?, ?, ?, ?,
           ?, ?, ?, ?)
         """;
-    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-    String nowString = now.toString();
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
     return insert(
         sql,
         (newId) ->
@@ -72,20 +73,20 @@ public class CustomerDAO extends BaseDAO<Customer> {
                 customer.getAddress(),
                 customer.getAcquisitionSource(),
                 0,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
+                0L,
+                0L,
+                0L,
                 null,
-                now,
-                now,
+                nowDateTime,
+                nowDateTime,
                 false),
         customer.getFullName(),
         customer.getPhoneNumber(),
         customer.getEmail(),
         customer.getAddress(),
         customer.getAcquisitionSource(),
-        nowString,
-        nowString,
+        now,
+        now,
         0);
   }
 
@@ -110,19 +111,25 @@ public class CustomerDAO extends BaseDAO<Customer> {
         customer.getEmail(),
         customer.getAddress(),
         customer.getAcquisitionSource(),
-        OffsetDateTime.now(ZoneOffset.UTC),
+        TimestampUtil.nowMillis(),
         customer.getId());
   }
 
   public void delete(int customerId) {
     String sql = "UPDATE customers SET is_deleted = 1, updated_at = ? WHERE id = ?";
-    update(sql, OffsetDateTime.now(ZoneOffset.UTC), customerId);
+    update(sql, TimestampUtil.nowMillis(), customerId);
   }
 
   public void restore(int customerId) {
     String sql =
         "UPDATE customers SET is_deleted = 0, updated_at = ? WHERE id = ? AND is_deleted = 1";
-    update(sql, OffsetDateTime.now(ZoneOffset.UTC), customerId);
+    update(sql, TimestampUtil.nowMillis(), customerId);
+  }
+
+  /** Recomputes customer_stats from the orders table and returns the number of customers. */
+  public int rebuildSummaries() {
+    this.updateReturningAffectedRows("DELETE FROM customer_stats");
+    return this.updateReturningAffectedRows(DatabaseManager.REBUILD_CUSTOMER_STATS_SQL);
   }
 
   public Optional<Customer> findById(int id) {
@@ -145,7 +152,7 @@ public class CustomerDAO extends BaseDAO<Customer> {
         FROM customer_summary
         WHERE id = ?
         """;
-    return queryForObject(sql, this::mapResultSetToCustomer, id);
+    return readQueryForObject(sql, this::mapResultSetToCustomer, id);
   }
 
   public List<Customer> findAllByName(String fullName) {
@@ -168,7 +175,7 @@ public class CustomerDAO extends BaseDAO<Customer> {
         FROM customer_summary
         WHERE full_name = ? AND is_deleted = 0
         """;
-    return query(sql, this::mapResultSetToCustomer, fullName);
+    return readQuery(sql, this::mapResultSetToCustomer, fullName);
   }
 
   public List<Customer> findAllDeleted() {
@@ -192,7 +199,7 @@ public class CustomerDAO extends BaseDAO<Customer> {
         WHERE is_deleted = 1
         ORDER BY updated_at DESC
         """;
-    return query(sql, this::mapResultSetToCustomer);
+    return readQuery(sql, this::mapResultSetToCustomer);
   }
 
   private Customer mapResultSetToCustomer(ResultSet rs) {
@@ -204,15 +211,16 @@ public class CustomerDAO extends BaseDAO<Customer> {
       String address = rs.getString("address");
       String acquisitionSource = rs.getString("acquisition_source");
       int totalOrders = rs.getInt("total_orders");
-      BigDecimal totalSpent = CurrencyUtil.longToBigDecimal(rs.getLong("total_spent_cents"));
-      BigDecimal totalDiscount = CurrencyUtil.longToBigDecimal(rs.getLong("total_discount_cents"));
-      BigDecimal averageOrderValue =
-          totalOrders > 0
-              ? totalSpent.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP)
-              : BigDecimal.ZERO;
-      OffsetDateTime lastOrderDate = rs.getObject("last_order_date", OffsetDateTime.class);
-      OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
-      OffsetDateTime updatedAt = rs.getObject("updated_at", OffsetDateTime.class);
+      long totalSpentCents = rs.getLong("total_spent_cents");
+      long totalDiscountCents = rs.getLong("total_discount_cents");
+      long averageOrderValueCents =
+          totalOrders > 0 ? CurrencyUtil.divideHalfUp(totalSpentCents, totalOrders) : 0L;
+      OffsetDateTime lastOrderDate =
+          DatabaseUtils.getOffsetDateTime(rs, "last_order_date", "Customer ID: " + id);
+      OffsetDateTime createdAt =
+          DatabaseUtils.getOffsetDateTime(rs, "created_at", "Customer ID: " + id);
+      OffsetDateTime updatedAt =
+          DatabaseUtils.getOffsetDateTime(rs, "updated_at", "Customer ID: " + id);
       boolean isDeleted = rs.getInt("is_deleted") == 1;
       return new Customer(
           id,
@@ -222,9 +230,9 @@ public class CustomerDAO extends BaseDAO<Customer> {
           address,
           acquisitionSource,
           totalOrders,
-          totalSpent,
-          totalDiscount,
-          averageOrderValue,
+          totalSpentCents,
+          totalDiscountCents,
+          averageOrderValueCents,
           lastOrderDate,
           createdAt,
           updatedAt,
@@ -4,17 +4,21 @@ import com.daidaisuki.inventory.dao.BaseDAO;
 import com.daidaisuki.inventory.enums.TransactionType;
 import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.InventoryTransaction;
+import com.daidaisuki.inventory.model.projection.InventoryTransactionRecord;
 import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
 
 public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
-  public InventoryTransactionDAO(Connection connection) {
-    super(connection);
+  public InventoryTransactionDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
   }
 
   public List<InventoryTransaction> findAll() {
@@ -35,7 +39,28 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
         FROM inventory_transactions
         ORDER BY created_at ASC
         """;
-    return query(sql, this::mapResultSetToTransaction);
+    return readQuery(sql, this::mapResultSetToTransaction);
+  }
+
+  public long streamAll(Consumer<InventoryTransactionRecord> consumer) {
+    String sql =
+        """
+        SELECT
+          id,
+          product_id,
+          batch_id,
+          user_id,
+          reference_id,
+          change_amount,
+          transaction_type,
+          reason_code,
+          created_at,
+          updated_at,
+          is_deleted
+        FROM inventory_transactions
+        ORDER BY created_at ASC
+        """;
+    return streamQuery(sql, this::mapResultSetToTransactionRecord, consumer);
   }
 
   public InventoryTransaction save(InventoryTransaction transaction) {
@@ -56,8 +81,8 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
           ?, ?, ?, ?, ?,
           ?, ?, ?, ?, ?)
         """;
-    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-    String nowString = now.toString();
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
     return insert(
         sql,
         (newId) ->
@@ -70,8 +95,8 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
                 transaction.getChangeAmount(),
                 transaction.getTransactionType(),
                 transaction.getReasonCode(),
-                now,
-                now,
+                nowDateTime,
+                nowDateTime,
                 false),
         transaction.getProductId(),
         transaction.getBatchId(),
@@ -80,11 +105,49 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
         transaction.getChangeAmount(),
         transaction.getTransactionType().name(),
         transaction.getReasonCode(),
-        nowString,
-        nowString,
+        now,
+        now,
         0);
   }
 
+  public void saveAll(List<InventoryTransaction> transactions) {
+    String sql =
+        """
+        INSERT INTO inventory_transactions(
+          product_id,
+          batch_id,
+          user_id,
+          reference_id,
+          change_amount,
+          transaction_type,
+          reason_code,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES (
+          ?, ?, ?, ?, ?,
+          ?, ?, ?, ?, ?)
+        """;
+    long now = TimestampUtil.nowMillis();
+    List<Object[]> paramsList = new ArrayList<>(transactions.size());
+    for (InventoryTransaction transaction : transactions) {
+      paramsList.add(
+          new Object[] {
+            transaction.getProductId(),
+            transaction.getBatchId(),
+            transaction.getUserId(),
+            transaction.getReferenceId(),
+            transaction.getChangeAmount(),
+            transaction.getTransactionType().name(),
+            transaction.getReasonCode(),
+            now,
+            now,
+            0
+          });
+    }
+    batchInsert(sql, paramsList);
+  }
+
   public List<InventoryTransaction> findAllByProductId(int productId) {
     String sql =
         """
@@ -104,7 +167,45 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
         WHERE product_id = ?
         ORDER BY created_at DESC
         """;
-    return query(sql, this::mapResultSetToTransaction, productId);
+    return readQuery(sql, this::mapResultSetToTransaction, productId);
+  }
+
+  /**
+   * Returns the next page of a product's history in newest-first {@code (created_at, id)} order,
+   * starting before the given key. Pass a null {@code beforeCreatedAt} for the first page.
+   */
+  public List<InventoryTransaction> findPageByProductId(
+      int productId, OffsetDateTime beforeCreatedAt, int beforeId, int limit) {
+    String sql =
+        """
+        SELECT
+          id,
+          product_id,
+          batch_id,
+          user_id,
+          reference_id,
+          change_amount,
+          transaction_type,
+          reason_code,
+          created_at,
+          updated_at,
+          is_deleted
+        FROM inventory_transactions
+        WHERE product_id = ?
+        %s
+        ORDER BY created_at DESC, id DESC
+        LIMIT ?
+        """;
+    if (beforeCreatedAt == null) {
+      return readQuery(sql.formatted(""), this::mapResultSetToTransaction, productId, limit);
+    }
+    return readQuery(
+        sql.formatted("AND (created_at, id) < (?, ?)"),
+        this::mapResultSetToTransaction,
+        productId,
+        TimestampUtil.toEpochMillis(beforeCreatedAt),
+        beforeId,
+        limit);
   }
 
   public List<InventoryTransaction> findAllByBatchId(int batchId) {
@@ -125,7 +226,7 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
         FROM inventory_transactions WHERE batch_id = ?
         ORDER BY created_at DESC
         """;
-    return query(sql, this::mapResultSetToTransaction, batchId);
+    return readQuery(sql, this::mapResultSetToTransaction, batchId);
   }
 
   public List<InventoryTransaction> findAllByDateRange(OffsetDateTime start, OffsetDateTime end) {
@@ -147,7 +248,57 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
         WHERE created_at BETWEEN ? AND ?
         ORDER BY created_at ASC
         """;
-    return query(sql, this::mapResultSetToTransaction, start, end);
+    return readQuery(
+        sql,
+        this::mapResultSetToTransaction,
+        TimestampUtil.toEpochMillis(start),
+        TimestampUtil.toEpochMillis(end));
+  }
+
+  public long streamAllByDateRange(
+      OffsetDateTime start, OffsetDateTime end, Consumer<InventoryTransactionRecord> consumer) {
+    String sql =
+        """
+        SELECT
+          id,
+          product_id,
+          batch_id,
+          user_id,
+          reference_id,
+          change_amount,
+          transaction_type,
+          reason_code,
+          created_at,
+          updated_at,
+          is_deleted
+        FROM inventory_transactions
+        WHERE created_at BETWEEN ? AND ?
+        ORDER BY created_at ASC
+        """;
+    return streamQuery(
+        sql,
+        this::mapResultSetToTransactionRecord,
+        consumer,
+        TimestampUtil.toEpochMillis(start),
+        TimestampUtil.toEpochMillis(end));
+  }
+
+  private InventoryTransactionRecord mapResultSetToTransactionRecord(ResultSet rs) {
+    try {
+      int id = rs.getInt("id");
+      return new InventoryTransactionRecord(
+          id,
+          rs.getInt("product_id"),
+          rs.getInt("batch_id"),
+          rs.getInt("user_id"),
+          rs.getInt("reference_id"),
+          rs.getInt("change_amount"),
+          TransactionType.valueOf(rs.getString("transaction_type")),
+          rs.getString("reason_code"),
+          rs.getLong("created_at"));
+    } catch (SQLException e) {
+      throw new DataAccessException("Mapping failed", e);
+    }
   }
 
   private InventoryTransaction mapResultSetToTransaction(ResultSet rs) {
@@ -161,9 +312,9 @@ public class InventoryTransactionDAO extends BaseDAO<InventoryTransaction> {
       TransactionType transactionType = TransactionType.valueOf(rs.getString("transaction_type"));
       String reasonCode = rs.getString("reason_code");
       OffsetDateTime createdAt =
-          DatabaseUtils.getOffsetDateTime(rs, "created_at", "InventoryTrabsaction ID: " + id);
+          DatabaseUtils.getOffsetDateTime(rs, "created_at", "InventoryTransaction ID: " + id);
       OffsetDateTime updatedAt =
-          DatabaseUtils.getOffsetDateTime(rs, "updated_at", "InventoryTrabsaction ID: " + id);
+          DatabaseUtils.getOffsetDateTime(rs, "updated_at", "InventoryTransaction ID: " + id);
       boolean isDeleted = rs.getInt("is_deleted") == 1;
       return new InventoryTransaction(
           id,
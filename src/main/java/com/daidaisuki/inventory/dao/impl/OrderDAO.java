@@ -8,19 +8,19 @@ import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.Customer;
 import com.daidaisuki.inventory.model.Order;
 import com.daidaisuki.inventory.model.dto.OrderStats;
-import com.daidaisuki.inventory.util.CurrencyUtil;
-import java.math.BigDecimal;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import javax.sql.DataSource;
 
 public class OrderDAO extends BaseDAO<Order> {
-  public OrderDAO(Connection connection) {
-    super(connection);
+  public OrderDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
   }
 
   public List<Order> findAll() {
@@ -51,7 +51,7 @@ public class OrderDAO extends BaseDAO<Order> {
         FROM orders o LEFT JOIN customer_summary c On o.customer_id = c.id
         WHERE o.is_deleted = 0
         """;
-    return query(sql, this::mapResultSetToOrder);
+    return readQuery(sql, this::mapResultSetToOrder);
   }
 
   public Order save(Order order) {
@@ -77,8 +77,8 @@ public class OrderDAO extends BaseDAO<Order> {
           ?, ?, ?, ?, ?, ?, ?,
           ?, ?, ?, ?, ?, ?, ?, ?)
         """;
-    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-    String nowString = now.toString();
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
     return insert(
         sql,
         (newId) ->
@@ -96,8 +96,8 @@ public class OrderDAO extends BaseDAO<Order> {
                 order.getFinalAmountCents(),
                 order.getPaymentMethod(),
                 order.getTrackingNumber(),
-                now,
-                now,
+                nowDateTime,
+                nowDateTime,
                 false),
         order.getCustomerId(),
         order.getFulfillmentType().name(),
@@ -111,8 +111,8 @@ public class OrderDAO extends BaseDAO<Order> {
         order.getFinalAmountCents(),
         order.getPaymentMethod().name(),
         order.getTrackingNumber(),
-        nowString,
-        nowString,
+        now,
+        now,
         0);
   }
 
@@ -151,7 +151,7 @@ public class OrderDAO extends BaseDAO<Order> {
         order.getFinalAmountCents(),
         order.getPaymentMethod().name(),
         order.getTrackingNumber(),
-        OffsetDateTime.now(ZoneOffset.UTC),
+        TimestampUtil.nowMillis(),
         order.getId());
   }
 
@@ -184,17 +184,17 @@ public class OrderDAO extends BaseDAO<Order> {
         LEFT JOIN customer_summary c ON o.customer_id = c.id
         WHERE o.id = ?
         """;
-    return queryForObject(sql, this::mapResultSetToOrder, id);
+    return readQueryForObject(sql, this::mapResultSetToOrder, id);
   }
 
   public void delete(int orderId) {
     String sql = "UPDATE orders SET is_deleted = 1, updated_at = ? WHERE id = ?";
-    update(sql, OffsetDateTime.now(ZoneOffset.UTC), orderId);
+    update(sql, TimestampUtil.nowMillis(), orderId);
   }
 
   public void restore(int orderId) {
     String sql = "UPDATE orders SET is_deleted = 0, updated_at = ? WHERE id = ? AND is_deleted = 1";
-    update(sql, OffsetDateTime.now(ZoneOffset.UTC), orderId);
+    update(sql, TimestampUtil.nowMillis(), orderId);
   }
 
   public Optional<OrderStats> getStatsForCustomer(int customerId) {
@@ -208,14 +208,15 @@ public class OrderDAO extends BaseDAO<Order> {
         FROM customer_summary
         WHERE customer_id = ? AND is_deleted = 0
         """;
-    return queryForObject(
+    return readQueryForObject(
         sql,
         rs ->
             new OrderStats(
                 rs.getInt("total_orders"),
                 rs.getLong("total_spent"),
                 rs.getLong("total_discount"),
-                rs.getObject("last_order_date", OffsetDateTime.class)),
+                DatabaseUtils.getOffsetDateTime(
+                    rs, "last_order_date", "Customer ID: " + customerId)),
         customerId);
   }
 
@@ -247,7 +248,7 @@ public class OrderDAO extends BaseDAO<Order> {
         WHERE customer_id = ? AND is_deleted = 0
         ORDER BY created_at DESC
         """;
-    return query(sql, this::mapResultSetToOrder, customerId);
+    return readQuery(sql, this::mapResultSetToOrder, customerId);
   }
 
   private Order mapResultSetToOrder(ResultSet rs) {
@@ -267,8 +268,10 @@ public class OrderDAO extends BaseDAO<Order> {
       long finalAmountCents = rs.getLong("final_amount_cents");
       PaymentMethod paymentMethod = PaymentMethod.fromString(rs.getString("payment_method"));
       String trackingNumber = rs.getString("tracking_number");
-      OffsetDateTime orderCreatedAt = rs.getObject("created_at", OffsetDateTime.class);
-      OffsetDateTime orderUpdatedAt = rs.getObject("updated_at", OffsetDateTime.class);
+      OffsetDateTime orderCreatedAt =
+          DatabaseUtils.getOffsetDateTime(rs, "created_at", "Order ID: " + id);
+      OffsetDateTime orderUpdatedAt =
+          DatabaseUtils.getOffsetDateTime(rs, "updated_at", "Order ID: " + id);
       boolean orderIsDeleted = rs.getInt("is_deleted") == 1;
       Customer customer = mapResultSetToCustmer(rs);
       Order order =
@@ -301,8 +304,9 @@ public class OrderDAO extends BaseDAO<Order> {
       int customerId = rs.getInt("customer_id");
       String fullName = rs.getString("c_full_name");
       int totalOrder = rs.getInt("total_orders");
-      BigDecimal totalSpent = CurrencyUtil.longToBigDecimal(rs.getLong("total_spent_cents"));
-      OffsetDateTime lastOrderDate = rs.getObject("last_order_date", OffsetDateTime.class);
+      long totalSpentCents = rs.getLong("total_spent_cents");
+      OffsetDateTime lastOrderDate =
+          DatabaseUtils.getOffsetDateTime(rs, "last_order_date", "Customer ID: " + customerId);
       return new Customer(
           customerId,
           fullName,
@@ -311,9 +315,9 @@ public class OrderDAO extends BaseDAO<Order> {
           "",
           "",
           totalOrder,
-          totalSpent,
-          BigDecimal.ZERO,
-          BigDecimal.ZERO,
+          totalSpentCents,
+          0L,
+          0L,
           lastOrderDate,
           null,
           null,
@@ -3,16 +3,19 @@ package com.daidaisuki.inventory.dao.impl;
 import com.daidaisuki.inventory.dao.BaseDAO;
 import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.OrderItem;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import javax.sql.DataSource;
 
 public class OrderItemDAO extends BaseDAO<OrderItem> {
-  public OrderItemDAO(Connection connection) {
-    super(connection);
+  public OrderItemDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
   }
 
   public OrderItem save(OrderItem item) {
@@ -32,8 +35,8 @@ public class OrderItemDAO extends BaseDAO<OrderItem> {
           ?, ?, ?, ?,
           ?, ?, ?, ?, ?)
         """;
-    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-    String nowString = now.toString();
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
     return insert(
         sql,
         (newId) ->
@@ -45,8 +48,8 @@ public class OrderItemDAO extends BaseDAO<OrderItem> {
                 item.getQuantity(),
                 item.getUnitPriceAtSaleCents(),
                 item.getUnitCostAtSaleCents(),
-                now,
-                now,
+                nowDateTime,
+                nowDateTime,
                 false),
         item.getOrderId(),
         item.getProductId(),
@@ -54,11 +57,64 @@ public class OrderItemDAO extends BaseDAO<OrderItem> {
         item.getQuantity(),
         item.getUnitPriceAtSaleCents(),
         item.getUnitCostAtSaleCents(),
-        nowString,
-        nowString,
+        now,
+        now,
         0);
   }
 
+  public List<OrderItem> saveAll(List<OrderItem> items) {
+    String sql =
+        """
+        INSERT INTO order_items(
+          order_id,
+          product_id,
+          batch_id,
+          quantity,
+          unit_price_at_sale_cents,
+          unit_cost_at_sale_cents,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES(
+          ?, ?, ?, ?,
+          ?, ?, ?, ?, ?)
+        """;
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
+    List<Object[]> paramsList = new ArrayList<>(items.size());
+    for (OrderItem item : items) {
+      paramsList.add(
+          new Object[] {
+            item.getOrderId(),
+            item.getProductId(),
+            item.getBatchId(),
+            item.getQuantity(),
+            item.getUnitPriceAtSaleCents(),
+            item.getUnitCostAtSaleCents(),
+            now,
+            now,
+            0
+          });
+    }
+    return batchInsert(
+        sql,
+        (index, newId) -> {
+          OrderItem item = items.get(index);
+          return new OrderItem(
+              newId,
+              item.getOrderId(),
+              item.getProductId(),
+              item.getBatchId(),
+              item.getQuantity(),
+              item.getUnitPriceAtSaleCents(),
+              item.getUnitCostAtSaleCents(),
+              nowDateTime,
+              nowDateTime,
+              false);
+        },
+        paramsList);
+  }
+
   public void update(OrderItem item) {
     String sql =
         """
@@ -75,14 +131,14 @@ public class OrderItemDAO extends BaseDAO<OrderItem> {
         item.getQuantity(),
         item.getUnitPriceAtSaleCents(),
         item.getUnitCostAtSaleCents(),
-        OffsetDateTime.now(ZoneOffset.UTC),
+        TimestampUtil.nowMillis(),
         item.getId());
   }
 
   public void delete(int orderItemId) {
     String sql =
         "UPDATE order_items SET is_deleted = 1, updated_at = ? WHERE id = ? AND is_deleted = 0";
-    update(sql, OffsetDateTime.now(ZoneOffset.UTC), orderItemId);
+    update(sql, TimestampUtil.nowMillis(), orderItemId);
   }
 
   public List<OrderItem> findAllByOrderId(int orderId) {
@@ -103,7 +159,28 @@ public class OrderItemDAO extends BaseDAO<OrderItem> {
         WHERE order_id = ? AND is_deleted = 0
         ORDER BY id ASC
         """;
-    return query(sql, this::mapResultSetToOrderItem, orderId);
+    return readQuery(sql, this::mapResultSetToOrderItem, orderId);
+  }
+
+  public List<OrderItem> findAllByOrderIds(List<Integer> orderIds) {
+    String baseSql =
+        """
+        SELECT
+          id,
+          order_id,
+          product_id,
+          batch_id,
+          quantity,
+          unit_price_at_sale_cents,
+          unit_cost_at_sale_cents,
+          created_at,
+          updated_at,
+          is_deleted
+        FROM order_items
+        WHERE is_deleted = 0 AND order_id IN (%s)
+        ORDER BY order_id ASC, id ASC
+        """;
+    return readQueryInChunks(baseSql, this::mapResultSetToOrderItem, orderIds);
   }
 
   public void deleteAllByOrderId(int orderId) {
@@ -114,7 +191,7 @@ public class OrderItemDAO extends BaseDAO<OrderItem> {
           is_deleted = 1, updated_at = ?
         WHERE order_id = ? AND is_deleted = 0
         """;
-    update(sql, OffsetDateTime.now(ZoneOffset.UTC), orderId);
+    update(sql, TimestampUtil.nowMillis(), orderId);
   }
 
   private OrderItem mapResultSetToOrderItem(ResultSet rs) {
@@ -126,8 +203,10 @@ public class OrderItemDAO extends BaseDAO<OrderItem> {
       int quantity = rs.getInt("quantity");
       long unitPriceAtSaleCents = rs.getLong("unit_price_at_sale_cents");
       long unitCostAtSaleCents = rs.getLong("unit_cost_at_sale_cents");
-      OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
-      OffsetDateTime updatedAt = rs.getObject("updated_at", OffsetDateTime.class);
+      OffsetDateTime createdAt =
+          DatabaseUtils.getOffsetDateTime(rs, "created_at", "OrderItem ID: " + id);
+      OffsetDateTime updatedAt =
+          DatabaseUtils.getOffsetDateTime(rs, "updated_at", "OrderItem ID: " + id);
       boolean isDeleted = rs.getInt("is_deleted") == 1;
       return new OrderItem(
           id,
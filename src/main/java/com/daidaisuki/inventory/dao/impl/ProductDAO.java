@@ -1,19 +1,25 @@
 package com.daidaisuki.inventory.dao.impl;
 
 import com.daidaisuki.inventory.dao.BaseDAO;
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
 import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.interfaces.Archivable;
 import com.daidaisuki.inventory.interfaces.Removable;
 import com.daidaisuki.inventory.model.Product;
-import com.daidaisuki.inventory.util.CurrencyUtil;
-import java.math.BigDecimal;
+import com.daidaisuki.inventory.model.projection.ProductRecord;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
 
 public class ProductDAO extends BaseDAO<Product> implements Archivable, Removable {
   private static final String TABLE_NAME = "products";
@@ -44,8 +50,13 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
   private static final String WHERE_DELETE_STATUS = " WHERE is_deleted = ?";
   private static final String ORDER_BY_NAME = " ORDER BY name ASC";
 
-  public ProductDAO(Connection connection) {
-    super(connection);
+  private final ProductCache cache;
+  private final ProductCodeIndex codeIndex;
+
+  public ProductDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
+    this.cache = ProductCache.forConnection(connection);
+    this.codeIndex = ProductCodeIndex.forConnection(connection);
   }
 
   public Product save(Product product) {
@@ -78,49 +89,54 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
           ?, ?, ?, ?, ?, ?, ?, ?, ?,
           ?, ?, ?, ?, ?, ?, ?, ?, ?)
         """;
-    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-    String nowString = now.toString();
-    return insert(
-        sql,
-        (newId) ->
-            new Product(
-                newId,
-                product.getSku(),
-                product.getBarcode(),
-                product.getName(),
-                product.getCategory(),
-                product.getUnitType(),
-                product.getTaxCategory(),
-                product.getDescription(),
-                product.getWeight(),
-                0,
-                product.getMinStockLevel(),
-                product.getMaxStockLevel(),
-                product.getReorderingLevel(),
-                product.getSellingPrice(),
-                product.getAverageUnitCost(),
-                true,
-                now,
-                now,
-                false),
-        product.getSku(),
-        product.getBarcode(),
-        product.getName(),
-        product.getCategory(),
-        product.getUnitType(),
-        product.getTaxCategory(),
-        product.getDescription(),
-        product.getWeight(),
-        0,
-        product.getMinStockLevel(),
-        product.getMaxStockLevel(),
-        product.getReorderingLevel(),
-        CurrencyUtil.bigDecimalToLong(product.getSellingPrice()),
-        CurrencyUtil.bigDecimalToLong(product.getAverageUnitCost()),
-        1,
-        nowString,
-        nowString,
-        0);
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
+    Product saved =
+        insert(
+            sql,
+            (newId) ->
+                new Product(
+                    newId,
+                    product.getSku(),
+                    product.getBarcode(),
+                    product.getName(),
+                    product.getCategory(),
+                    product.getUnitType(),
+                    product.getTaxCategory(),
+                    product.getDescription(),
+                    product.getWeight(),
+                    0,
+                    product.getMinStockLevel(),
+                    product.getMaxStockLevel(),
+                    product.getReorderingLevel(),
+                    product.getSellingPriceCents(),
+                    product.getAverageUnitCostCents(),
+                    true,
+                    nowDateTime,
+                    nowDateTime,
+                    false),
+            product.getSku(),
+            product.getBarcode(),
+            product.getName(),
+            product.getCategory(),
+            product.getUnitType(),
+            product.getTaxCategory(),
+            product.getDescription(),
+            product.getWeight(),
+            0,
+            product.getMinStockLevel(),
+            product.getMaxStockLevel(),
+            product.getReorderingLevel(),
+            product.getSellingPriceCents(),
+            product.getAverageUnitCostCents(),
+            1,
+            now,
+            now,
+            0);
+    this.cache.put(saved);
+    this.codeIndex.put(
+        new ProductCodeIndex.Entry(saved.getId(), saved.getSku(), saved.getBarcode(), false));
+    return saved;
   }
 
   public void update(Product product) {
@@ -150,6 +166,7 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
           updated_at = ?
         WHERE id = ?
         """;
+    long now = TimestampUtil.nowMillis();
     update(
         sql,
         product.getSku(),
@@ -164,29 +181,42 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
         product.getMinStockLevel(),
         product.getMaxStockLevel(),
         product.getReorderingLevel(),
-        CurrencyUtil.bigDecimalToLong(product.getSellingPrice()),
-        CurrencyUtil.bigDecimalToLong(product.getAverageUnitCost()),
+        product.getSellingPriceCents(),
+        product.getAverageUnitCostCents(),
         product.isActive() ? 1 : 0,
-        OffsetDateTime.now(ZoneOffset.UTC),
+        now,
         product.getId());
+    this.cache.applyUpdate(product, TimestampUtil.toOffsetDateTime(now));
+    this.codeIndex.updateCodes(product.getId(), product.getSku(), product.getBarcode());
   }
 
   @Override
   public void archive(int productId) {
     this.setDeletionStatus(TABLE_NAME, productId, true);
+    this.cache.evict(productId);
+    this.codeIndex.setDeleted(productId, true);
   }
 
   @Override
   public void restore(int productId) {
     this.setDeletionStatus(TABLE_NAME, productId, false);
+    this.cache.evict(productId);
+    this.codeIndex.setDeleted(productId, false);
   }
 
   @Override
   public void remove(int productId) {
     this.deleteById(TABLE_NAME, productId);
+    this.cache.evict(productId);
+    this.codeIndex.remove(productId);
   }
 
   public Optional<Product> findById(int id) {
+    Optional<Product> cached = this.cache.get(id);
+    if (cached.isPresent()) {
+      return cached;
+    }
+    long readStamp = this.cache.readStamp();
     String sql =
         """
         SELECT
@@ -212,12 +242,100 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
         FROM products
         WHERE id = ?
         """;
-    return this.queryForObject(sql, this::mapResultSetToProduct, id);
+    Optional<Product> product = this.readQueryForObject(sql, this::mapResultSetToProduct, id);
+    product.ifPresent(loaded -> this.cache.fill(loaded, readStamp));
+    return product;
+  }
+
+  public Optional<Product> findBySku(String sku) {
+    OptionalInt id = this.loadedCodeIndex().findIdBySku(sku);
+    return id.isPresent() ? this.findById(id.getAsInt()) : Optional.empty();
+  }
+
+  /** Resolves a scanned barcode through the code index and product cache. */
+  public Optional<Product> findByBarcode(String barcode) {
+    OptionalInt id = this.loadedCodeIndex().findIdByBarcode(barcode);
+    return id.isPresent() ? this.findById(id.getAsInt()) : Optional.empty();
+  }
+
+  public ProductCache getCache() {
+    return this.cache;
+  }
+
+  public List<Product> findAllByIds(List<Integer> ids) {
+    String sql = BASE_SELECT_PRODUCT + " WHERE id IN (%s)";
+    return this.readQueryInChunks(sql, this::mapResultSetToProduct, ids);
   }
 
   public List<Product> findAll() {
     String sql = BASE_SELECT_PRODUCT + ORDER_BY_NAME;
-    return this.query(sql, this::mapResultSetToProduct);
+    return this.readQuery(sql, this::mapResultSetToProduct);
+  }
+
+  /**
+   * Returns the next page of active or archived products in {@code (name, id)} order, starting
+   * after the given key. Pass a null {@code afterName} for the first page. A non-empty, lower-case
+   * {@code filterText} keeps only products whose name, SKU or category contains it.
+   */
+  public List<Product> findPageAfter(
+      String filterText, boolean archived, String afterName, int afterId, int limit) {
+    // is_deleted is inlined so the active listing can use its partial (name, id) index
+    String sql =
+        BASE_SELECT_PRODUCT
+            + """
+            WHERE is_deleted = %d
+            %s
+            %s
+            ORDER BY name ASC, id ASC
+            LIMIT ?
+            """;
+    List<Object> params = new ArrayList<>();
+    String filterPredicate = "";
+    if (!filterText.isEmpty()) {
+      filterPredicate =
+          """
+          AND (instr(lower(name), ?) > 0
+            OR instr(lower(sku), ?) > 0
+            OR instr(lower(category), ?) > 0)""";
+      params.addAll(List.of(filterText, filterText, filterText));
+    }
+    String keysetPredicate = "";
+    if (afterName != null) {
+      keysetPredicate = "AND (name, id) > (?, ?)";
+      params.addAll(List.of(afterName, afterId));
+    }
+    params.add(limit);
+    return this.readQuery(
+        sql.formatted(archived ? 1 : 0, filterPredicate, keysetPredicate),
+        this::mapResultSetToProduct,
+        params.toArray());
+  }
+
+  /** Rows touched at or after the given instant, archived ones included, for delta refreshes. */
+  public List<Product> findAllUpdatedSince(OffsetDateTime since) {
+    String sql = BASE_SELECT_PRODUCT + " WHERE updated_at >= ? ORDER BY updated_at ASC, id ASC";
+    return this.readQuery(sql, this::mapResultSetToProduct, TimestampUtil.toEpochMillis(since));
+  }
+
+  public long streamAllActiveRecords(Consumer<ProductRecord> consumer) {
+    String sql =
+        """
+        SELECT
+          id,
+          sku,
+          barcode,
+          name,
+          category,
+          current_stock,
+          selling_price_cents,
+          average_unit_cost_cents,
+          is_active,
+          is_deleted
+        FROM products
+        WHERE is_deleted = 0
+        ORDER BY name ASC
+        """;
+    return this.streamQuery(sql, this::mapResultSetToProductRecord, consumer);
   }
 
   public List<Product> findAllActive() {
@@ -230,7 +348,7 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
 
   private List<Product> findByDeletionStatus(Boolean isDeleted) {
     String sql = BASE_SELECT_PRODUCT + WHERE_DELETE_STATUS + ORDER_BY_NAME;
-    return this.query(sql, this::mapResultSetToProduct, isDeleted ? 1 : 0);
+    return this.readQuery(sql, this::mapResultSetToProduct, isDeleted ? 1 : 0);
   }
 
   public boolean updateStockTotal(int productId, int changeAmount) {
@@ -240,33 +358,38 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
         SET current_stock = current_stock + ?, updated_at = ?
         WHERE id = ? AND is_deleted = 0 AND current_stock + ? >= 0
         """;
-    return this.updateReturningAffectedRows(
-            sql, changeAmount, OffsetDateTime.now(ZoneOffset.UTC), productId, changeAmount)
-        > 0;
+    long now = TimestampUtil.nowMillis();
+    boolean updated =
+        this.updateReturningAffectedRows(sql, changeAmount, now, productId, changeAmount) > 0;
+    if (updated) {
+      this.cache.applyStockChange(productId, changeAmount, TimestampUtil.toOffsetDateTime(now));
+    }
+    return updated;
   }
 
   public boolean updateStockTotalAndCost(
-      int productId, int changeAmount, BigDecimal newAverageUnitCost) {
-    long newAverageUnitCostCents = CurrencyUtil.bigDecimalToLong(newAverageUnitCost);
+      int productId, int changeAmount, long newAverageUnitCostCents) {
     String sql =
         """
         UPDATE products
         SET current_stock = current_stock + ?, average_unit_cost_cents = ?, updated_at = ?
         WHERE id = ? AND is_deleted = 0 AND current_stock + ? >= 0
         """;
-    return this.updateReturningAffectedRows(
-            sql,
-            changeAmount,
-            newAverageUnitCostCents,
-            OffsetDateTime.now(ZoneOffset.UTC),
-            productId,
-            changeAmount)
-        > 0;
+    long now = TimestampUtil.nowMillis();
+    boolean updated =
+        this.updateReturningAffectedRows(
+                sql, changeAmount, newAverageUnitCostCents, now, productId, changeAmount)
+            > 0;
+    if (updated) {
+      this.cache.applyStockAndCostChange(
+          productId, changeAmount, newAverageUnitCostCents, TimestampUtil.toOffsetDateTime(now));
+    }
+    return updated;
   }
 
   public List<String> findAllDistinctUnitTypes() {
     String sql = "SELECT DISTINCT unit_type FROM products";
-    return this.query(sql, this::mapResultSetToUnitType);
+    return this.readQuery(sql, this::mapResultSetToUnitType);
   }
 
   public boolean exists(int productId) {
@@ -276,13 +399,28 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
   }
 
   public boolean existsBySku(String sku) {
-    String sql = "SELECT COUNT(*) FROM products WHERE sku = ? AND is_deleted = 0";
-    return this.queryForObject(sql, rs -> rs.getInt(1) > 0, sku).orElse(false);
+    return this.loadedCodeIndex().hasActiveSku(sku);
   }
 
   public boolean existsByBarcode(String barcode) {
-    String sql = "SELECT COUNT(*) FROM products WHERE barcode = ? AND is_deleted = 0";
-    return this.queryForObject(sql, rs -> rs.getInt(1) > 0, barcode).orElse(false);
+    return this.loadedCodeIndex().hasActiveBarcode(barcode);
+  }
+
+  private ProductCodeIndex loadedCodeIndex() {
+    this.codeIndex.ensureLoaded(this::findAllCodes);
+    return this.codeIndex;
+  }
+
+  private List<ProductCodeIndex.Entry> findAllCodes() {
+    String sql = "SELECT id, sku, barcode, is_deleted FROM products";
+    return this.readQuery(
+        sql,
+        rs ->
+            new ProductCodeIndex.Entry(
+                rs.getInt("id"),
+                rs.getString("sku"),
+                rs.getString("barcode"),
+                rs.getInt("is_deleted") == 1));
   }
 
   private String mapResultSetToUnitType(ResultSet rs) {
@@ -293,6 +431,24 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
     }
   }
 
+  private ProductRecord mapResultSetToProductRecord(ResultSet rs) {
+    try {
+      return new ProductRecord(
+          rs.getInt("id"),
+          rs.getString("sku"),
+          rs.getString("barcode"),
+          rs.getString("name"),
+          rs.getString("category"),
+          rs.getInt("current_stock"),
+          rs.getLong("selling_price_cents"),
+          rs.getLong("average_unit_cost_cents"),
+          rs.getInt("is_active") == 1,
+          rs.getInt("is_deleted") == 1);
+    } catch (SQLException e) {
+      throw new DataAccessException("Mapping failed.", e);
+    }
+  }
+
   private Product mapResultSetToProduct(ResultSet rs) {
     try {
       int id = rs.getInt("id");
@@ -308,14 +464,13 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
       int minStockLevel = rs.getInt("min_stock_level");
       int maxStockLevel = rs.getInt("max_stock_level");
       int reorderingLevel = rs.getInt("reordering_level");
-      BigDecimal sellingPrice = CurrencyUtil.longToBigDecimal(rs.getLong("selling_price_cents"));
-      BigDecimal averageUnitCost =
-          CurrencyUtil.longToBigDecimal(rs.getLong("average_unit_cost_cents"));
+      long sellingPriceCents = rs.getLong("selling_price_cents");
+      long averageUnitCostCents = rs.getLong("average_unit_cost_cents");
       boolean isActive = rs.getInt("is_active") == 1;
-      String createdAtString = rs.getString("created_at");
-      String updatedAtString = rs.getString("updated_at");
-      OffsetDateTime createdAt = OffsetDateTime.parse(createdAtString);
-      OffsetDateTime updatedAt = OffsetDateTime.parse(updatedAtString);
+      OffsetDateTime createdAt =
+          DatabaseUtils.getOffsetDateTime(rs, "created_at", "Product ID: " + id);
+      OffsetDateTime updatedAt =
+          DatabaseUtils.getOffsetDateTime(rs, "updated_at", "Product ID: " + id);
       boolean isDeleted = rs.getInt("is_deleted") == 1;
       return new Product(
           id,
@@ -331,8 +486,8 @@ public class ProductDAO extends BaseDAO<Product> implements Archivable, Removabl
           minStockLevel,
           maxStockLevel,
           reorderingLevel,
-          sellingPrice,
-          averageUnitCost,
+          sellingPriceCents,
+          averageUnitCostCents,
           isActive,
           createdAt,
           updatedAt,
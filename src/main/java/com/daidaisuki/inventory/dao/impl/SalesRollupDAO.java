@@ -0,0 +1,208 @@
+package com.daidaisuki.inventory.dao.impl;
+
+import com.daidaisuki.inventory.dao.BaseDAO;
+import com.daidaisuki.inventory.enums.PeriodGrain;
+import com.daidaisuki.inventory.enums.SalesDimension;
+import com.daidaisuki.inventory.exception.DataAccessException;
+import com.daidaisuki.inventory.model.projection.MarginRow;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+
+/**
+ * Revenue and cost of goods sold from order lines, with closed periods cached in sales_rollups.
+ *
+ * <p>Only the PRODUCT and CUSTOMER breakdowns are cached. Category and total figures are summed
+ * from the product rows at query time, so recategorising a product never invalidates the cache.
+ */
+public class SalesRollupDAO extends BaseDAO<MarginRow> {
+  // Order lines whose order falls in [from, until), grouped by period and by product or customer.
+  // The lower bound is spliced in, so a caller can pass a subquery instead of a parameter.
+  private static final String LIVE_LINES_SQL =
+      """
+      SELECT
+        %1$s AS period_start,
+        %2$s AS group_id,
+        SUM(oi.quantity) AS quantity,
+        SUM(oi.quantity * oi.unit_price_at_sale_cents) AS revenue_cents,
+        SUM(oi.quantity * oi.unit_cost_at_sale_cents) AS cogs_cents
+      FROM orders o
+      JOIN order_items oi ON oi.order_id = o.id
+      WHERE o.created_at >= %3$s AND o.created_at < ? AND o.is_deleted = 0 AND oi.is_deleted = 0
+      GROUP BY 1, 2
+      """;
+
+  public SalesRollupDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
+  }
+
+  public Set<LocalDate> findCachedPeriods(PeriodGrain grain, LocalDate from, LocalDate until) {
+    String sql =
+        """
+        SELECT period_start
+        FROM sales_rollup_periods
+        WHERE grain = ? AND period_start >= ? AND period_start < ?
+        """;
+    return new HashSet<>(
+        readQuery(
+            sql,
+            rs -> LocalDate.parse(rs.getString("period_start")),
+            grain.name(),
+            from.toString(),
+            until.toString()));
+  }
+
+  /** Aggregates one closed period from the order lines and marks it cached. */
+  public void cachePeriod(PeriodGrain grain, LocalDate periodStart) {
+    String start = periodStart.toString();
+    long startMillis = TimestampUtil.startOfDayMillis(periodStart);
+    long endMillis = TimestampUtil.startOfDayMillis(grain.next(periodStart));
+    // Usually a no-op: the invalidation triggers already cleared the period
+    updateReturningAffectedRows(
+        "DELETE FROM sales_rollups WHERE grain = ? AND period_start = ?", grain.name(), start);
+    String insertSql =
+        """
+        INSERT INTO sales_rollups(
+          grain,
+          period_start,
+          dimension,
+          group_id,
+          quantity,
+          revenue_cents,
+          cogs_cents)
+        SELECT ?, ?, ?, group_id, quantity, revenue_cents, cogs_cents
+        FROM (%s)
+        """;
+    String productLines = LIVE_LINES_SQL.formatted("NULL", "oi.product_id", "?");
+    updateReturningAffectedRows(
+        insertSql.formatted(productLines),
+        grain.name(),
+        start,
+        SalesDimension.PRODUCT.name(),
+        startMillis,
+        endMillis);
+    String customerLines = LIVE_LINES_SQL.formatted("NULL", "o.customer_id", "?");
+    updateReturningAffectedRows(
+        insertSql.formatted(customerLines),
+        grain.name(),
+        start,
+        SalesDimension.CUSTOMER.name(),
+        startMillis,
+        endMillis);
+    String markSql =
+        """
+        INSERT OR REPLACE INTO sales_rollup_periods(grain, period_start, computed_at)
+        VALUES (?, ?, ?)
+        """;
+    update(markSql, grain.name(), start, TimestampUtil.nowMillis());
+  }
+
+  /**
+   * Margin rows for every period starting in {@code [from, until)}. Cached periods are read from
+   * sales_rollups and every other period is aggregated from the order lines. Both are decided in
+   * one statement, so a period invalidated concurrently is never dropped or counted twice.
+   */
+  public List<MarginRow> findMargins(
+      PeriodGrain grain, SalesDimension dimension, LocalDate from, LocalDate until) {
+    boolean byCustomer = dimension == SalesDimension.CUSTOMER;
+    SalesDimension cachedDimension = byCustomer ? SalesDimension.CUSTOMER : SalesDimension.PRODUCT;
+    // Only orders from the first uncached period on are scanned
+    String liveLines =
+        LIVE_LINES_SQL.formatted(
+            grain.sqlStartOf(DatabaseUtils.sqlDayOf("o.created_at")),
+            byCustomer ? "o.customer_id" : "oi.product_id",
+            "(SELECT unixepoch(MIN(period_start)) * 1000 FROM uncached)");
+    String groupKey;
+    String label;
+    String join;
+    switch (dimension) {
+      case TOTAL -> {
+        groupKey = "''";
+        label = "'All sales'";
+        join = "";
+      }
+      case PRODUCT -> {
+        groupKey = "CAST(l.group_id AS TEXT)";
+        label = "COALESCE(MAX(p.name), 'Product #' || l.group_id)";
+        join = "LEFT JOIN products p ON p.id = l.group_id";
+      }
+      case CATEGORY -> {
+        groupKey = "COALESCE(p.category, '')";
+        label = "COALESCE(p.category, 'Uncategorized')";
+        join = "LEFT JOIN products p ON p.id = l.group_id";
+      }
+      case CUSTOMER -> {
+        groupKey = "CAST(l.group_id AS TEXT)";
+        label = "COALESCE(MAX(c.full_name), 'Customer #' || l.group_id)";
+        join = "LEFT JOIN customers c ON c.id = l.group_id";
+      }
+      default -> throw new IllegalArgumentException("Unsupported dimension: " + dimension);
+    }
+    String sql =
+        """
+        WITH RECURSIVE
+          periods(period_start) AS (
+            SELECT ?
+            UNION ALL
+            SELECT %1$s FROM periods WHERE %1$s < ?),
+          uncached AS (
+            SELECT period_start
+            FROM periods
+            WHERE period_start NOT IN (
+              SELECT period_start FROM sales_rollup_periods WHERE grain = ?)),
+          lines AS (
+            SELECT period_start, group_id, quantity, revenue_cents, cogs_cents
+            FROM sales_rollups
+            WHERE grain = ? AND dimension = ? AND period_start >= ? AND period_start < ?
+              AND period_start NOT IN (SELECT period_start FROM uncached)
+            UNION ALL
+            SELECT *
+            FROM (%2$s) live
+            WHERE live.period_start IN (SELECT period_start FROM uncached))
+        SELECT
+          l.period_start,
+          %3$s AS group_key,
+          %4$s AS label,
+          SUM(l.quantity) AS quantity,
+          SUM(l.revenue_cents) AS revenue_cents,
+          SUM(l.cogs_cents) AS cogs_cents
+        FROM lines l
+        %5$s
+        GROUP BY l.period_start, group_key
+        ORDER BY l.period_start, revenue_cents DESC
+        """
+            .formatted(grain.sqlNext("period_start"), liveLines, groupKey, label, join);
+    return readQuery(
+        sql,
+        this::mapResultSetToMarginRow,
+        from.toString(),
+        until.toString(),
+        grain.name(),
+        grain.name(),
+        cachedDimension.name(),
+        from.toString(),
+        until.toString(),
+        TimestampUtil.startOfDayMillis(until));
+  }
+
+  private MarginRow mapResultSetToMarginRow(ResultSet rs) {
+    try {
+      return new MarginRow(
+          LocalDate.parse(rs.getString("period_start")),
+          rs.getString("group_key"),
+          rs.getString("label"),
+          rs.getLong("quantity"),
+          rs.getLong("revenue_cents"),
+          rs.getLong("cogs_cents"));
+    } catch (SQLException e) {
+      throw new DataAccessException("Mapping failed", e);
+    }
+  }
+}
@@ -3,20 +3,101 @@ package com.daidaisuki.inventory.dao.impl;
 import com.daidaisuki.inventory.dao.BaseDAO;
 import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.StockBatch;
-import com.daidaisuki.inventory.util.CurrencyUtil;
+import com.daidaisuki.inventory.model.dto.StockAllocation;
+import com.daidaisuki.inventory.model.projection.CategoryValuation;
+import com.daidaisuki.inventory.model.projection.StockBatchRecord;
 import com.daidaisuki.inventory.util.DatabaseUtils;
-import java.math.BigDecimal;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import javax.sql.DataSource;
 
 public class StockBatchDAO extends BaseDAO<StockBatch> {
-  public StockBatchDAO(Connection connection) {
-    super(connection);
+  // The available-batch queries are shaped to seek idx_batches_available, a partial index
+  // over quantity_remaining > 0 kept in (product_id, created_at, id) order, so depleted history
+  // is never scanned and nothing needs sorting. StockBatchQueryPlanTest pins those plans.
+  static final String FIND_ALL_AVAILABLE_SQL =
+      """
+      SELECT
+        id,
+        product_id,
+        supplier_id,
+        batch_code,
+        expiry_date,
+        quantity_received,
+        quantity_remaining,
+        unit_cost_cents,
+        landed_cost_cents,
+        created_at,
+        updated_at,
+        is_deleted
+      FROM stock_batches
+      WHERE product_id = ? AND quantity_remaining > 0
+      ORDER BY created_at ASC, id ASC
+      """;
+
+  // The window reads the covering index in FIFO order. SQLite does not promise that the outer
+  // query keeps the subquery's order, so it is sorted again, but only the few rows that pass the
+  // running total filter reach that sort
+  static final String FIFO_COVERING_SQL =
+      """
+      SELECT
+        id,
+        product_id,
+        supplier_id,
+        quantity_received,
+        quantity_remaining,
+        unit_cost_cents,
+        landed_cost_cents,
+        created_at
+      FROM (
+        SELECT
+          id,
+          product_id,
+          supplier_id,
+          quantity_received,
+          quantity_remaining,
+          unit_cost_cents,
+          landed_cost_cents,
+          created_at,
+          SUM(quantity_remaining) OVER (
+            ORDER BY created_at ASC, id ASC
+            ROWS UNBOUNDED PRECEDING) AS running_total
+        FROM stock_batches
+        WHERE product_id = ? AND quantity_remaining > 0
+        ORDER BY created_at ASC, id ASC)
+      WHERE running_total - quantity_remaining < ?
+      ORDER BY created_at ASC, id ASC
+      """;
+
+  static final String FIND_OLDEST_AVAILABLE_SQL =
+      """
+      SELECT
+        id,
+        product_id,
+        supplier_id,
+        batch_code,
+        expiry_date,
+        quantity_received,
+        quantity_remaining,
+        unit_cost_cents,
+        landed_cost_cents,
+        created_at,
+        updated_at,
+        is_deleted
+      FROM stock_batches
+      WHERE product_id = ? AND quantity_remaining > 0
+      ORDER BY created_at ASC, id ASC
+      LIMIT 1
+      """;
+
+  public StockBatchDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
   }
 
   public StockBatch save(StockBatch batch) {
@@ -38,8 +119,8 @@ public class StockBatchDAO extends BaseDAO<StockBatch> {
         ?, ?, ?, ?, ?,
         ?, ?, ?, ?, ?, ?)
         """;
-    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-    String nowString = now.toString();
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
     return insert(
         sql,
         (newId) ->
@@ -51,34 +132,28 @@ public class StockBatchDAO extends BaseDAO<StockBatch> {
                 batch.getExpiryDate(),
                 batch.getQuantityReceived(),
                 batch.getQuantityRemaining(),
-                batch.getUnitCost(),
-                batch.getLandedCost(),
-                now,
-                now,
+                batch.getUnitCostCents(),
+                batch.getLandedCostCents(),
+                nowDateTime,
+                nowDateTime,
                 false),
         batch.getProductId(),
         batch.getSupplierId(),
         batch.getBatchCode(),
-        batch.getExpiryDate(),
+        TimestampUtil.toEpochMillisOrNull(batch.getExpiryDate()),
         batch.getQuantityReceived(),
         batch.getQuantityRemaining(),
-        CurrencyUtil.bigDecimalToLong(batch.getUnitCost()),
-        CurrencyUtil.bigDecimalToLong(batch.getLandedCost()),
-        nowString,
-        nowString,
+        batch.getUnitCostCents(),
+        batch.getLandedCostCents(),
+        now,
+        now,
         0);
   }
 
-  public void updateRemainingStock(int batchId, int newQuantity) {
-    String sql = "UPDATE stock_batches SET quantity_remaining = ?, updated_at = ? WHERE id = ?";
-    update(sql, newQuantity, OffsetDateTime.now(ZoneOffset.UTC), batchId);
-  }
-
-  public List<StockBatch> findAllByProductId(int productId) {
+  public List<StockBatch> saveAll(List<StockBatch> batches) {
     String sql =
         """
-        SELECT
-          id,
+        INSERT INTO stock_batches(
           product_id,
           supplier_id,
           batch_code,
@@ -89,14 +164,57 @@ public class StockBatchDAO extends BaseDAO<StockBatch> {
           landed_cost_cents,
           created_at,
           updated_at,
-          is_deleted
-        FROM stock_batches
-        WHERE product_id = ?
+          is_deleted)
+        VALUES (
+        ?, ?, ?, ?, ?,
+        ?, ?, ?, ?, ?, ?)
         """;
-    return query(sql, this::mapResultSetToStockBatch, productId);
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
+    List<Object[]> paramsList = new ArrayList<>(batches.size());
+    for (StockBatch batch : batches) {
+      paramsList.add(
+          new Object[] {
+            batch.getProductId(),
+            batch.getSupplierId(),
+            batch.getBatchCode(),
+            TimestampUtil.toEpochMillisOrNull(batch.getExpiryDate()),
+            batch.getQuantityReceived(),
+            batch.getQuantityRemaining(),
+            batch.getUnitCostCents(),
+            batch.getLandedCostCents(),
+            now,
+            now,
+            0
+          });
+    }
+    return batchInsert(
+        sql,
+        (index, newId) -> {
+          StockBatch batch = batches.get(index);
+          return StockBatch.forDatabase(
+              newId,
+              batch.getProductId(),
+              batch.getSupplierId(),
+              batch.getBatchCode(),
+              batch.getExpiryDate(),
+              batch.getQuantityReceived(),
+              batch.getQuantityRemaining(),
+              batch.getUnitCostCents(),
+              batch.getLandedCostCents(),
+              nowDateTime,
+              nowDateTime,
+              false);
+        },
+        paramsList);
   }
 
-  public List<StockBatch> findAllAvailableByProductId(int productId) {
+  public void updateRemainingStock(int batchId, int newQuantity) {
+    String sql = "UPDATE stock_batches SET quantity_remaining = ?, updated_at = ? WHERE id = ?";
+    update(sql, newQuantity, TimestampUtil.nowMillis(), batchId);
+  }
+
+  public List<StockBatch> findAllByProductId(int productId) {
     String sql =
         """
         SELECT
@@ -113,10 +231,13 @@ public class StockBatchDAO extends BaseDAO<StockBatch> {
           updated_at,
           is_deleted
         FROM stock_batches
-        WHERE product_id = ? AND quantity_remaining > 0
-        ORDER BY created_at ASC
+        WHERE product_id = ?
         """;
-    return query(sql, this::mapResultSetToStockBatch, productId);
+    return readQuery(sql, this::mapResultSetToStockBatch, productId);
+  }
+
+  public List<StockBatch> findAllAvailableByProductId(int productId) {
+    return query(FIND_ALL_AVAILABLE_SQL, this::mapResultSetToStockBatch, productId);
   }
 
   public boolean updateStockTotal(int batchId, int changeAmount) {
@@ -127,32 +248,105 @@ public class StockBatchDAO extends BaseDAO<StockBatch> {
         WHERE id = ? AND quantity_remaining + ? >= 0
         """;
     return updateReturningAffectedRows(
-            sql, changeAmount, OffsetDateTime.now(ZoneOffset.UTC), batchId, changeAmount)
+            sql, changeAmount, TimestampUtil.nowMillis(), batchId, changeAmount)
         > 0;
   }
 
+  // Only returns the oldest batches needed to cover the quantity, not every open batch
+  public List<StockBatchRecord> findFifoBatchesCovering(int productId, int quantity) {
+    return query(FIFO_COVERING_SQL, this::mapResultSetToStockBatchRecord, productId, quantity);
+  }
+
+  public void applyDeductions(List<StockAllocation> allocations) {
+    String sql =
+        """
+        UPDATE stock_batches
+        SET quantity_remaining = quantity_remaining - ?, updated_at = ?
+        WHERE id = ? AND quantity_remaining - ? >= 0
+        """;
+    long now = TimestampUtil.nowMillis();
+    List<Object[]> paramsList = new ArrayList<>(allocations.size());
+    for (StockAllocation allocation : allocations) {
+      paramsList.add(
+          new Object[] {
+            allocation.quantity(), now, allocation.batchId(), allocation.quantity()
+          });
+    }
+    int[] affectedRows = batchUpdate(sql, paramsList);
+    for (int affected : affectedRows) {
+      if (affected == 0) {
+        throw new DataAccessException("Concurrent inventory change detected. Please retry.");
+      }
+    }
+  }
+
   public Optional<StockBatch> findOldestAvailableBatch(int productId) {
+    return queryForObject(FIND_OLDEST_AVAILABLE_SQL, this::mapResultSetToStockBatch, productId);
+  }
+
+  /**
+   * Values the stock on hand per product category: FIFO at each open batch's own unit cost,
+   * weighted average at the product's running average over its recorded stock. The two differ
+   * when stock was adjusted without a batch. Landed charges are left out of both, as they are
+   * from the daily stock snapshots.
+   */
+  public List<CategoryValuation> findValuationByCategory() {
     String sql =
         """
         SELECT
-          id,
-          product_id,
-          supplier_id,
-          batch_code,
-          expiry_date,
-          quantity_received,
-          quantity_remaining,
-          unit_cost_cents,
-          landed_cost_cents,
-          created_at,
-          updated_at,
-          is_deleted
-        FROM stock_batches
-        WHERE product_id = ? AND quantity_remaining > 0
-        ORDER BY created_at ASC
-        LIMIT 1
+          p.category,
+          COUNT(*) AS product_count,
+          COALESCE(SUM(o.batch_count), 0) AS batch_count,
+          COALESCE(SUM(o.quantity), 0) AS quantity,
+          COALESCE(SUM(o.fifo_value_cents), 0) AS fifo_value_cents,
+          SUM(p.current_stock * p.average_unit_cost_cents) AS average_cost_value_cents
+        FROM products p
+        LEFT JOIN (
+          SELECT
+            product_id,
+            COUNT(*) AS batch_count,
+            SUM(quantity_remaining) AS quantity,
+            SUM(quantity_remaining * unit_cost_cents) AS fifo_value_cents
+          FROM stock_batches
+          WHERE quantity_remaining > 0
+          GROUP BY product_id
+        ) o ON o.product_id = p.id
+        WHERE o.product_id IS NOT NULL OR p.current_stock > 0
+        GROUP BY p.category
+        ORDER BY p.category
         """;
-    return queryForObject(sql, this::mapResultSetToStockBatch, productId);
+    return readQuery(sql, this::mapResultSetToCategoryValuation);
+  }
+
+  private CategoryValuation mapResultSetToCategoryValuation(ResultSet rs) {
+    try {
+      return new CategoryValuation(
+          rs.getString("category"),
+          rs.getInt("product_count"),
+          rs.getInt("batch_count"),
+          rs.getLong("quantity"),
+          rs.getLong("fifo_value_cents"),
+          rs.getLong("average_cost_value_cents"));
+    } catch (SQLException e) {
+      throw new DataAccessException("Mapping failed", e);
+    }
+  }
+
+  private StockBatchRecord mapResultSetToStockBatchRecord(ResultSet rs) {
+    try {
+      int id = rs.getInt("id");
+      return new StockBatchRecord(
+          id,
+          rs.getInt("product_id"),
+          rs.getInt("supplier_id"),
+          rs.getInt("quantity_received"),
+          rs.getInt("quantity_remaining"),
+          rs.getLong("unit_cost_cents"),
+          rs.getLong("landed_cost_cents"),
+          rs.getLong("created_at"));
+    } catch (SQLException e) {
+      throw new DataAccessException("Mapping failed", e);
+    }
   }
 
   private StockBatch mapResultSetToStockBatch(ResultSet rs) {
@@ -165,10 +359,8 @@ public class StockBatchDAO extends BaseDAO<StockBatch> {
           DatabaseUtils.getOffsetDateTime(rs, "expiry_date", "StockBatch ID: " + id);
       int quantityReceived = rs.getInt("quantity_received");
       int quantityRemaining = rs.getInt("quantity_remaining");
-      BigDecimal unitCost =
-          DatabaseUtils.getBigDecimalFromCents(rs, "unit_cost_cents", "StockBatch ID: " + id);
-      BigDecimal landedCost =
-          DatabaseUtils.getBigDecimalFromCents(rs, "landed_cost_cents", "StockBatch ID: " + id);
+      long unitCostCents = rs.getLong("unit_cost_cents");
+      long landedCostCents = rs.getLong("landed_cost_cents");
       OffsetDateTime createdAt =
           DatabaseUtils.getOffsetDateTime(rs, "created_at", "StockBatch ID: " + id);
       OffsetDateTime updatedAt =
@@ -182,8 +374,8 @@ public class StockBatchDAO extends BaseDAO<StockBatch> {
           expiryDate,
           quantityReceived,
           quantityRemaining,
-          unitCost,
-          landedCost,
+          unitCostCents,
+          landedCostCents,
           createdAt,
           updatedAt,
           isDeleted);
@@ -0,0 +1,159 @@
+package com.daidaisuki.inventory.dao.impl;
+
+import com.daidaisuki.inventory.dao.BaseDAO;
+import com.daidaisuki.inventory.exception.DataAccessException;
+import com.daidaisuki.inventory.model.projection.StockPosition;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+
+/**
+ * Daily closing stock per product, built from the inventory ledger.
+ *
+ * <p>Ledger timestamps are UTC epoch milliseconds, so a day's movements are the rows whose
+ * {@code created_at} falls between the first millisecond of that day and of the next, and every
+ * movement is valued at the unit cost of the batch it moved. That is the same basis as the FIFO
+ * and weighted average columns of the valuation report; landed charges are not included.
+ */
+public class StockSnapshotDAO extends BaseDAO<StockPosition> {
+  // Nearest snapshot at or before the date for each product, plus the movements after it
+  private static final String POSITIONS_AS_OF_SQL =
+      """
+      WITH nearest AS (
+        SELECT
+          p.id AS product_id,
+          (SELECT s.snapshot_date
+           FROM stock_snapshots s
+           WHERE s.product_id = p.id AND s.snapshot_date <= ?
+           ORDER BY s.snapshot_date DESC
+           LIMIT 1) AS snapshot_date
+        FROM products p
+        %s)
+      SELECT
+        n.product_id,
+        COALESCE(s.quantity, 0) + COALESCE(SUM(t.change_amount), 0) AS quantity,
+        COALESCE(s.value_cents, 0)
+          + COALESCE(SUM(t.change_amount * COALESCE(b.unit_cost_cents, 0)), 0) AS value_cents
+      FROM nearest n
+      LEFT JOIN stock_snapshots s
+        ON s.product_id = n.product_id AND s.snapshot_date = n.snapshot_date
+      LEFT JOIN inventory_transactions t
+        ON t.product_id = n.product_id
+        AND t.is_deleted = 0
+        AND t.created_at >= COALESCE(unixepoch(n.snapshot_date, '+1 day') * 1000, 0)
+        AND t.created_at < ?
+      LEFT JOIN stock_batches b ON b.id = t.batch_id
+      GROUP BY n.product_id
+      -- A bare "quantity" here would bind to s.quantity, not the alias above
+      HAVING COALESCE(s.quantity, 0) + COALESCE(SUM(t.change_amount), 0) <> 0
+      ORDER BY n.product_id
+      """;
+
+  public StockSnapshotDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
+  }
+
+  public Optional<LocalDate> findLatestSnapshotDate() {
+    String sql =
+        "SELECT snapshot_date FROM stock_snapshots ORDER BY snapshot_date DESC LIMIT 1";
+    return queryForObject(sql, rs -> LocalDate.parse(rs.getString("snapshot_date")));
+  }
+
+  /** UTC days with ledger movements in {@code [from, until)}, oldest first. */
+  public List<LocalDate> findDaysWithMovements(LocalDate from, LocalDate until) {
+    String sql =
+        """
+        SELECT DISTINCT %s AS day
+        FROM inventory_transactions
+        WHERE created_at >= ? AND created_at < ? AND is_deleted = 0
+        ORDER BY day
+        """
+            .formatted(DatabaseUtils.sqlDayOf("created_at"));
+    return query(
+        sql,
+        rs -> LocalDate.parse(rs.getString("day")),
+        from == null ? 0L : TimestampUtil.startOfDayMillis(from),
+        TimestampUtil.startOfDayMillis(until));
+  }
+
+  /**
+   * Writes the closing position of every product that moved on the given day, carrying forward
+   * its previous snapshot. Days must be captured oldest first.
+   */
+  public int captureDay(LocalDate day) {
+    String sql =
+        """
+        INSERT OR REPLACE INTO stock_snapshots(
+          product_id,
+          snapshot_date,
+          quantity,
+          value_cents,
+          created_at)
+        SELECT
+          d.product_id,
+          ?,
+          COALESCE(prev.quantity, 0) + d.quantity,
+          COALESCE(prev.value_cents, 0) + d.value_cents,
+          ?
+        FROM (
+          SELECT
+            t.product_id,
+            SUM(t.change_amount) AS quantity,
+            SUM(t.change_amount * COALESCE(b.unit_cost_cents, 0)) AS value_cents
+          FROM inventory_transactions t
+          LEFT JOIN stock_batches b ON b.id = t.batch_id
+          WHERE t.created_at >= ? AND t.created_at < ? AND t.is_deleted = 0
+          GROUP BY t.product_id) d
+        LEFT JOIN stock_snapshots prev
+          ON prev.product_id = d.product_id
+          AND prev.snapshot_date = (
+            SELECT MAX(snapshot_date)
+            FROM stock_snapshots
+            WHERE product_id = d.product_id AND snapshot_date < ?)
+        """;
+    String date = day.toString();
+    return updateReturningAffectedRows(
+        sql,
+        date,
+        TimestampUtil.nowMillis(),
+        TimestampUtil.startOfDayMillis(day),
+        TimestampUtil.startOfDayMillis(day.plusDays(1)),
+        date);
+  }
+
+  public int deleteAll() {
+    return updateReturningAffectedRows("DELETE FROM stock_snapshots");
+  }
+
+  public List<StockPosition> findPositionsAsOf(LocalDate date) {
+    return readQuery(
+        POSITIONS_AS_OF_SQL.formatted(""),
+        rs -> mapResultSetToPosition(rs, date),
+        date.toString(),
+        TimestampUtil.startOfDayMillis(date.plusDays(1)));
+  }
+
+  public Optional<StockPosition> findPositionAsOf(int productId, LocalDate date) {
+    return readQueryForObject(
+        POSITIONS_AS_OF_SQL.formatted("WHERE p.id = ?"),
+        rs -> mapResultSetToPosition(rs, date),
+        date.toString(),
+        productId,
+        TimestampUtil.startOfDayMillis(date.plusDays(1)));
+  }
+
+  private StockPosition mapResultSetToPosition(ResultSet rs, LocalDate date) {
+    try {
+      return new StockPosition(
+          rs.getInt("product_id"), date, rs.getInt("quantity"), rs.getLong("value_cents"));
+    } catch (SQLException e) {
+      throw new DataAccessException("Mapping failed", e);
+    }
+  }
+}
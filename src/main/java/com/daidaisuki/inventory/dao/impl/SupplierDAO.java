@@ -3,17 +3,19 @@ package com.daidaisuki.inventory.dao.impl;
 import com.daidaisuki.inventory.dao.BaseDAO;
 import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.Supplier;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.daidaisuki.inventory.util.TimestampUtil;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
+import javax.sql.DataSource;
 
 public class SupplierDAO extends BaseDAO<Supplier> {
-  public SupplierDAO(Connection connection) {
-    super(connection);
+  public SupplierDAO(Connection connection, DataSource readerDataSource) {
+    super(connection, readerDataSource);
   }
 
   public List<Supplier> findAll() {
@@ -33,7 +35,7 @@ public class SupplierDAO extends BaseDAO<Supplier> {
         WHERE is_deleted = 0
         ORDER BY name ASC
         """;
-    return query(sql, this::mapResultSetToSupplier);
+    return readQuery(sql, this::mapResultSetToSupplier);
   }
 
   public Supplier save(Supplier supplier) {
@@ -51,8 +53,8 @@ public class SupplierDAO extends BaseDAO<Supplier> {
         VALUES(?, ?, ?, ?,
                ?, ?, ?, ?)
         """;
-    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-    String nowString = now.toString();
+    long now = TimestampUtil.nowMillis();
+    OffsetDateTime nowDateTime = TimestampUtil.toOffsetDateTime(now);
     return insert(
         sql,
         (newId) ->
@@ -63,16 +65,16 @@ public class SupplierDAO extends BaseDAO<Supplier> {
                 supplier.getEmail(),
                 supplier.getPhone(),
                 supplier.getAddress(),
-                now,
-                now,
+                nowDateTime,
+                nowDateTime,
                 false),
         supplier.getName(),
         supplier.getShortCode(),
         supplier.getEmail(),
         supplier.getPhone(),
         supplier.getAddress(),
-        nowString,
-        nowString,
+        now,
+        now,
         0);
   }
 
@@ -96,14 +98,14 @@ public class SupplierDAO extends BaseDAO<Supplier> {
         supplier.getEmail(),
         supplier.getPhone(),
         supplier.getAddress(),
-        OffsetDateTime.now(ZoneOffset.UTC),
+        TimestampUtil.nowMillis(),
         supplier.getId());
   }
 
   public void delete(int supplierId) {
     String sql =
         "UPDATE suppliers SET is_deleted = 0, updated_at = ? WHERE id = ? AND is_deleted = 1";
-    update(sql, OffsetDateTime.now(ZoneOffset.UTC), supplierId);
+    update(sql, TimestampUtil.nowMillis(), supplierId);
   }
 
   public Optional<Supplier> findById(int id) {
@@ -122,12 +124,12 @@ public class SupplierDAO extends BaseDAO<Supplier> {
         FROM suppliers
         WHERE id = ? AND is_deleted = 0
         """;
-    return queryForObject(sql, this::mapResultSetToSupplier, id);
+    return readQueryForObject(sql, this::mapResultSetToSupplier, id);
   }
 
   public boolean existsByShortCode(String shortCode) {
     String sql = "SELECT COUNT(*) FROM suppliers WHERE short_code = ? AND is_deleted = 0";
-    return queryForObject(sql, rs -> rs.getInt(1) > 0, shortCode).orElse(false);
+    return readQueryForObject(sql, rs -> rs.getInt(1) > 0, shortCode).orElse(false);
   }
 
   private Supplier mapResultSetToSupplier(ResultSet rs) {
@@ -138,10 +140,10 @@ public class SupplierDAO extends BaseDAO<Supplier> {
       String email = rs.getString("email");
       String phone = rs.getString("phone");
       String address = rs.getString("address");
-      String createdAtString = rs.getString("created_at");
-      String updatedAtString = rs.getString("updated_at");
-      OffsetDateTime createdAt = OffsetDateTime.parse(createdAtString);
-      OffsetDateTime updatedAt = OffsetDateTime.parse(updatedAtString);
+      OffsetDateTime createdAt =
+          DatabaseUtils.getOffsetDateTime(rs, "created_at", "Supplier ID: " + id);
+      OffsetDateTime updatedAt =
+          DatabaseUtils.getOffsetDateTime(rs, "updated_at", "Supplier ID: " + id);
       boolean isDeleted = rs.getInt("is_deleted") == 1;
       return new Supplier(
           id, name, shortCode, email, phone, address, createdAt, updatedAt, isDeleted);
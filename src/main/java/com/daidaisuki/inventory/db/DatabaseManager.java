@@ -1,307 +1,835 @@
 package com.daidaisuki.inventory.db;
 
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.enums.PeriodGrain;
+import com.daidaisuki.inventory.util.DatabaseUtils;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class DatabaseManager {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseManager.class);
   // database file name
   private static final String DB_URL = "jdbc:sqlite:inventory.db";
-
-  // Singleton connection
+  private static final int READER_POOL_SIZE = 4;
+  // Recomputes every customer's order totals; customer_stats should be emptied first
+  public static final String REBUILD_CUSTOMER_STATS_SQL =
+      """
+      INSERT OR REPLACE INTO customer_stats(
+          customer_id,
+          total_orders,
+          total_spent_cents,
+          total_discount_cents,
+          last_order_date)
+      SELECT
+          customer_id,
+          COUNT(id),
+          COALESCE(SUM(final_amount_cents), 0),
+          COALESCE(SUM(discount_amount_cents), 0),
+          MAX(created_at)
+      FROM orders
+      WHERE is_deleted = 0
+      GROUP BY customer_id;
+      """;
+
+  // Package-private so tests can stop at an older version and migrate real data forward
+  static final List<Migration> MIGRATIONS =
+      List.of(
+          new Migration(1, "Baseline schema", DatabaseManager::createBaselineSchema),
+          new Migration(2, "Hot query indexes", DatabaseManager::addHotQueryIndexes),
+          new Migration(3, "Partial FIFO batch index", DatabaseManager::addAvailableBatchIndex),
+          new Migration(4, "Daily stock snapshots", DatabaseManager::createStockSnapshots),
+          new Migration(5, "Closed-period sales rollups", DatabaseManager::createSalesRollups),
+          new Migration(6, "Epoch millisecond timestamps", DatabaseManager::useEpochMillis));
+
+  // Single writer connection, SQLite only allows one writer at a time
   private static Connection connection = null;
 
+  // Read-only connections, WAL lets them read while the writer is busy
+  private static HikariDataSource readerDataSource = null;
+
+  private static final PragmaProfile PROFILE = PragmaProfile.fromSystemProperty();
+
+  // Keeps query planner statistics fresh while the app stays open
+  private static ScheduledExecutorService maintenance = null;
+
   // Connect to the SQLite database
   public static synchronized Connection getConnection() throws SQLException {
     if (connection == null || connection.isClosed()) {
-      connection = DriverManager.getConnection(DB_URL);
-      // Set PRAGMA for every new connection
-      try (Statement stmt = connection.createStatement()) {
-        stmt.execute("PRAGMA foreign_keys = ON;");
-        // Optimization for improving concurrency significantly with WAL mode
-        stmt.execute("PRAGMA journal_mode = WAL;");
-      }
+      connection = PROFILE.openWriter(DB_URL);
+      scheduleOptimize();
     }
     return connection;
   }
 
-  // Initialize DB schema (tables etc.)
+  public static PragmaProfile getProfile() {
+    return PROFILE;
+  }
+
+  public static synchronized DataSource getReaderDataSource() throws SQLException {
+    if (readerDataSource == null || readerDataSource.isClosed()) {
+      // The writer switches the file to WAL before any reader opens it
+      getConnection();
+      readerDataSource = openReaderPool(DB_URL, PROFILE);
+    }
+    return readerDataSource;
+  }
+
+  // Read-only pooled connections configured like the app's; benchmarks point it at scratch files
+  public static HikariDataSource openReaderPool(String url, PragmaProfile profile) {
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("sqlite-readers");
+    config.setJdbcUrl(url);
+    config.setMaximumPoolSize(READER_POOL_SIZE);
+    config.setMinimumIdle(1);
+    config.setDataSourceProperties(profile.connectionProperties());
+    config.setConnectionInitSql("PRAGMA query_only = ON;");
+    return new HikariDataSource(config);
+  }
+
+  // Bring the DB schema up to date, applying only the migrations this file has not had yet
   public static void initializeDatabase() throws SQLException {
-    Connection conn = getConnection();
-    try (Statement stmt = conn.createStatement()) {
-      String createProductTable =
-          """
-          CREATE TABLE IF NOT EXISTS products (
-                  -- Primary Identity
-                  id                          INTEGER PRIMARY KEY AUTOINCREMENT,
-
-                  -- Core Data
-                  sku                         TEXT UNIQUE,
-                  barcode                     TEXT UNIQUE,
-                  name                        TEXT NOT NULL,
-                  category                    TEXT NOT NULL,
-                  unit_type                   TEXT DEFAULT 'each',
-                  tax_category                TEXT DEFAULT 'standard',
-                  description                 TEXT,
-                  weight                      INTEGER NOT NULL,
-                  current_stock               INTEGER DEFAULT 0 NOT NULL CHECK (current_stock >= 0),
-                  min_stock_level             INTEGER DEFAULT 2,
-                  max_stock_level             INTEGER DEFAULT 100,
-                  reordering_level            INTEGER DEFAULT 5,
-                  selling_price_cents         INTEGER NOT NULL,
-                  average_unit_cost_cents     INTEGER NOT NULL,
-                  is_active                   INTEGER DEFAULT 1,
-
-                  -- Audit Metadata
-                  created_at                  DATETIME NOT NULL,
-                  updated_at                  DATETIME NOT NULL,
-                  is_deleted                  INTEGER NOT NULL
-                  );
-          """;
-      stmt.execute(createProductTable);
-      stmt.execute("CREATE INDEX IF NOT EXISTS idx_products_name ON products(name);");
-      stmt.execute(
-          "CREATE INDEX IF NOT EXISTS idx_products_sku_barcode ON products(sku, barcode);");
-
-      String createSupplierTable =
-          """
-          CREATE TABLE IF NOT EXISTS suppliers (
-                  -- Primary Identity
-                  id                    INTEGER PRIMARY KEY AUTOINCREMENT,
-
-                  -- Core Data
-                  name                  TEXT NOT NULL,
-                  short_code            TEXT UNIQUE,
-                  email                 TEXT,
-                  phone                 TEXT,
-                  address               TEXT,
-
-                  -- Audit Metadata
-                  created_at            DATETIME NOT NULL,
-                  updated_at            DATETIME NOT NULL,
-                  is_deleted            INTEGER NOT NULL
-                  );
-          """;
-      stmt.execute(createSupplierTable);
-      stmt.execute("CREATE INDEX IF NOT EXISTS idx_suppliers_name ON suppliers(name);");
-
-      String createStockBatchesTable =
-          """
-          CREATE TABLE IF NOT EXISTS stock_batches (
-                  -- Primary Identity
-                  id                    INTEGER PRIMARY KEY AUTOINCREMENT,
-
-                  -- Foreign Keys / Relationships
-                  product_id            INTEGER NOT NULL,
-                  supplier_id           INTEGER NOT NULL,
-
-                  -- Core Data
-                  batch_code            TEXT,
-                  expiry_date           DATETIME,
-                  quantity_received     INTEGER NOT NULL,
-                  quantity_remaining    INTEGER NOT NULL,
-                  unit_cost_cents       INTEGER NOT NULL,
-                  landed_cost_cents     INTEGER NOT NULL,
-
-                  -- Audit Metadata
-                  created_at            DATETIME NOT NULL,
-                  updated_at            DATETIME NOT NULL,
-                  is_deleted            INTEGER NOT NULL,
-
-                  -- Constraints
-                  FOREIGN KEY(product_id) REFERENCES products(id)
-                  );
-          """;
-      stmt.execute(createStockBatchesTable);
-      stmt.execute(
-          "CREATE INDEX IF NOT EXISTS idx_batches_product_id ON stock_batches(product_id);");
-
-      String createInventoryTransactionsTable =
-          """
-          CREATE TABLE IF NOT EXISTS inventory_transactions (
-                  -- Primary Identity
-                  id                  INTEGER PRIMARY KEY AUTOINCREMENT,
-
-                  -- Foreign Keys / Relationships
-                  product_id          INTEGER NOT NULL,
-                  batch_id            INTEGER NOT NULL,
-                  user_id             INTEGER NOT NULL,
-                  reference_id        INTEGER NOT NULL,
-
-                  -- Transaction Data
-                  change_amount       INTEGER NOT NULL,
-                  transaction_type    TEXT NOT NULL,
-                  reason_code         TEXT NOT NULL,
-
-                  -- Audit Metadata
-                  created_at          DATETIME NOT NULL,
-                  updated_at          DATETIME NOT NULL,
-                  is_deleted          INTEGER NOT NULL,
-
-                  -- Constraints
-                  FOREIGN KEY(product_id) REFERENCES products(id),
-                  FOREIGN KEY(batch_id) REFERENCES stock_batches(id)
-                  );
-          """;
-      stmt.execute(createInventoryTransactionsTable);
-      stmt.execute(
-          """
-          CREATE INDEX IF NOT EXISTS idx_transactions_product_id ON inventory_transactions(product_id);
-          """);
-      stmt.execute(
-          """
-          CREATE INDEX IF NOT EXISTS idx_transactions_batch_id ON inventory_transactions(batch_id);
-          """);
-      stmt.execute(
-          """
-          CREATE INDEX IF NOT EXISTS idx_transactions_created_at ON inventory_transactions(created_at);
-          """);
-      stmt.execute(
-          """
-          CREATE INDEX IF NOT EXISTS idx_transactions_type_date ON inventory_transactions(transaction_type, created_at);
-          """);
+    migrate(getConnection());
+  }
 
-      String createCustomerTable =
-          """
-          CREATE TABLE IF NOT EXISTS customers (
-                  -- Primary Identity
-                  id                    INTEGER PRIMARY KEY AUTOINCREMENT,
-
-                  -- Core Data
-                  full_name             TEXT NOT NULL,
-                  phone_number          TEXT,
-                  email                 TEXT,
-                  address               TEXT,
-                  acquisition_source    TEXT NOT NULL,
-
-                  -- Audit Metadata
-                  created_at            DATETIME NOT NULL,
-                  updated_at            DATETIME NOT NULL,
-                  is_deleted            INTEGER NOT NULL
-                  );
-          """;
-      stmt.execute(createCustomerTable);
-      stmt.execute("CREATE INDEX IF NOT EXISTS idx_customers_name ON customers(full_name);");
-
-      String createCustomerSummaryView =
-          """
-          CREATE VIEW IF NOT EXISTS customer_summary AS
-          SELECT
-              c.id,
-              c.full_name,
-              c.phone_number,
-              c.email,
-              c.address,
-              c.acquisition_source,
-              c.created_at,
-              c.updated_at,
-              c.is_deleted,
-              COUNT(o.id) AS total_orders,
-              COALESCE(SUM(o.final_amount_cents), 0) AS total_spent_cents,
-              COALESCE(SUM(o.discount_amount_cents), 0) AS total_discount_cents,
-              MAX(o.created_at) AS last_order_date
-          FROM customers c
-          LEFT JOIN orders o ON c.id = o.customer_id AND o.is_deleted = 0
-          GROUP BY c.id;
-          """;
-      stmt.execute(createCustomerSummaryView);
-
-      String createOrderTable =
-          """
-          CREATE TABLE IF NOT EXISTS orders (
-                  -- Primary Identity
-                  id                      INTEGER PRIMARY KEY AUTOINCREMENT,
-
-                  -- Foreign Keys / Relationships
-                  customer_id                   INTEGER NOT NULL,
-
-                  -- Core Data
-                  fulfillment_type              TEXT NOT NULL,
-                  fulfillment_status            TEXT NOT NULL,
-                  total_items                   INTEGER NOT NULL,
-                  subtotal_cents                INTEGER NOT NULL,
-                  tax_amount_cents              INTEGER DEFAULT 0,
-                  discount_amount_cents         INTEGER DEFAULT 0,
-                  shipping_cost_cents           INTEGER DEFAULT 0,
-                  shipping_cost_actual_cents    INTEGER DEFAULT 0,
-                  final_amount_cents            INTEGER NOT NULL,
-                  payment_method                TEXT,
-                  tracking_number               TEXT,
-
-                  -- Audit Metadata
-                  created_at                    DATETIME NOT NULL,
-                  updated_at                    DATETIME NOT NULL,
-                  is_deleted                    INTEGER NOT NULL,
-
-                  -- Constraints
-                  FOREIGN KEY(customer_id)      REFERENCES customers(id)
-                  );
-          """;
-      stmt.execute(createOrderTable);
-      stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders(customer_id);");
-      stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_order_date ON orders(created_at);");
-      stmt.execute(
-          """
-          CREATE INDEX IF NOT EXISTS idx_orders_fulfillment ON orders(fulfillment_type, fulfillment_status);
-          """);
+  // Also used to build throwaway schemas, e.g. in-memory databases for query plan tests
+  public static void migrate(Connection conn) throws SQLException {
+    new SchemaMigrator(conn, MIGRATIONS).migrate();
+  }
 
-      String createOrderItemTable =
-          """
-          CREATE TABLE IF NOT EXISTS order_items (
-                  -- Primary Identity
-                  id                          INTEGER PRIMARY KEY AUTOINCREMENT,
-
-                  -- Foreign Keys / Relationships
-                  order_id                    INTEGER NOT NULL,
-                  product_id                  INTEGER NOT NULL,
-                  batch_id                    INTEGER NOT NULL,
-
-                  -- Core Data
-                  quantity                    INTEGER NOT NULL,
-                  unit_price_at_sale_cents    INTEGER NOT NULL,
-                  unit_cost_at_sale_cents     INTEGER NOT NULL,
-
-                  -- Audit Metadata
-                  created_at                  DATETIME NOT NULL,
-                  updated_at                  DATETIME NOT NULL,
-                  is_deleted                  INTEGER NOT NULL,
-
-                  -- Constraints
-                  FOREIGN KEY(order_id) REFERENCES orders(id),
-                  FOREIGN KEY(product_id) REFERENCES products(id),
-                  FOREIGN KEY(batch_id) REFERENCES stock_batches(id)
-                  );
-          """;
-      stmt.execute(createOrderItemTable);
-      stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);");
-      stmt.execute(
-          "CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);");
-      stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_items_batch_id ON order_items(batch_id);");
-
-      stmt.execute(
-          """
-          INSERT OR IGNORE INTO products (id, sku, barcode, name, category, weight, selling_price_cents)
-          VALUES (0, 'SYSTEM-ADJ', '00000000', 'System Adjustment', 'System', 0, 0);
-          """);
+  // Version 1: the schema as it stood before migrations were versioned. Every statement is
+  // idempotent, so it also brings files created by earlier builds up to this baseline.
+  private static void createBaselineSchema(Statement stmt) throws SQLException {
+    String createProductTable =
+        """
+        CREATE TABLE IF NOT EXISTS products (
+                -- Primary Identity
+                id                          INTEGER PRIMARY KEY AUTOINCREMENT,
+
+                -- Core Data
+                sku                         TEXT UNIQUE,
+                barcode                     TEXT UNIQUE,
+                name                        TEXT NOT NULL,
+                category                    TEXT NOT NULL,
+                unit_type                   TEXT DEFAULT 'each',
+                tax_category                TEXT DEFAULT 'standard',
+                description                 TEXT,
+                weight                      INTEGER NOT NULL,
+                current_stock               INTEGER DEFAULT 0 NOT NULL CHECK (current_stock >= 0),
+                min_stock_level             INTEGER DEFAULT 2,
+                max_stock_level             INTEGER DEFAULT 100,
+                reordering_level            INTEGER DEFAULT 5,
+                selling_price_cents         INTEGER NOT NULL,
+                average_unit_cost_cents     INTEGER NOT NULL,
+                is_active                   INTEGER DEFAULT 1,
+
+                -- Audit Metadata
+                created_at                  DATETIME NOT NULL,
+                updated_at                  DATETIME NOT NULL,
+                is_deleted                  INTEGER NOT NULL
+                );
+        """;
+    stmt.execute(createProductTable);
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_products_name ON products(name);");
+    stmt.execute(
+        "CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products(updated_at);");
+    stmt.execute(
+        "CREATE INDEX IF NOT EXISTS idx_products_sku_barcode ON products(sku, barcode);");
+
+    String createSupplierTable =
+        """
+        CREATE TABLE IF NOT EXISTS suppliers (
+                -- Primary Identity
+                id                    INTEGER PRIMARY KEY AUTOINCREMENT,
+
+                -- Core Data
+                name                  TEXT NOT NULL,
+                short_code            TEXT UNIQUE,
+                email                 TEXT,
+                phone                 TEXT,
+                address               TEXT,
+
+                -- Audit Metadata
+                created_at            DATETIME NOT NULL,
+                updated_at            DATETIME NOT NULL,
+                is_deleted            INTEGER NOT NULL
+                );
+        """;
+    stmt.execute(createSupplierTable);
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_suppliers_name ON suppliers(name);");
+
+    String createStockBatchesTable =
+        """
+        CREATE TABLE IF NOT EXISTS stock_batches (
+                -- Primary Identity
+                id                    INTEGER PRIMARY KEY AUTOINCREMENT,
+
+                -- Foreign Keys / Relationships
+                product_id            INTEGER NOT NULL,
+                supplier_id           INTEGER NOT NULL,
+
+                -- Core Data
+                batch_code            TEXT,
+                expiry_date           DATETIME,
+                quantity_received     INTEGER NOT NULL,
+                quantity_remaining    INTEGER NOT NULL,
+                unit_cost_cents       INTEGER NOT NULL,
+                landed_cost_cents     INTEGER NOT NULL,
+
+                -- Audit Metadata
+                created_at            DATETIME NOT NULL,
+                updated_at            DATETIME NOT NULL,
+                is_deleted            INTEGER NOT NULL,
+
+                -- Constraints
+                FOREIGN KEY(product_id) REFERENCES products(id)
+                );
+        """;
+    stmt.execute(createStockBatchesTable);
+    stmt.execute(
+        "CREATE INDEX IF NOT EXISTS idx_batches_product_id ON stock_batches(product_id);");
+
+    String createInventoryTransactionsTable =
+        """
+        CREATE TABLE IF NOT EXISTS inventory_transactions (
+                -- Primary Identity
+                id                  INTEGER PRIMARY KEY AUTOINCREMENT,
+
+                -- Foreign Keys / Relationships
+                product_id          INTEGER NOT NULL,
+                batch_id            INTEGER NOT NULL,
+                user_id             INTEGER NOT NULL,
+                reference_id        INTEGER NOT NULL,
+
+                -- Transaction Data
+                change_amount       INTEGER NOT NULL,
+                transaction_type    TEXT NOT NULL,
+                reason_code         TEXT NOT NULL,
+
+                -- Audit Metadata
+                created_at          DATETIME NOT NULL,
+                updated_at          DATETIME NOT NULL,
+                is_deleted          INTEGER NOT NULL,
+
+                -- Constraints
+                FOREIGN KEY(product_id) REFERENCES products(id),
+                FOREIGN KEY(batch_id) REFERENCES stock_batches(id)
+                );
+        """;
+    stmt.execute(createInventoryTransactionsTable);
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_transactions_product_id ON inventory_transactions(product_id);
+        """);
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_transactions_batch_id ON inventory_transactions(batch_id);
+        """);
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_transactions_created_at ON inventory_transactions(created_at);
+        """);
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_transactions_product_created ON inventory_transactions(product_id, created_at);
+        """);
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_transactions_type_date ON inventory_transactions(transaction_type, created_at);
+        """);
+
+    String createCustomerTable =
+        """
+        CREATE TABLE IF NOT EXISTS customers (
+                -- Primary Identity
+                id                    INTEGER PRIMARY KEY AUTOINCREMENT,
+
+                -- Core Data
+                full_name             TEXT NOT NULL,
+                phone_number          TEXT,
+                email                 TEXT,
+                address               TEXT,
+                acquisition_source    TEXT NOT NULL,
+
+                -- Audit Metadata
+                created_at            DATETIME NOT NULL,
+                updated_at            DATETIME NOT NULL,
+                is_deleted            INTEGER NOT NULL
+                );
+        """;
+    stmt.execute(createCustomerTable);
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_customers_name ON customers(full_name);");
+
+    // Per-customer order totals, kept current by the triggers on orders created below
+    boolean customerStatsExisted = tableExists(stmt, "customer_stats");
+    String createCustomerStatsTable =
+        """
+        CREATE TABLE IF NOT EXISTS customer_stats (
+                customer_id             INTEGER PRIMARY KEY,
+                total_orders            INTEGER NOT NULL DEFAULT 0,
+                total_spent_cents       INTEGER NOT NULL DEFAULT 0,
+                total_discount_cents    INTEGER NOT NULL DEFAULT 0,
+                last_order_date         DATETIME,
+
+                FOREIGN KEY(customer_id) REFERENCES customers(id) ON DELETE CASCADE
+                );
+        """;
+    stmt.execute(createCustomerStatsTable);
+
+    // Earlier versions aggregated every order here, so always replace the old definition
+    stmt.execute("DROP VIEW IF EXISTS customer_summary;");
+    String createCustomerSummaryView =
+        """
+        CREATE VIEW customer_summary AS
+        SELECT
+            c.id,
+            c.full_name,
+            c.phone_number,
+            c.email,
+            c.address,
+            c.acquisition_source,
+            c.created_at,
+            c.updated_at,
+            c.is_deleted,
+            COALESCE(s.total_orders, 0) AS total_orders,
+            COALESCE(s.total_spent_cents, 0) AS total_spent_cents,
+            COALESCE(s.total_discount_cents, 0) AS total_discount_cents,
+            s.last_order_date
+        FROM customers c
+        LEFT JOIN customer_stats s ON s.customer_id = c.id;
+        """;
+    stmt.execute(createCustomerSummaryView);
+
+    String createOrderTable =
+        """
+        CREATE TABLE IF NOT EXISTS orders (
+                -- Primary Identity
+                id                      INTEGER PRIMARY KEY AUTOINCREMENT,
+
+                -- Foreign Keys / Relationships
+                customer_id                   INTEGER NOT NULL,
+
+                -- Core Data
+                fulfillment_type              TEXT NOT NULL,
+                fulfillment_status            TEXT NOT NULL,
+                total_items                   INTEGER NOT NULL,
+                subtotal_cents                INTEGER NOT NULL,
+                tax_amount_cents              INTEGER DEFAULT 0,
+                discount_amount_cents         INTEGER DEFAULT 0,
+                shipping_cost_cents           INTEGER DEFAULT 0,
+                shipping_cost_actual_cents    INTEGER DEFAULT 0,
+                final_amount_cents            INTEGER NOT NULL,
+                payment_method                TEXT,
+                tracking_number               TEXT,
+
+                -- Audit Metadata
+                created_at                    DATETIME NOT NULL,
+                updated_at                    DATETIME NOT NULL,
+                is_deleted                    INTEGER NOT NULL,
+
+                -- Constraints
+                FOREIGN KEY(customer_id)      REFERENCES customers(id)
+                );
+        """;
+    stmt.execute(createOrderTable);
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders(customer_id);");
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_orders_order_date ON orders(created_at);");
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_orders_fulfillment ON orders(fulfillment_type, fulfillment_status);
+        """);
+
+    String createOrderInsertTrigger =
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_orders_stats_insert
+        AFTER INSERT ON orders
+        WHEN NEW.is_deleted = 0
+        BEGIN
+            INSERT INTO customer_stats(
+                customer_id,
+                total_orders,
+                total_spent_cents,
+                total_discount_cents,
+                last_order_date)
+            VALUES (
+                NEW.customer_id,
+                1,
+                NEW.final_amount_cents,
+                COALESCE(NEW.discount_amount_cents, 0),
+                NEW.created_at)
+            ON CONFLICT(customer_id) DO UPDATE SET
+                total_orders = total_orders + 1,
+                total_spent_cents = total_spent_cents + excluded.total_spent_cents,
+                total_discount_cents = total_discount_cents + excluded.total_discount_cents,
+                last_order_date =
+                    CASE
+                        WHEN last_order_date IS NULL
+                            OR excluded.last_order_date > last_order_date
+                        THEN excluded.last_order_date
+                        ELSE last_order_date
+                    END;
+        END;
+        """;
+    stmt.execute(createOrderInsertTrigger);
+    // Updates and deletes re-total only the customers they touch, through the customer index
+    String createOrderUpdateTrigger =
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_orders_stats_update
+        AFTER UPDATE OF
+            customer_id, final_amount_cents, discount_amount_cents, created_at, is_deleted
+        ON orders
+        BEGIN
+            %s
+            %s
+        END;
+        """
+            .formatted(
+                retotalCustomerStatsSql("OLD.customer_id"),
+                retotalCustomerStatsSql("NEW.customer_id"));
+    stmt.execute(createOrderUpdateTrigger);
+    String createOrderDeleteTrigger =
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_orders_stats_delete
+        AFTER DELETE ON orders
+        BEGIN
+            %s
+        END;
+        """
+            .formatted(retotalCustomerStatsSql("OLD.customer_id"));
+    stmt.execute(createOrderDeleteTrigger);
+    if (!customerStatsExisted) {
+      stmt.execute(REBUILD_CUSTOMER_STATS_SQL);
+    }
 
-      String insertDummyBatch =
+    String createOrderItemTable =
+        """
+        CREATE TABLE IF NOT EXISTS order_items (
+                -- Primary Identity
+                id                          INTEGER PRIMARY KEY AUTOINCREMENT,
+
+                -- Foreign Keys / Relationships
+                order_id                    INTEGER NOT NULL,
+                product_id                  INTEGER NOT NULL,
+                batch_id                    INTEGER NOT NULL,
+
+                -- Core Data
+                quantity                    INTEGER NOT NULL,
+                unit_price_at_sale_cents    INTEGER NOT NULL,
+                unit_cost_at_sale_cents     INTEGER NOT NULL,
+
+                -- Audit Metadata
+                created_at                  DATETIME NOT NULL,
+                updated_at                  DATETIME NOT NULL,
+                is_deleted                  INTEGER NOT NULL,
+
+                -- Constraints
+                FOREIGN KEY(order_id) REFERENCES orders(id),
+                FOREIGN KEY(product_id) REFERENCES products(id),
+                FOREIGN KEY(batch_id) REFERENCES stock_batches(id)
+                );
+        """;
+    stmt.execute(createOrderItemTable);
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);");
+    stmt.execute(
+        "CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);");
+    stmt.execute("CREATE INDEX IF NOT EXISTS idx_order_items_batch_id ON order_items(batch_id);");
+
+    stmt.execute(
+        """
+        INSERT OR IGNORE INTO products (id, sku, barcode, name, category, weight, selling_price_cents)
+        VALUES (0, 'SYSTEM-ADJ', '00000000', 'System Adjustment', 'System', 0, 0);
+        """);
+
+    String insertDummyBatch =
+        """
+        INSERT OR IGNORE INTO stock_batches (id, product_id, quantity_received,
+            quantity_remaining, unit_cost_cents, landed_cost_cents)
+        VALUES (0, 0, 0, 0, 0, 0);
+        """;
+    stmt.execute(insertDummyBatch);
+  }
+
+  // Version 2: indexes shaped after the hot queries, replacing the ones they make redundant
+  private static void addHotQueryIndexes(Statement stmt) throws SQLException {
+    // sku and barcode are UNIQUE, so each already has its own automatic index
+    stmt.execute("DROP INDEX IF EXISTS idx_products_sku_barcode;");
+    // Partial: the active catalog listing and scans never read archived rows
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_products_active_name ON products(name, id)
+        WHERE is_deleted = 0;
+        """);
+    // FIFO selection filters on product and remaining quantity and walks in receipt order
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_batches_product_remaining_created
+        ON stock_batches(product_id, quantity_remaining, created_at);
+        """);
+    stmt.execute("DROP INDEX IF EXISTS idx_batches_product_id;");
+    // Product history pages come from idx_transactions_product_created, which shares this prefix
+    stmt.execute("DROP INDEX IF EXISTS idx_transactions_product_id;");
+    // Covering: the customer_stats triggers re-total a customer from this index alone
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_orders_customer_totals
+        ON orders(customer_id, is_deleted, final_amount_cents, discount_amount_cents, created_at);
+        """);
+    stmt.execute("DROP INDEX IF EXISTS idx_orders_customer_id;");
+  }
+
+  // Version 3: FIFO reads only ever want batches with stock left, which stay few while depleted
+  // ones accumulate for years. Indexing just those, in receipt order and with every column the
+  // allocation query reads, keeps selection a short index seek with no table lookups or sort.
+  private static void addAvailableBatchIndex(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_batches_available
+        ON stock_batches(
+            product_id,
+            created_at,
+            id,
+            quantity_remaining,
+            supplier_id,
+            quantity_received,
+            unit_cost_cents,
+            landed_cost_cents)
+        WHERE quantity_remaining > 0;
+        """);
+    stmt.execute("DROP INDEX IF EXISTS idx_batches_product_remaining_created;");
+    // Full batch history for a product still needs a plain product index
+    stmt.execute(
+        "CREATE INDEX IF NOT EXISTS idx_batches_product_id ON stock_batches(product_id);");
+  }
+
+  // Version 4: closing quantity and value per product for each UTC day it had movements, so stock
+  // as of a past date only replays the ledger after the nearest snapshot
+  private static void createStockSnapshots(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS stock_snapshots (
+                product_id            INTEGER NOT NULL,
+                snapshot_date         TEXT NOT NULL,
+                quantity              INTEGER NOT NULL,
+                value_cents           INTEGER NOT NULL,
+                created_at            DATETIME NOT NULL,
+
+                PRIMARY KEY(product_id, snapshot_date),
+                FOREIGN KEY(product_id) REFERENCES products(id) ON DELETE CASCADE
+                ) WITHOUT ROWID;
+        """);
+    stmt.execute(
+        """
+        CREATE INDEX IF NOT EXISTS idx_stock_snapshots_date ON stock_snapshots(snapshot_date);
+        """);
+    createStockSnapshotTriggers(stmt, createdAt -> "substr(" + createdAt + ", 1, 10)");
+  }
+
+  // Version 5: revenue and cost of sales per closed DAY, WEEK or MONTH, by product and by customer.
+  // A period is only marked cached once fully computed; any change to its order lines drops it
+  // again, so reports can trust whatever is cached and recompute the rest.
+  private static void createSalesRollups(Statement stmt) throws SQLException {
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS sales_rollup_periods (
+                grain                 TEXT NOT NULL,
+                period_start          TEXT NOT NULL,
+                computed_at           DATETIME NOT NULL,
+
+                PRIMARY KEY(grain, period_start)
+                ) WITHOUT ROWID;
+        """);
+    stmt.execute(
+        """
+        CREATE TABLE IF NOT EXISTS sales_rollups (
+                grain                 TEXT NOT NULL,
+                period_start          TEXT NOT NULL,
+                dimension             TEXT NOT NULL,
+                group_id              INTEGER NOT NULL,
+                quantity              INTEGER NOT NULL,
+                revenue_cents         INTEGER NOT NULL,
+                cogs_cents            INTEGER NOT NULL,
+
+                PRIMARY KEY(grain, period_start, dimension, group_id)
+                ) WITHOUT ROWID;
+        """);
+    // Timestamps were ISO-8601 text at this version, so the day is the leading 'YYYY-MM-DD'
+    createSalesRollupTriggers(stmt, createdAt -> "substr(" + createdAt + ", 1, 10)");
+  }
+
+  // Version 6: timestamps become UTC epoch milliseconds instead of ISO-8601 text, so writes stop
+  // formatting strings, reads stop parsing them and the created_at indexes compare integers.
+  // DATETIME columns have NUMERIC affinity, so the converted values are stored as INTEGER without
+  // rebuilding the tables. Text that does not parse as a date is left as it was.
+  private static void useEpochMillis(Statement stmt) throws SQLException {
+    dropStockSnapshotTriggers(stmt);
+    dropSalesRollupTriggers(stmt);
+    convertToEpochMillis(stmt, "products", "created_at", "updated_at");
+    convertToEpochMillis(stmt, "suppliers", "created_at", "updated_at");
+    convertToEpochMillis(stmt, "stock_batches", "expiry_date", "created_at", "updated_at");
+    convertToEpochMillis(stmt, "inventory_transactions", "created_at", "updated_at");
+    convertToEpochMillis(stmt, "customers", "created_at", "updated_at");
+    convertToEpochMillis(stmt, "orders", "created_at", "updated_at");
+    convertToEpochMillis(stmt, "customer_stats", "last_order_date");
+    convertToEpochMillis(stmt, "order_items", "created_at", "updated_at");
+    convertToEpochMillis(stmt, "stock_snapshots", "created_at");
+    convertToEpochMillis(stmt, "sales_rollup_periods", "computed_at");
+    createStockSnapshotTriggers(stmt, DatabaseUtils::sqlDayOf);
+    createSalesRollupTriggers(stmt, DatabaseUtils::sqlDayOf);
+  }
+
+  private static void convertToEpochMillis(Statement stmt, String table, String... columns)
+      throws SQLException {
+    List<String> assignments = new ArrayList<>();
+    List<String> textChecks = new ArrayList<>();
+    for (String column : columns) {
+      assignments.add(
           """
-          INSERT OR IGNORE INTO stock_batches (id, product_id, quantity_received,
-              quantity_remaining, unit_cost_cents, landed_cost_cents)
-          VALUES (0, 0, 0, 0, 0, 0);
-          """;
-      stmt.execute(insertDummyBatch);
+          %1$s = CASE WHEN typeof(%1$s) = 'text'
+              THEN COALESCE(CAST(round(unixepoch(%1$s, 'subsec') * 1000) AS INTEGER), %1$s)
+              ELSE %1$s END"""
+              .formatted(column));
+      textChecks.add("typeof(" + column + ") = 'text'");
+    }
+    stmt.executeUpdate(
+        "UPDATE %s SET %s WHERE %s"
+            .formatted(table, String.join(", ", assignments), String.join(" OR ", textChecks)));
+  }
+
+  // A snapshot carries every earlier day forward, so a ledger row written, moved or removed on a
+  // closed day makes that day's snapshots and all later ones stale; the next capture redoes them.
+  // dayOf maps a created_at expression to its 'YYYY-MM-DD' day.
+  private static void createStockSnapshotTriggers(Statement stmt, UnaryOperator<String> dayOf)
+      throws SQLException {
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_inventory_transactions_snapshot_insert
+        AFTER INSERT ON inventory_transactions
+        BEGIN
+            %s
+        END;
+        """
+            .formatted(invalidateStockSnapshotsSql(dayOf.apply("NEW.created_at"))));
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_inventory_transactions_snapshot_update
+        AFTER UPDATE OF product_id, batch_id, change_amount, created_at, is_deleted
+        ON inventory_transactions
+        BEGIN
+            %s
+        END;
+        """
+            .formatted(
+                invalidateStockSnapshotsSql(
+                    "min(%s, %s)"
+                        .formatted(dayOf.apply("OLD.created_at"), dayOf.apply("NEW.created_at")))));
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_inventory_transactions_snapshot_delete
+        AFTER DELETE ON inventory_transactions
+        BEGIN
+            %s
+        END;
+        """
+            .formatted(invalidateStockSnapshotsSql(dayOf.apply("OLD.created_at"))));
+  }
+
+  private static void dropStockSnapshotTriggers(Statement stmt) throws SQLException {
+    stmt.execute("DROP TRIGGER IF EXISTS trg_inventory_transactions_snapshot_insert;");
+    stmt.execute("DROP TRIGGER IF EXISTS trg_inventory_transactions_snapshot_update;");
+    stmt.execute("DROP TRIGGER IF EXISTS trg_inventory_transactions_snapshot_delete;");
+  }
+
+  private static String invalidateStockSnapshotsSql(String dayExpression) {
+    return "DELETE FROM stock_snapshots WHERE snapshot_date >= %s;".formatted(dayExpression);
+  }
+
+  // Order lines belong to the period of their order's date; dayOf maps a created_at expression
+  // to its 'YYYY-MM-DD' day
+  private static void createSalesRollupTriggers(Statement stmt, UnaryOperator<String> dayOf)
+      throws SQLException {
+    String orderDay = dayOf.apply("(SELECT created_at FROM orders WHERE id = %s)");
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_order_items_rollup_insert
+        AFTER INSERT ON order_items
+        BEGIN
+            %s
+        END;
+        """
+            .formatted(invalidateSalesRollupsSql(orderDay.formatted("NEW.order_id"))));
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_order_items_rollup_update
+        AFTER UPDATE ON order_items
+        BEGIN
+            %s
+            %s
+        END;
+        """
+            .formatted(
+                invalidateSalesRollupsSql(orderDay.formatted("OLD.order_id")),
+                invalidateSalesRollupsSql(orderDay.formatted("NEW.order_id"))));
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_order_items_rollup_delete
+        AFTER DELETE ON order_items
+        BEGIN
+            %s
+        END;
+        """
+            .formatted(invalidateSalesRollupsSql(orderDay.formatted("OLD.order_id"))));
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_orders_rollup_update
+        AFTER UPDATE OF customer_id, created_at, is_deleted ON orders
+        BEGIN
+            %s
+            %s
+        END;
+        """
+            .formatted(
+                invalidateSalesRollupsSql(dayOf.apply("OLD.created_at")),
+                invalidateSalesRollupsSql(dayOf.apply("NEW.created_at"))));
+    stmt.execute(
+        """
+        CREATE TRIGGER IF NOT EXISTS trg_orders_rollup_delete
+        AFTER DELETE ON orders
+        BEGIN
+            %s
+        END;
+        """
+            .formatted(invalidateSalesRollupsSql(dayOf.apply("OLD.created_at"))));
+  }
+
+  private static void dropSalesRollupTriggers(Statement stmt) throws SQLException {
+    stmt.execute("DROP TRIGGER IF EXISTS trg_order_items_rollup_insert;");
+    stmt.execute("DROP TRIGGER IF EXISTS trg_order_items_rollup_update;");
+    stmt.execute("DROP TRIGGER IF EXISTS trg_order_items_rollup_delete;");
+    stmt.execute("DROP TRIGGER IF EXISTS trg_orders_rollup_update;");
+    stmt.execute("DROP TRIGGER IF EXISTS trg_orders_rollup_delete;");
+  }
+
+  // Drops the cached DAY, WEEK (starting Monday) and MONTH periods containing the given day. The
+  // period starts come from PeriodGrain, so they always match the periods the reports cache.
+  private static String invalidateSalesRollupsSql(String dayExpression) {
+    List<String> periods = new ArrayList<>();
+    for (PeriodGrain grain : PeriodGrain.values()) {
+      periods.add(
+          "(grain = '%s' AND period_start = %s)"
+              .formatted(grain.name(), grain.sqlStartOf(dayExpression)));
     }
+    String matchesPeriod = String.join("\n    OR ", periods);
+    return """
+        DELETE FROM sales_rollup_periods
+        WHERE %1$s;
+        DELETE FROM sales_rollups
+        WHERE %1$s;
+        """
+        .formatted(matchesPeriod);
   }
 
-  public static void closeConnection() {
+  private static String retotalCustomerStatsSql(String customerIdExpression) {
+    return """
+        INSERT INTO customer_stats(
+            customer_id,
+            total_orders,
+            total_spent_cents,
+            total_discount_cents,
+            last_order_date)
+        SELECT
+            %1$s,
+            COUNT(id),
+            COALESCE(SUM(final_amount_cents), 0),
+            COALESCE(SUM(discount_amount_cents), 0),
+            MAX(created_at)
+        FROM orders
+        WHERE customer_id = %1$s AND is_deleted = 0
+        ON CONFLICT(customer_id) DO UPDATE SET
+            total_orders = excluded.total_orders,
+            total_spent_cents = excluded.total_spent_cents,
+            total_discount_cents = excluded.total_discount_cents,
+            last_order_date = excluded.last_order_date;
+        """
+        .formatted(customerIdExpression);
+  }
+
+  private static boolean tableExists(Statement stmt, String tableName) throws SQLException {
+    String sql =
+        "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + tableName + "'";
+    try (ResultSet rs = stmt.executeQuery(sql)) {
+      return rs.next();
+    }
+  }
+
+  private static void scheduleOptimize() {
+    int interval = PROFILE.getOptimizeIntervalMinutes();
+    if (interval <= 0 || maintenance != null) {
+      return;
+    }
+    maintenance =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "sqlite-maintenance");
+              thread.setDaemon(true);
+              return thread;
+            });
+    maintenance.scheduleAtFixedRate(
+        DatabaseManager::optimize, interval, interval, TimeUnit.MINUTES);
+  }
+
+  private static synchronized void optimize() {
+    if (connection == null) {
+      return;
+    }
+    // Waits for any open transaction on another thread to finish first
+    ReentrantLock writerLock = TransactionManager.writerLock(connection);
+    writerLock.lock();
+    try {
+      if (!connection.isClosed()) {
+        try (Statement stmt = connection.createStatement()) {
+          stmt.execute("PRAGMA optimize;");
+        }
+      }
+    } catch (SQLException e) {
+      LOGGER.warn("PRAGMA optimize failed", e);
+    } finally {
+      writerLock.unlock();
+    }
+  }
+
+  public static synchronized void closeConnection() {
+    if (maintenance != null) {
+      maintenance.shutdownNow();
+      maintenance = null;
+    }
+    if (readerDataSource != null) {
+      readerDataSource.close();
+    }
     try {
       if (connection != null && !connection.isClosed()) {
+        optimize();
+        StatementCache.invalidate(connection);
+        ProductCache.invalidate(connection);
+        ProductCodeIndex.invalidate(connection);
+        TransactionManager.invalidate(connection);
         connection.close();
       }
     } catch (SQLException e) {
-      e.printStackTrace();
+      LOGGER.error("Failed to close the database connection", e);
     }
   }
 }
@@ -0,0 +1,15 @@
+package com.daidaisuki.inventory.db;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One versioned schema step. Versions start at 1 and must be contiguous; the step runs once, in
+ * its own transaction, when the database's {@code PRAGMA user_version} is below its version.
+ */
+public record Migration(int version, String description, Step step) {
+  @FunctionalInterface
+  public interface Step {
+    void apply(Statement stmt) throws SQLException;
+  }
+}
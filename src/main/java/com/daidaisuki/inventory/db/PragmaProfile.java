@@ -0,0 +1,104 @@
+package com.daidaisuki.inventory.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SQLite tuning applied to every connection the app opens, chosen with the system property {@code
+ * inventory.db.profile} (default {@code BALANCED}).
+ *
+ * <p>All profiles keep foreign keys on and the file in WAL mode. {@code SAFE} is SQLite's stock
+ * behaviour, syncing on every commit. The others only sync at checkpoints, which in WAL mode can
+ * lose the last commits on power loss but never corrupts the file, and trade memory for fewer page
+ * reads.
+ */
+public enum PragmaProfile {
+  SAFE("FULL", -2_000, 0L, "DEFAULT", 5_000, 1_000, 0),
+  BALANCED("NORMAL", -32_000, 256L * 1024 * 1024, "MEMORY", 5_000, 1_000, 60),
+  FAST("NORMAL", -128_000, 1024L * 1024 * 1024, "MEMORY", 10_000, 4_000, 60);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PragmaProfile.class);
+
+  public static final String PROFILE_PROPERTY = "inventory.db.profile";
+  public static final PragmaProfile DEFAULT_PROFILE = BALANCED;
+
+  private final String synchronous;
+  // Negative values are KiB rather than pages
+  private final int cacheSize;
+  private final long mmapSize;
+  private final String tempStore;
+  private final int busyTimeoutMillis;
+  private final int walAutocheckpointPages;
+  // 0 turns off the periodic PRAGMA optimize
+  private final int optimizeIntervalMinutes;
+
+  PragmaProfile(
+      String synchronous,
+      int cacheSize,
+      long mmapSize,
+      String tempStore,
+      int busyTimeoutMillis,
+      int walAutocheckpointPages,
+      int optimizeIntervalMinutes) {
+    this.synchronous = synchronous;
+    this.cacheSize = cacheSize;
+    this.mmapSize = mmapSize;
+    this.tempStore = tempStore;
+    this.busyTimeoutMillis = busyTimeoutMillis;
+    this.walAutocheckpointPages = walAutocheckpointPages;
+    this.optimizeIntervalMinutes = optimizeIntervalMinutes;
+  }
+
+  public static PragmaProfile fromSystemProperty() {
+    String name = System.getProperty(PROFILE_PROPERTY);
+    if (name == null || name.isBlank()) {
+      return DEFAULT_PROFILE;
+    }
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn("Unknown {} '{}', using {}", PROFILE_PROPERTY, name, DEFAULT_PROFILE);
+      return DEFAULT_PROFILE;
+    }
+  }
+
+  /**
+   * Driver properties the SQLite JDBC driver turns into PRAGMAs as it opens a connection, so pooled
+   * reader connections get them too.
+   */
+  public Properties connectionProperties() {
+    Properties properties = new Properties();
+    properties.setProperty("foreign_keys", "true");
+    properties.setProperty("journal_mode", "WAL");
+    properties.setProperty("synchronous", this.synchronous);
+    properties.setProperty("cache_size", String.valueOf(this.cacheSize));
+    properties.setProperty("mmap_size", String.valueOf(this.mmapSize));
+    properties.setProperty("temp_store", this.tempStore);
+    properties.setProperty("busy_timeout", String.valueOf(this.busyTimeoutMillis));
+    return properties;
+  }
+
+  /** Opens the writer connection: the driver properties plus the write-side PRAGMAs. */
+  public Connection openWriter(String url) throws SQLException {
+    Connection conn = DriverManager.getConnection(url, this.connectionProperties());
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("PRAGMA wal_autocheckpoint = " + this.walAutocheckpointPages + ";");
+      // Recommended on open for long-lived connections: analyzes only what looks stale
+      stmt.execute("PRAGMA optimize = 0x10002;");
+    } catch (SQLException e) {
+      conn.close();
+      throw e;
+    }
+    return conn;
+  }
+
+  public int getOptimizeIntervalMinutes() {
+    return this.optimizeIntervalMinutes;
+  }
+}
@@ -0,0 +1,223 @@
+package com.daidaisuki.inventory.db;
+
+import com.daidaisuki.inventory.model.projection.StatementMetrics;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Execution statistics for every statement run through {@code BaseDAO}: calls, failures, a
+ * latency histogram, rows returned by reads and rows affected by writes.
+ *
+ * <p>Statements are keyed by their SQL text, so recording costs a map lookup and a few atomic
+ * adds. Statements slower than {@code inventory.db.slowQueryMillis} (default 100) are logged as
+ * they finish, and {@link #startPeriodicDump} logs the most expensive statements every {@code
+ * inventory.db.metricsDumpMinutes} (default 15, 0 turns it off).
+ */
+public final class QueryMetrics {
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryMetrics.class);
+
+  public static final String SLOW_QUERY_PROPERTY = "inventory.db.slowQueryMillis";
+  public static final String DUMP_INTERVAL_PROPERTY = "inventory.db.metricsDumpMinutes";
+
+  private static final long SLOW_QUERY_NANOS =
+      TimeUnit.MILLISECONDS.toNanos(Long.getLong(SLOW_QUERY_PROPERTY, 100L));
+  private static final long DUMP_INTERVAL_MINUTES = Long.getLong(DUMP_INTERVAL_PROPERTY, 15L);
+  private static final int DUMP_LIMIT = 10;
+
+  // Chunked IN lists and other generated SQL must not grow the map without bound
+  private static final int MAX_STATEMENTS = 500;
+  private static final String OVERFLOW_KEY = "(other statements)";
+  private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  // Bucket upper bounds in microseconds; anything slower lands in one last open-ended bucket
+  private static final long[] BUCKET_BOUNDS_MICROS = {
+    100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+    1_000_000
+  };
+
+  private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+
+  private static ScheduledExecutorService dumpExecutor = null;
+
+  private QueryMetrics() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  private static final class Stats {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder rowsReturned = new LongAdder();
+    private final LongAdder rowsAffected = new LongAdder();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MICROS.length + 1);
+  }
+
+  /**
+   * Records one execution. {@code rows} counts rows returned for reads and rows affected for
+   * writes.
+   */
+  public static void record(
+      String sql, long elapsedNanos, long rows, boolean isWrite, boolean failed) {
+    Stats stats = statsFor(sql);
+    stats.calls.increment();
+    stats.totalNanos.add(elapsedNanos);
+    stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    stats.buckets.incrementAndGet(bucketOf(elapsedNanos));
+    if (failed) {
+      stats.errors.increment();
+    } else if (isWrite) {
+      stats.rowsAffected.add(rows);
+    } else {
+      stats.rowsReturned.add(rows);
+    }
+    if (elapsedNanos >= SLOW_QUERY_NANOS) {
+      LOGGER.warn(
+          "Slow statement: {} ms, {} rows{}: {}",
+          TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+          rows,
+          failed ? ", failed" : "",
+          normalize(sql));
+    }
+  }
+
+  /** A copy of the current statistics, most total time first. */
+  public static List<StatementMetrics> snapshot() {
+    List<StatementMetrics> metrics = new ArrayList<>(STATS.size());
+    STATS.forEach((sql, stats) -> metrics.add(toMetrics(sql, stats)));
+    metrics.sort(Comparator.comparingLong(StatementMetrics::totalNanos).reversed());
+    return metrics;
+  }
+
+  public static void reset() {
+    STATS.clear();
+  }
+
+  public static long getSlowQueryThresholdMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(SLOW_QUERY_NANOS);
+  }
+
+  public static synchronized void startPeriodicDump() {
+    if (dumpExecutor != null || DUMP_INTERVAL_MINUTES <= 0) {
+      return;
+    }
+    dumpExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "query-metrics");
+              thread.setDaemon(true);
+              return thread;
+            });
+    dumpExecutor.scheduleAtFixedRate(
+        QueryMetrics::dump, DUMP_INTERVAL_MINUTES, DUMP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+  }
+
+  public static synchronized void stopPeriodicDump() {
+    if (dumpExecutor != null) {
+      dumpExecutor.shutdownNow();
+      dumpExecutor = null;
+    }
+  }
+
+  /** Logs the statements that took the most time in total since start-up or the last reset. */
+  public static void dump() {
+    List<StatementMetrics> metrics = snapshot();
+    if (metrics.isEmpty()) {
+      return;
+    }
+    StringBuilder report = new StringBuilder("Top statements by total time:");
+    for (StatementMetrics m : metrics.subList(0, Math.min(DUMP_LIMIT, metrics.size()))) {
+      report.append(
+          String.format(
+              "%n  %8d calls %6d errors %10.1f ms total %8.2f ms avg %8.2f ms p95"
+                  + " %8.2f ms max %10d rows read %8d rows written  %s",
+              m.calls(),
+              m.errors(),
+              m.totalNanos() / 1e6,
+              m.averageNanos() / 1e6,
+              m.p95Nanos() / 1e6,
+              m.maxNanos() / 1e6,
+              m.rowsReturned(),
+              m.rowsAffected(),
+              m.sql()));
+    }
+    LOGGER.info(report.toString());
+  }
+
+  private static Stats statsFor(String sql) {
+    // Chunked IN lists differ only in their placeholder count, so they share one entry
+    String key = sql.contains("?, ?") ? PLACEHOLDER_LIST.matcher(sql).replaceAll("?, ...") : sql;
+    Stats stats = STATS.get(key);
+    if (stats != null) {
+      return stats;
+    }
+    if (STATS.size() >= MAX_STATEMENTS) {
+      return STATS.computeIfAbsent(OVERFLOW_KEY, k -> new Stats());
+    }
+    return STATS.computeIfAbsent(key, k -> new Stats());
+  }
+
+  private static int bucketOf(long elapsedNanos) {
+    long micros = elapsedNanos / 1_000;
+    for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+      if (micros < BUCKET_BOUNDS_MICROS[i]) {
+        return i;
+      }
+    }
+    return BUCKET_BOUNDS_MICROS.length;
+  }
+
+  private static StatementMetrics toMetrics(String sql, Stats stats) {
+    long[] counts = new long[stats.buckets.length()];
+    long bucketTotal = 0;
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = stats.buckets.get(i);
+      bucketTotal += counts[i];
+    }
+    long maxNanos = stats.maxNanos.get();
+    return new StatementMetrics(
+        normalize(sql),
+        stats.calls.sum(),
+        stats.errors.sum(),
+        stats.totalNanos.sum(),
+        maxNanos,
+        percentile(counts, bucketTotal, 0.50, maxNanos),
+        percentile(counts, bucketTotal, 0.95, maxNanos),
+        percentile(counts, bucketTotal, 0.99, maxNanos),
+        stats.rowsReturned.sum(),
+        stats.rowsAffected.sum());
+  }
+
+  // Upper bound of the bucket holding the percentile, capped at the slowest call seen
+  private static long percentile(long[] counts, long total, double quantile, long maxNanos) {
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * quantile);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(TimeUnit.MICROSECONDS.toNanos(BUCKET_BOUNDS_MICROS[i]), maxNanos);
+      }
+    }
+    return maxNanos;
+  }
+
+  private static String normalize(String sql) {
+    return WHITESPACE.matcher(sql).replaceAll(" ").trim();
+  }
+}
@@ -0,0 +1,95 @@
+package com.daidaisuki.inventory.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies pending {@link Migration}s in version order, recording progress in {@code PRAGMA
+ * user_version} so each step runs exactly once per database file.
+ */
+public class SchemaMigrator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SchemaMigrator.class);
+
+  private final Connection connection;
+  private final List<Migration> migrations;
+
+  /** How long one applied step took. */
+  public record AppliedMigration(int version, String description, long elapsedMillis) {}
+
+  public SchemaMigrator(Connection connection, List<Migration> migrations) {
+    for (int i = 0; i < migrations.size(); i++) {
+      if (migrations.get(i).version() != i + 1) {
+        throw new IllegalArgumentException(
+            "Migration versions must run 1.." + migrations.size() + " without gaps");
+      }
+    }
+    this.connection = connection;
+    this.migrations = List.copyOf(migrations);
+  }
+
+  public int getLatestVersion() {
+    return this.migrations.size();
+  }
+
+  public int getCurrentVersion() throws SQLException {
+    try (Statement stmt = this.connection.createStatement();
+        ResultSet rs = stmt.executeQuery("PRAGMA user_version;")) {
+      return rs.next() ? rs.getInt(1) : 0;
+    }
+  }
+
+  public List<AppliedMigration> migrate() throws SQLException {
+    int currentVersion = this.getCurrentVersion();
+    if (currentVersion > this.getLatestVersion()) {
+      throw new SQLException(
+          "Database schema version "
+              + currentVersion
+              + " is newer than this application supports ("
+              + this.getLatestVersion()
+              + ")");
+    }
+    List<AppliedMigration> applied = new ArrayList<>();
+    long totalStart = System.nanoTime();
+    for (Migration migration : this.migrations.subList(currentVersion, this.migrations.size())) {
+      applied.add(this.apply(migration));
+    }
+    if (!applied.isEmpty()) {
+      LOGGER.info(
+          "Schema migrated from version {} to {} in {} ms",
+          currentVersion,
+          this.getLatestVersion(),
+          (System.nanoTime() - totalStart) / 1_000_000);
+    }
+    return applied;
+  }
+
+  private AppliedMigration apply(Migration migration) throws SQLException {
+    long start = System.nanoTime();
+    boolean autoCommit = this.connection.getAutoCommit();
+    this.connection.setAutoCommit(false);
+    try (Statement stmt = this.connection.createStatement()) {
+      migration.step().apply(stmt);
+      // user_version lives in the file header, so it commits or rolls back with the step
+      stmt.execute("PRAGMA user_version = " + migration.version() + ";");
+      this.connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      this.connection.rollback();
+      throw e;
+    } finally {
+      this.connection.setAutoCommit(autoCommit);
+    }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    LOGGER.info(
+        "Applied schema migration {} ({}) in {} ms",
+        migration.version(),
+        migration.description(),
+        elapsedMillis);
+    return new AppliedMigration(migration.version(), migration.description(), elapsedMillis);
+  }
+}
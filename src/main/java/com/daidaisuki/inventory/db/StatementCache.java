@@ -0,0 +1,138 @@
+package com.daidaisuki.inventory.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of prepared statements for a single connection, keyed by SQL text.
+ *
+ * <p>Statements are checked out with {@link #acquire} and handed back with {@link #release}, so a
+ * statement is never bound by two threads at once. A concurrent request for the same SQL simply
+ * prepares a second statement, which is closed on release if the slot has been refilled.
+ */
+public class StatementCache {
+  public static final int DEFAULT_MAX_SIZE = 64;
+
+  private static final Map<Connection, StatementCache> CACHES = new ConcurrentHashMap<>();
+
+  private final Connection connection;
+  private final LinkedHashMap<String, PreparedStatement> statements;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private StatementCache(Connection connection, int maxSize) {
+    this.connection = connection;
+    this.statements =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > maxSize) {
+              evictions.incrementAndGet();
+              closeQuietly(eldest.getValue());
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  public static StatementCache forConnection(Connection connection) {
+    return CACHES.computeIfAbsent(connection, conn -> new StatementCache(conn, DEFAULT_MAX_SIZE));
+  }
+
+  public static void invalidate(Connection connection) {
+    StatementCache cache = CACHES.remove(connection);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  public PreparedStatement acquire(String sql, int autoGeneratedKeys) throws SQLException {
+    String key = cacheKey(sql, autoGeneratedKeys);
+    synchronized (this) {
+      if (this.connection.isClosed()) {
+        // Statements die with their connection, so drop this cache entirely
+        CACHES.remove(this.connection, this);
+        this.clear();
+      } else {
+        PreparedStatement cached = this.statements.remove(key);
+        if (cached != null && !cached.isClosed()) {
+          this.hits.incrementAndGet();
+          return cached;
+        }
+      }
+    }
+    this.misses.incrementAndGet();
+    return this.connection.prepareStatement(sql, autoGeneratedKeys);
+  }
+
+  public void release(String sql, int autoGeneratedKeys, PreparedStatement statement) {
+    try {
+      if (statement.isClosed()) {
+        return;
+      }
+      statement.clearParameters();
+      statement.clearBatch();
+    } catch (SQLException e) {
+      closeQuietly(statement);
+      return;
+    }
+    String key = cacheKey(sql, autoGeneratedKeys);
+    synchronized (this) {
+      if (!this.statements.containsKey(key)) {
+        this.statements.put(key, statement);
+        return;
+      }
+    }
+    closeQuietly(statement);
+  }
+
+  // Used when the statement failed mid-execution and its state can no longer be trusted
+  public void discard(PreparedStatement statement) {
+    closeQuietly(statement);
+  }
+
+  public synchronized void clear() {
+    List<PreparedStatement> toClose = new ArrayList<>(this.statements.values());
+    this.statements.clear();
+    for (PreparedStatement statement : toClose) {
+      closeQuietly(statement);
+    }
+  }
+
+  public synchronized int size() {
+    return this.statements.size();
+  }
+
+  public long getHitCount() {
+    return this.hits.get();
+  }
+
+  public long getMissCount() {
+    return this.misses.get();
+  }
+
+  public long getEvictionCount() {
+    return this.evictions.get();
+  }
+
+  private static String cacheKey(String sql, int autoGeneratedKeys) {
+    return autoGeneratedKeys + ":" + sql;
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      // Nothing useful to do, the statement is being thrown away anyway
+    }
+  }
+}
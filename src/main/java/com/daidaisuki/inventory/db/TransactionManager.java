@@ -4,8 +4,21 @@ import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.exception.InsufficientStockException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class TransactionManager {
+  // Lets DAOs keep reads on the writer while the current thread holds an open transaction
+  private static final ThreadLocal<Boolean> IN_TRANSACTION =
+      ThreadLocal.withInitial(() -> false);
+  private static final ThreadLocal<List<Runnable>> AFTER_COMMIT =
+      ThreadLocal.withInitial(ArrayList::new);
+  // The single writer connection is shared by the UI, background and scheduler threads
+  private static final Map<Connection, ReentrantLock> WRITER_LOCKS = new ConcurrentHashMap<>();
+
   private final Connection connection;
 
   public TransactionManager(Connection connection) {
@@ -22,6 +35,34 @@ public class TransactionManager {
     T execute() throws InsufficientStockException;
   }
 
+  public static boolean isInTransaction() {
+    return IN_TRANSACTION.get();
+  }
+
+  /**
+   * The lock that gives one thread at a time the writer connection. A transaction holds it from
+   * begin to commit or rollback, and statements outside a transaction hold it while they run.
+   */
+  public static ReentrantLock writerLock(Connection connection) {
+    return WRITER_LOCKS.computeIfAbsent(connection, conn -> new ReentrantLock());
+  }
+
+  public static void invalidate(Connection connection) {
+    WRITER_LOCKS.remove(connection);
+  }
+
+  /**
+   * Runs the action once the current transaction commits, or right away when there is none.
+   * Actions queued by a transaction that rolls back are dropped.
+   */
+  public static void runAfterCommit(Runnable action) {
+    if (isInTransaction()) {
+      AFTER_COMMIT.get().add(action);
+    } else {
+      action.run();
+    }
+  }
+
   public void executeInTransaction(TransactionAction action) throws InsufficientStockException {
     executeInTransaction(
         () -> {
@@ -32,19 +73,23 @@ public class TransactionManager {
 
   public <T> T executeInTransaction(TransactionCallable<T> action)
       throws InsufficientStockException {
-    boolean alreadyInTransaction = false;
-    try {
-      alreadyInTransaction = !connection.getAutoCommit();
-    } catch (SQLException e) {
-      throw new DataAccessException("Failed to check transaction state", e);
-    }
-    if (alreadyInTransaction) {
+    // Nesting is per thread; the connection's auto-commit flag is shared by every thread
+    if (isInTransaction()) {
       return action.execute();
     }
+    ReentrantLock writerLock = writerLock(this.connection);
+    writerLock.lock();
     try {
       this.safeSetAutoCommit(false);
+      IN_TRANSACTION.set(true);
       T result = action.execute();
       this.safeCommit();
+      List<Runnable> afterCommit = AFTER_COMMIT.get();
+      IN_TRANSACTION.remove();
+      AFTER_COMMIT.remove();
+      for (Runnable callback : afterCommit) {
+        callback.run();
+      }
       return result;
     } catch (InsufficientStockException e) {
       this.safeRollback();
@@ -53,8 +98,12 @@ public class TransactionManager {
       this.safeRollback();
       throw e;
     } finally {
-      if (!alreadyInTransaction) {
+      IN_TRANSACTION.remove();
+      AFTER_COMMIT.remove();
+      try {
         this.safeSetAutoCommit(true);
+      } finally {
+        writerLock.unlock();
       }
     }
   }
@@ -0,0 +1,58 @@
+package com.daidaisuki.inventory.enums;
+
+import com.daidaisuki.inventory.interfaces.Displayable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/** Reporting period lengths. Weeks start on Monday, and all periods follow UTC dates. */
+public enum PeriodGrain implements Displayable {
+  DAY("Daily"),
+  WEEK("Weekly"),
+  MONTH("Monthly");
+
+  private final String displayName;
+
+  PeriodGrain(String displayName) {
+    this.displayName = displayName;
+  }
+
+  @Override
+  public String getDisplayName() {
+    return this.displayName;
+  }
+
+  public LocalDate startOf(LocalDate date) {
+    return switch (this) {
+      case DAY -> date;
+      case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      case MONTH -> date.withDayOfMonth(1);
+    };
+  }
+
+  public LocalDate next(LocalDate periodStart) {
+    return switch (this) {
+      case DAY -> periodStart.plusDays(1);
+      case WEEK -> periodStart.plusWeeks(1);
+      case MONTH -> periodStart.plusMonths(1);
+    };
+  }
+
+  /** SQL for the period start of a {@code 'YYYY-MM-DD'} expression, matching {@link #startOf}. */
+  public String sqlStartOf(String dayExpression) {
+    return switch (this) {
+      case DAY -> dayExpression;
+      case WEEK -> "date(" + dayExpression + ", 'weekday 0', '-6 days')";
+      case MONTH -> "date(" + dayExpression + ", 'start of month')";
+    };
+  }
+
+  /** SQL for the start of the period after a {@code 'YYYY-MM-DD'} start, like {@link #next}. */
+  public String sqlNext(String periodStartExpression) {
+    return switch (this) {
+      case DAY -> "date(" + periodStartExpression + ", '+1 day')";
+      case WEEK -> "date(" + periodStartExpression + ", '+7 days')";
+      case MONTH -> "date(" + periodStartExpression + ", '+1 month')";
+    };
+  }
+}
@@ -0,0 +1,21 @@
+package com.daidaisuki.inventory.enums;
+
+import com.daidaisuki.inventory.interfaces.Displayable;
+
+public enum SalesDimension implements Displayable {
+  TOTAL("Total"),
+  PRODUCT("Product"),
+  CATEGORY("Category"),
+  CUSTOMER("Customer");
+
+  private final String displayName;
+
+  SalesDimension(String displayName) {
+    this.displayName = displayName;
+  }
+
+  @Override
+  public String getDisplayName() {
+    return this.displayName;
+  }
+}
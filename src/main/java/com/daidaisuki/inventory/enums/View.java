@@ -9,6 +9,7 @@ public enum View implements FxmlView {
   CUSTOMERS("customers.fxml"),
   SUPPLIER("supplier.fxml"),
   REPORTS("reports.fxml"),
+  DIAGNOSTICS("diagnostics.fxml"),
   SETTINGS("settings.fxml");
 
   private final String fxml;
@@ -1,15 +1,14 @@
 package com.daidaisuki.inventory.model;
 
 import com.daidaisuki.inventory.model.base.BaseModel;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.OffsetDateTime;
 import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
@@ -21,12 +20,11 @@ public class Customer extends BaseModel {
   private final StringProperty acquisitionSource =
       new SimpleStringProperty(this, "acquisitionSource", "");
   private final IntegerProperty totalOrders = new SimpleIntegerProperty(this, "totalOrders", 0);
-  private final ObjectProperty<BigDecimal> totalSpent =
-      new SimpleObjectProperty<>(this, "totalSpent", decimalZero());
-  private final ObjectProperty<BigDecimal> totalDiscount =
-      new SimpleObjectProperty<>(this, "totalDiscount", decimalZero());
-  private final ObjectProperty<BigDecimal> averageOrderValue =
-      new SimpleObjectProperty<>(this, "averageOrderValue", decimalZero());
+  private final LongProperty totalSpentCents = new SimpleLongProperty(this, "totalSpentCents", 0L);
+  private final LongProperty totalDiscountCents =
+      new SimpleLongProperty(this, "totalDiscountCents", 0L);
+  private final LongProperty averageOrderValueCents =
+      new SimpleLongProperty(this, "averageOrderValueCents", 0L);
   private final ReadOnlyObjectWrapper<OffsetDateTime> lastOrderDate =
       new ReadOnlyObjectWrapper<>(this, "lastOrderDate");
 
@@ -42,9 +40,9 @@ public class Customer extends BaseModel {
       String address,
       String acquisitionSource,
       int totalOrders,
-      BigDecimal totalSpent,
-      BigDecimal totalDiscount,
-      BigDecimal averageOrderValue,
+      long totalSpentCents,
+      long totalDiscountCents,
+      long averageOrderValueCents,
       OffsetDateTime lastOrderDate,
       OffsetDateTime createdAt,
       OffsetDateTime updatedAt,
@@ -56,9 +54,9 @@ public class Customer extends BaseModel {
     this.address.set(address);
     this.acquisitionSource.set(acquisitionSource);
     this.totalOrders.set(totalOrders);
-    this.totalSpent.set(sanitize(totalSpent));
-    this.totalDiscount.set(sanitize(totalDiscount));
-    this.averageOrderValue.set(sanitize(averageOrderValue));
+    this.totalSpentCents.set(totalSpentCents);
+    this.totalDiscountCents.set(totalDiscountCents);
+    this.averageOrderValueCents.set(averageOrderValueCents);
     this.lastOrderDate.set(lastOrderDate);
   }
 
@@ -134,28 +132,28 @@ public class Customer extends BaseModel {
     return this.totalOrders;
   }
 
-  public final BigDecimal getTotalSpent() {
-    return this.totalSpent.get();
+  public final long getTotalSpentCents() {
+    return this.totalSpentCents.get();
   }
 
-  public final ReadOnlyObjectProperty<BigDecimal> totalSpentProperty() {
-    return this.totalSpent;
+  public final ReadOnlyLongProperty totalSpentCentsProperty() {
+    return this.totalSpentCents;
   }
 
-  public final BigDecimal getTotalDiscount() {
-    return this.totalDiscount.get();
+  public final long getTotalDiscountCents() {
+    return this.totalDiscountCents.get();
   }
 
-  public final ReadOnlyObjectProperty<BigDecimal> totalDiscountProperty() {
-    return this.totalDiscount;
+  public final ReadOnlyLongProperty totalDiscountCentsProperty() {
+    return this.totalDiscountCents;
   }
 
-  public final BigDecimal getAverageOrderValue() {
-    return this.averageOrderValue.get();
+  public final long getAverageOrderValueCents() {
+    return this.averageOrderValueCents.get();
   }
 
-  public final ReadOnlyObjectProperty<BigDecimal> averageOrderValueProperty() {
-    return this.averageOrderValue;
+  public final ReadOnlyLongProperty averageOrderValueCentsProperty() {
+    return this.averageOrderValueCents;
   }
 
   public final OffsetDateTime getLastOrderDate() {
@@ -175,12 +173,4 @@ public class Customer extends BaseModel {
     if (this.getEmail() == null || this.getEmail().isEmpty()) return this.getFullName();
     return this.getFullName() + " (" + this.getEmail() + ")";
   }
-
-  private BigDecimal decimalZero() {
-    return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
-  }
-
-  private BigDecimal sanitize(BigDecimal value) {
-    return value == null ? decimalZero() : value.setScale(2, RoundingMode.HALF_UP);
-  }
 }
@@ -1,19 +1,18 @@
 package com.daidaisuki.inventory.model;
 
 import com.daidaisuki.inventory.model.base.BaseModel;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
@@ -38,10 +37,10 @@ public class Product extends BaseModel {
   private final IntegerProperty maxStockLevel = new SimpleIntegerProperty(this, "maxStockLevel", 0);
   private final IntegerProperty reorderingLevel =
       new SimpleIntegerProperty(this, "reorderingLevel", 5);
-  private final ObjectProperty<BigDecimal> sellingPrice =
-      new SimpleObjectProperty<>(this, "sellingPrice", BigDecimal.ZERO);
-  private final ObjectProperty<BigDecimal> averageUnitCost =
-      new SimpleObjectProperty<>(this, "averageUnitCost", BigDecimal.ZERO);
+  private final LongProperty sellingPriceCents =
+      new SimpleLongProperty(this, "sellingPriceCents", 0L);
+  private final LongProperty averageUnitCostCents =
+      new SimpleLongProperty(this, "averageUnitCostCents", 0L);
   private final BooleanProperty isActive = new SimpleBooleanProperty(this, "isActive", true);
   private final ReadOnlyBooleanWrapper inStock = new ReadOnlyBooleanWrapper(this, "inStock", false);
   private final ReadOnlyStringWrapper stockStatus =
@@ -81,8 +80,8 @@ public class Product extends BaseModel {
       int minStockLevel,
       int maxStockLevel,
       int reorderingLevel,
-      BigDecimal sellingPrice,
-      BigDecimal averageUnitCost,
+      long sellingPriceCents,
+      long averageUnitCostCents,
       boolean isActive,
       OffsetDateTime createdAt,
       OffsetDateTime updatedAt,
@@ -98,8 +97,8 @@ public class Product extends BaseModel {
     this.minStockLevel.set(minStockLevel);
     this.maxStockLevel.set(maxStockLevel);
     this.reorderingLevel.set(reorderingLevel);
-    this.sellingPrice.set(sellingPrice);
-    this.averageUnitCost.set(averageUnitCost);
+    this.sellingPriceCents.set(sellingPriceCents);
+    this.averageUnitCostCents.set(averageUnitCostCents);
     this.isActive.set(isActive);
     this.initializeBindings();
   }
@@ -331,21 +330,21 @@ public class Product extends BaseModel {
   }
 
   /**
-   * Returns the selling price.
+   * Returns the selling price in cents.
    *
    * @return the price
    */
-  public final BigDecimal getSellingPrice() {
-    return this.sellingPrice.get();
+  public final long getSellingPriceCents() {
+    return this.sellingPriceCents.get();
   }
 
   /**
-   * Sets the selling price.
+   * Sets the selling price in cents.
    *
-   * @param value the new price
+   * @param sellingPriceCents the new price
    */
-  public final void setSellingPrice(BigDecimal sellingPrice) {
-    this.sellingPrice.set(sellingPrice);
+  public final void setSellingPriceCents(long sellingPriceCents) {
+    this.sellingPriceCents.set(sellingPriceCents);
   }
 
   /**
@@ -353,20 +352,20 @@ public class Product extends BaseModel {
    *
    * @return the price property
    */
-  public final ObjectProperty<BigDecimal> sellingPriceProperty() {
-    return this.sellingPrice;
+  public final LongProperty sellingPriceCentsProperty() {
+    return this.sellingPriceCents;
   }
 
-  public final BigDecimal getAverageUnitCost() {
-    return this.averageUnitCost.get();
+  public final long getAverageUnitCostCents() {
+    return this.averageUnitCostCents.get();
   }
 
-  public final void setAverageUnitCost(BigDecimal averageUnitCost) {
-    this.averageUnitCost.set(averageUnitCost);
+  public final void setAverageUnitCostCents(long averageUnitCostCents) {
+    this.averageUnitCostCents.set(averageUnitCostCents);
   }
 
-  public final ObjectProperty<BigDecimal> averageUnitCostProperty() {
-    return this.averageUnitCost;
+  public final LongProperty averageUnitCostCentsProperty() {
+    return this.averageUnitCostCents;
   }
 
   /**
@@ -1,18 +1,19 @@
 package com.daidaisuki.inventory.model;
 
 import com.daidaisuki.inventory.model.base.BaseModel;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.beans.property.ReadOnlyIntegerWrapper;
-import javafx.beans.property.ReadOnlyObjectProperty;
-import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
 import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -29,15 +30,14 @@ public class StockBatch extends BaseModel {
       new SimpleIntegerProperty(this, "quantityReceived", 0);
   private final IntegerProperty quantityRemaining =
       new SimpleIntegerProperty(this, "quantityRemaining", 0);
-  private final ObjectProperty<BigDecimal> unitCost =
-      new SimpleObjectProperty<>(this, "unitCost", BigDecimal.ZERO);
-  private final ObjectProperty<BigDecimal> landedCost =
-      new SimpleObjectProperty<>(this, "landedCost", BigDecimal.ZERO);
+  private final LongProperty unitCostCents = new SimpleLongProperty(this, "unitCostCents", 0L);
+  private final LongProperty landedCostCents =
+      new SimpleLongProperty(this, "landedCostCents", 0L);
   private final ObjectProperty<Product> product = new SimpleObjectProperty<>(this, "product");
   // Transient/Calculated properties for UI Bindings
   private final ReadOnlyStringWrapper productName = new ReadOnlyStringWrapper(this, "productName");
-  private final ReadOnlyObjectWrapper<BigDecimal> totalValue =
-      new ReadOnlyObjectWrapper<>(this, "totalValue", BigDecimal.ZERO);
+  private final ReadOnlyLongWrapper totalValueCents =
+      new ReadOnlyLongWrapper(this, "totalValueCents", 0L);
 
   private StockBatch(
       int id,
@@ -47,8 +47,8 @@ public class StockBatch extends BaseModel {
       OffsetDateTime expiryDate,
       int quantityReceived,
       int quantityRemaining,
-      BigDecimal unitCost,
-      BigDecimal landedCost,
+      long unitCostCents,
+      long landedCostCents,
       OffsetDateTime createdAt,
       OffsetDateTime updatedAt,
       boolean deleted) {
@@ -59,8 +59,8 @@ public class StockBatch extends BaseModel {
     this.expiryDate.set(expiryDate);
     this.quantityReceived.set(quantityReceived);
     this.quantityRemaining.set(quantityRemaining);
-    this.unitCost.set(unitCost);
-    this.landedCost.set(landedCost);
+    this.unitCostCents.set(unitCostCents);
+    this.landedCostCents.set(landedCostCents);
     initBindings();
   }
 
@@ -72,8 +72,8 @@ public class StockBatch extends BaseModel {
       OffsetDateTime expiryDate,
       int quantityReceived,
       int quantityRemaining,
-      BigDecimal unitCost,
-      BigDecimal landedCost,
+      long unitCostCents,
+      long landedCostCents,
       OffsetDateTime createdAt,
       OffsetDateTime updatedAt,
       boolean deleted) {
@@ -85,8 +85,8 @@ public class StockBatch extends BaseModel {
         expiryDate,
         quantityReceived,
         quantityRemaining,
-        unitCost,
-        landedCost,
+        unitCostCents,
+        landedCostCents,
         createdAt,
         updatedAt,
         deleted);
@@ -98,7 +98,7 @@ public class StockBatch extends BaseModel {
       String batchcode,
       OffsetDateTime expiryDate,
       int quantity,
-      BigDecimal unitCost) {
+      long unitCostCents) {
     return new StockBatch(
         NEW_ENTITY_ID,
         productId,
@@ -107,8 +107,8 @@ public class StockBatch extends BaseModel {
         expiryDate,
         quantity,
         quantity,
-        unitCost,
-        unitCost,
+        unitCostCents,
+        unitCostCents,
         null,
         null,
         false);
@@ -117,21 +117,11 @@ public class StockBatch extends BaseModel {
   private void initBindings() {
     this.productName.bind(
         this.product.flatMap(Product::nameProperty).orElse("No Product Assigned"));
-    // Example of the JavaFX binding pattern seen in your OrderItem
-    this.totalValue.bind(
-        Bindings.createObjectBinding(
-            () -> {
-              return BigDecimal.valueOf(this.quantityRemaining.get())
-                  .multiply(this.landedCost.get());
-            },
+    this.totalValueCents.bind(
+        Bindings.createLongBinding(
+            () -> this.quantityRemaining.get() * this.landedCostCents.get(),
             this.quantityRemaining,
-            this.landedCost));
-    /* Low-level functional binding for custom logic and optimization
-    totalValue.bind(Bindings.createDoubleBinding(
-        () -> (double) (getQuantityRemaining() * getLandedCostCents()) / 100.0,
-        quantityRemaining, landedCostCents
-    ));
-    */
+            this.landedCostCents));
   }
 
   public final int getProductId() {
@@ -198,28 +188,28 @@ public class StockBatch extends BaseModel {
     return this.quantityRemaining;
   }
 
-  public final BigDecimal getUnitCost() {
-    return this.unitCost.get();
+  public final long getUnitCostCents() {
+    return this.unitCostCents.get();
   }
 
-  public final void setUnitCost(BigDecimal unitCost) {
-    this.unitCost.set(unitCost);
+  public final void setUnitCostCents(long unitCostCents) {
+    this.unitCostCents.set(unitCostCents);
   }
 
-  public final ObjectProperty<BigDecimal> unitCostProperty() {
-    return this.unitCost;
+  public final LongProperty unitCostCentsProperty() {
+    return this.unitCostCents;
   }
 
-  public final BigDecimal getLandedCost() {
-    return this.landedCost.get();
+  public final long getLandedCostCents() {
+    return this.landedCostCents.get();
   }
 
-  public final void setLandedCost(BigDecimal landedCost) {
-    this.landedCost.set(landedCost);
+  public final void setLandedCostCents(long landedCostCents) {
+    this.landedCostCents.set(landedCostCents);
   }
 
-  public final ObjectProperty<BigDecimal> landedCostProperty() {
-    return this.landedCost;
+  public final LongProperty landedCostCentsProperty() {
+    return this.landedCostCents;
   }
 
   public final Product getProduct() {
@@ -243,23 +233,23 @@ public class StockBatch extends BaseModel {
     return this.productName.getReadOnlyProperty();
   }
 
-  public final ReadOnlyObjectProperty<BigDecimal> totalValueProperty() {
-    return this.totalValue.getReadOnlyProperty();
+  public final ReadOnlyLongProperty totalValueCentsProperty() {
+    return this.totalValueCents.getReadOnlyProperty();
   }
 
-  public final BigDecimal getTotalValue() {
-    return this.totalValue.get();
+  public final long getTotalValueCents() {
+    return this.totalValueCents.get();
   }
 
   public final boolean isAvailable() {
     return this.getQuantityRemaining() > 0;
   }
 
-  public final BigDecimal getPotentialProfit() {
+  public final long getPotentialProfitCents() {
     Product currentProduct = this.getProduct();
     if (currentProduct == null) {
-      return BigDecimal.ZERO;
+      return 0L;
     }
-    return currentProduct.getSellingPrice().subtract(this.getUnitCost());
+    return currentProduct.getSellingPriceCents() - this.getUnitCostCents();
   }
 }
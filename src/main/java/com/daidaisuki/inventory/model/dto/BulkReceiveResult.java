@@ -0,0 +1,9 @@
+package com.daidaisuki.inventory.model.dto;
+
+import java.util.List;
+
+public record BulkReceiveResult(int receivedLines, List<StockReceiveFailure> failures) {
+  public boolean hasFailures() {
+    return !this.failures.isEmpty();
+  }
+}
@@ -0,0 +1,14 @@
+package com.daidaisuki.inventory.model.dto;
+
+import com.daidaisuki.inventory.model.projection.StatementMetrics;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record DiagnosticsSnapshot(
+    List<StatementMetrics> statements,
+    long statementCacheHits,
+    long statementCacheMisses,
+    long statementCacheEvictions,
+    int statementCacheSize,
+    long slowQueryThresholdMillis,
+    OffsetDateTime takenAt) {}
@@ -1,5 +1,3 @@
 package com.daidaisuki.inventory.model.dto;
 
-import java.math.BigDecimal;
-
-public record StockAllocation(int batchId, int quantity, BigDecimal unitCost) {}
+public record StockAllocation(int batchId, int quantity, long unitCostCents) {}
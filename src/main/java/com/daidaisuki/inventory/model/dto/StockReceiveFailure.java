@@ -0,0 +1,3 @@
+package com.daidaisuki.inventory.model.dto;
+
+public record StockReceiveFailure(int lineIndex, StockReceiveRequest request, String reason) {}
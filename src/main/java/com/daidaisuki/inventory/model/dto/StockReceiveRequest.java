@@ -1,6 +1,5 @@
 package com.daidaisuki.inventory.model.dto;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 public record StockReceiveRequest(
@@ -8,6 +7,6 @@ public record StockReceiveRequest(
     int supplierId,
     String batchCode,
     int quantity,
-    BigDecimal unitCost,
+    long unitCostCents,
     OffsetDateTime expiryDate,
     String reason) {}
@@ -0,0 +1,11 @@
+package com.daidaisuki.inventory.model.dto;
+
+import com.daidaisuki.inventory.model.projection.CategoryValuation;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record ValuationReport(
+    List<CategoryValuation> categories,
+    CategoryValuation total,
+    OffsetDateTime generatedAt,
+    long elapsedMillis) {}
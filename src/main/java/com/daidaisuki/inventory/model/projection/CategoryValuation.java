@@ -0,0 +1,10 @@
+package com.daidaisuki.inventory.model.projection;
+
+/** Stock on hand in one product category, valued under FIFO and under weighted average cost. */
+public record CategoryValuation(
+    String category,
+    int productCount,
+    int batchCount,
+    long quantity,
+    long fifoValueCents,
+    long averageCostValueCents) {}
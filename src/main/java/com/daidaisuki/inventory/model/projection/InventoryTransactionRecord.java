@@ -0,0 +1,21 @@
+package com.daidaisuki.inventory.model.projection;
+
+import com.daidaisuki.inventory.enums.TransactionType;
+import com.daidaisuki.inventory.util.TimestampUtil;
+import java.time.OffsetDateTime;
+
+public record InventoryTransactionRecord(
+    int id,
+    int productId,
+    int batchId,
+    int userId,
+    int referenceId,
+    int changeAmount,
+    TransactionType transactionType,
+    String reasonCode,
+    long createdAtMillis) {
+  // Decoded on demand, so scans that never look at the timestamp never build one
+  public OffsetDateTime createdAt() {
+    return TimestampUtil.toOffsetDateTime(this.createdAtMillis);
+  }
+}
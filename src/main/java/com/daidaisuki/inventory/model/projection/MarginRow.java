@@ -0,0 +1,19 @@
+package com.daidaisuki.inventory.model.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Sales for one group within one reporting period. Revenue is line revenue before order-level
+ * discounts and shipping, and cost is the unit cost recorded on each line at the time of sale.
+ */
+public record MarginRow(
+    LocalDate periodStart,
+    String groupKey,
+    String label,
+    long quantity,
+    long revenueCents,
+    long cogsCents) {
+  public long grossMarginCents() {
+    return this.revenueCents - this.cogsCents;
+  }
+}
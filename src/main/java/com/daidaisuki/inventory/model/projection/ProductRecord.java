@@ -0,0 +1,13 @@
+package com.daidaisuki.inventory.model.projection;
+
+public record ProductRecord(
+    int id,
+    String sku,
+    String barcode,
+    String name,
+    String category,
+    int currentStock,
+    long sellingPriceCents,
+    long averageUnitCostCents,
+    boolean isActive,
+    boolean isDeleted) {}
@@ -0,0 +1,18 @@
+package com.daidaisuki.inventory.model.projection;
+
+/** Execution statistics for one SQL statement; percentiles are histogram bucket upper bounds. */
+public record StatementMetrics(
+    String sql,
+    long calls,
+    long errors,
+    long totalNanos,
+    long maxNanos,
+    long p50Nanos,
+    long p95Nanos,
+    long p99Nanos,
+    long rowsReturned,
+    long rowsAffected) {
+  public long averageNanos() {
+    return this.calls == 0 ? 0 : this.totalNanos / this.calls;
+  }
+}
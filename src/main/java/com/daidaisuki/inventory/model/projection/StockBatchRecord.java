@@ -0,0 +1,19 @@
+package com.daidaisuki.inventory.model.projection;
+
+import com.daidaisuki.inventory.util.TimestampUtil;
+import java.time.OffsetDateTime;
+
+public record StockBatchRecord(
+    int id,
+    int productId,
+    int supplierId,
+    int quantityReceived,
+    int quantityRemaining,
+    long unitCostCents,
+    long landedCostCents,
+    long createdAtMillis) {
+  // Decoded on demand, so scans that never look at the timestamp never build one
+  public OffsetDateTime createdAt() {
+    return TimestampUtil.toOffsetDateTime(this.createdAtMillis);
+  }
+}
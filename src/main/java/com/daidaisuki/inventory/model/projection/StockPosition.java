@@ -0,0 +1,6 @@
+package com.daidaisuki.inventory.model.projection;
+
+import java.time.LocalDate;
+
+/** A product's stock on hand and its cost value at the close of a UTC day. */
+public record StockPosition(int productId, LocalDate asOf, int quantity, long valueCents) {}
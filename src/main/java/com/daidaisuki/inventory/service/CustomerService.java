@@ -6,14 +6,15 @@ import com.daidaisuki.inventory.exception.EntityNotFoundException;
 import com.daidaisuki.inventory.model.Customer;
 import java.sql.Connection;
 import java.util.List;
+import javax.sql.DataSource;
 
 public class CustomerService {
   private final TransactionManager transactionManager;
   private final CustomerDAO customerDAO;
 
-  public CustomerService(Connection connection) {
+  public CustomerService(Connection connection, DataSource readerDataSource) {
     this.transactionManager = new TransactionManager(connection);
-    this.customerDAO = new CustomerDAO(connection);
+    this.customerDAO = new CustomerDAO(connection, readerDataSource);
   }
 
   public List<Customer> listCustomers() {
@@ -32,6 +33,11 @@ public class CustomerService {
     transactionManager.executeInTransaction(() -> customerDAO.delete(customerId));
   }
 
+  /** Rebuilds the order totals shown for every customer, e.g. after editing orders by hand. */
+  public int rebuildCustomerSummaries() {
+    return transactionManager.executeInTransaction(() -> customerDAO.rebuildSummaries());
+  }
+
   public Customer getCustomer(int customerId) {
     return customerDAO
         .findById(customerId)
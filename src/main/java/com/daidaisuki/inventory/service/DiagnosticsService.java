@@ -0,0 +1,43 @@
+package com.daidaisuki.inventory.service;
+
+import com.daidaisuki.inventory.db.QueryMetrics;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.model.dto.DiagnosticsSnapshot;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/** Read-only view of the SQL statement metrics and the writer's prepared statement cache. */
+public class DiagnosticsService {
+  private final Connection connection;
+
+  public DiagnosticsService(Connection connection) {
+    this.connection = connection;
+  }
+
+  public DiagnosticsSnapshot getSnapshot() {
+    StatementCache cache = StatementCache.forConnection(this.connection);
+    return new DiagnosticsSnapshot(
+        QueryMetrics.snapshot(),
+        cache.getHitCount(),
+        cache.getMissCount(),
+        cache.getEvictionCount(),
+        cache.size(),
+        QueryMetrics.getSlowQueryThresholdMillis(),
+        OffsetDateTime.now(ZoneOffset.UTC));
+  }
+
+  public void resetStatementMetrics() {
+    QueryMetrics.reset();
+  }
+
+  public void startPeriodicDump() {
+    QueryMetrics.startPeriodicDump();
+  }
+
+  public void stopPeriodicDump() {
+    QueryMetrics.stopPeriodicDump();
+    // One last summary so a short session still leaves its numbers in the log
+    QueryMetrics.dump();
+  }
+}
@@ -0,0 +1,114 @@
+package com.daidaisuki.inventory.service;
+
+import com.daidaisuki.inventory.dao.impl.InventoryTransactionDAO;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.model.projection.InventoryTransactionRecord;
+import com.daidaisuki.inventory.model.projection.ProductRecord;
+import com.daidaisuki.inventory.util.CurrencyUtil;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.time.OffsetDateTime;
+import javax.sql.DataSource;
+
+public class ExportService {
+  private static final String LEDGER_HEADER =
+      "id,product_id,batch_id,user_id,reference_id,change_amount,transaction_type,reason_code,"
+          + "created_at";
+  private static final String CATALOG_HEADER =
+      "id,sku,barcode,name,category,current_stock,selling_price,average_unit_cost";
+
+  private final ProductDAO productDAO;
+  private final InventoryTransactionDAO inventoryTransactionDAO;
+
+  public ExportService(Connection connection, DataSource readerDataSource) {
+    this.productDAO = new ProductDAO(connection, readerDataSource);
+    this.inventoryTransactionDAO = new InventoryTransactionDAO(connection, readerDataSource);
+  }
+
+  public long exportProductCatalog(Writer writer) throws IOException {
+    writeLine(writer, CATALOG_HEADER);
+    try {
+      return this.productDAO.streamAllActiveRecords(
+          product -> writeRow(writer, catalogRow(product)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  public long exportTransactionLedger(Writer writer) throws IOException {
+    writeLine(writer, LEDGER_HEADER);
+    try {
+      return this.inventoryTransactionDAO.streamAll(
+          transaction -> writeRow(writer, ledgerRow(transaction)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  public long exportTransactionLedger(Writer writer, OffsetDateTime start, OffsetDateTime end)
+      throws IOException {
+    writeLine(writer, LEDGER_HEADER);
+    try {
+      return this.inventoryTransactionDAO.streamAllByDateRange(
+          start, end, transaction -> writeRow(writer, ledgerRow(transaction)));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static String catalogRow(ProductRecord product) {
+    return String.join(
+        ",",
+        String.valueOf(product.id()),
+        escapeCsv(product.sku()),
+        escapeCsv(product.barcode()),
+        escapeCsv(product.name()),
+        escapeCsv(product.category()),
+        String.valueOf(product.currentStock()),
+        CurrencyUtil.toPlainString(product.sellingPriceCents()),
+        CurrencyUtil.toPlainString(product.averageUnitCostCents()));
+  }
+
+  private static String ledgerRow(InventoryTransactionRecord transaction) {
+    return String.join(
+        ",",
+        String.valueOf(transaction.id()),
+        String.valueOf(transaction.productId()),
+        String.valueOf(transaction.batchId()),
+        String.valueOf(transaction.userId()),
+        String.valueOf(transaction.referenceId()),
+        String.valueOf(transaction.changeAmount()),
+        transaction.transactionType().name(),
+        escapeCsv(transaction.reasonCode()),
+        escapeCsv(String.valueOf(transaction.createdAt())));
+  }
+
+  // Wraps IOException so the row can be written from inside a streaming callback
+  private static void writeRow(Writer writer, String row) {
+    try {
+      writeLine(writer, row);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeLine(Writer writer, String line) throws IOException {
+    writer.write(line);
+    writer.write(System.lineSeparator());
+  }
+
+  private static String escapeCsv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.contains(",")
+        || value.contains("\"")
+        || value.contains("\n")
+        || value.contains("\r")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+}
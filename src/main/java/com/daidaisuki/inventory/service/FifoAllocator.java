@@ -0,0 +1,35 @@
+package com.daidaisuki.inventory.service;
+
+import com.daidaisuki.inventory.model.dto.StockAllocation;
+import com.daidaisuki.inventory.model.projection.StockBatchRecord;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a requested quantity across stock batches in first-in, first-out order.
+ *
+ * <p>The batches must already be sorted oldest first. The split is computed in a single pass and
+ * does not touch the database, so the caller can apply all batch updates in one round trip.
+ */
+final class FifoAllocator {
+  private FifoAllocator() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  static List<StockAllocation> allocate(List<StockBatchRecord> batches, int quantity) {
+    List<StockAllocation> allocations = new ArrayList<>();
+    int remainingAmount = quantity;
+    for (StockBatchRecord batch : batches) {
+      if (remainingAmount <= 0) {
+        break;
+      }
+      int takeAmount = Math.min(batch.quantityRemaining(), remainingAmount);
+      if (takeAmount <= 0) {
+        continue;
+      }
+      allocations.add(new StockAllocation(batch.id(), takeAmount, batch.unitCostCents()));
+      remainingAmount -= takeAmount;
+    }
+    return allocations;
+  }
+}
@@ -11,16 +11,23 @@ import com.daidaisuki.inventory.exception.InsufficientStockException;
 import com.daidaisuki.inventory.model.InventoryTransaction;
 import com.daidaisuki.inventory.model.Product;
 import com.daidaisuki.inventory.model.StockBatch;
+import com.daidaisuki.inventory.model.dto.BulkReceiveResult;
 import com.daidaisuki.inventory.model.dto.StockAdjustRequest;
 import com.daidaisuki.inventory.model.dto.StockAllocation;
 import com.daidaisuki.inventory.model.dto.StockDeductRequest;
+import com.daidaisuki.inventory.model.dto.StockReceiveFailure;
 import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
 import com.daidaisuki.inventory.model.dto.StockReturnRequest;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import com.daidaisuki.inventory.model.projection.StockBatchRecord;
+import com.daidaisuki.inventory.util.CurrencyUtil;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
 
 public class InventoryService {
   private final TransactionManager transactionManager;
@@ -32,19 +39,18 @@ public class InventoryService {
   private static final int SYSTEM_REFERENCE_ID = 0;
   private static final int SYSTEM_SUPPLIER_ID = 0;
 
-  public InventoryService(Connection connection) {
+  public InventoryService(Connection connection, DataSource readerDataSource) {
     this.transactionManager = new TransactionManager(connection);
-    this.productDAO = new ProductDAO(connection);
-    this.stockBatchDAO = new StockBatchDAO(connection);
-    this.inventoryTransactionDAO = new InventoryTransactionDAO(connection);
+    this.productDAO = new ProductDAO(connection, readerDataSource);
+    this.stockBatchDAO = new StockBatchDAO(connection, readerDataSource);
+    this.inventoryTransactionDAO = new InventoryTransactionDAO(connection, readerDataSource);
   }
 
   public void stockAdjust(StockAdjustRequest adjustRequest, int userId) {
     transactionManager.executeInTransaction(
         () -> {
           if (adjustRequest.changeAmount() > 0) {
-            if (adjustRequest.unitCost() == null
-                || adjustRequest.unitCost().compareTo(BigDecimal.ZERO) == 0) {
+            if (adjustRequest.unitCostCents() == 0) {
               this.applyStockChange(adjustRequest.productId(), adjustRequest.changeAmount());
             } else {
               StockReceiveRequest receiveRequest =
@@ -53,7 +59,7 @@ public class InventoryService {
                       SYSTEM_SUPPLIER_ID,
                       null,
                       adjustRequest.changeAmount(),
-                      BigDecimal.ZERO,
+                      0L,
                       null,
                       adjustRequest.reason());
               this.receiveNewStockInternal(receiveRequest, userId);
@@ -86,22 +92,16 @@ public class InventoryService {
         this.productDAO
             .findById(request.productId())
             .orElseThrow(() -> new EntityNotFoundException("The product could not be found."));
-    int currentStock = product.getCurrentStock();
-    BigDecimal currentAverageUnitCost = product.getAverageUnitCost();
     int incomingQuantity = request.quantity();
-    BigDecimal incomingUnitCost = request.unitCost();
-    BigDecimal totalValue =
-        currentAverageUnitCost
-            .multiply(BigDecimal.valueOf(currentStock))
-            .add(incomingUnitCost.multiply(BigDecimal.valueOf(incomingQuantity)));
-    int totalQuantity = currentStock + incomingQuantity;
-    BigDecimal newAverageUnitCost =
-        totalQuantity > 0
-            ? totalValue.divide(BigDecimal.valueOf(totalQuantity), 4, RoundingMode.HALF_UP)
-            : BigDecimal.ZERO;
+    long newAverageUnitCostCents =
+        this.weightedAverageCostCents(
+            product.getAverageUnitCostCents(),
+            product.getCurrentStock(),
+            Math.multiplyExact(request.unitCostCents(), incomingQuantity),
+            incomingQuantity);
     boolean success =
         this.productDAO.updateStockTotalAndCost(
-            request.productId(), incomingQuantity, newAverageUnitCost);
+            request.productId(), incomingQuantity, newAverageUnitCostCents);
     if (!success) {
       throw new DataAccessException("Stock update failed.");
     }
@@ -112,7 +112,7 @@ public class InventoryService {
             request.batchCode(),
             request.expiryDate(),
             request.quantity(),
-            request.unitCost());
+            request.unitCostCents());
 
     StockBatch savedBatch = this.stockBatchDAO.save(newBatch);
 
@@ -126,10 +126,141 @@ public class InventoryService {
         request.reason());
   }
 
+  // Invalid lines are reported back instead of rolling back the rest of the shipment
+  public BulkReceiveResult receiveNewStockBulk(List<StockReceiveRequest> requests, int userId) {
+    return transactionManager.executeInTransaction(
+        () -> receiveNewStockBulkInternal(requests, userId));
+  }
+
+  private BulkReceiveResult receiveNewStockBulkInternal(
+      List<StockReceiveRequest> requests, int userId) {
+    List<StockReceiveFailure> failures = new ArrayList<>();
+    Map<Integer, List<Integer>> lineIndexesByProduct = new LinkedHashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      StockReceiveRequest request = requests.get(i);
+      String problem = validateReceiveLine(request);
+      if (problem != null) {
+        failures.add(new StockReceiveFailure(i, request, problem));
+        continue;
+      }
+      lineIndexesByProduct.computeIfAbsent(request.productId(), id -> new ArrayList<>()).add(i);
+    }
+    Map<Integer, Product> products = new HashMap<>();
+    for (Product product :
+        this.productDAO.findAllByIds(new ArrayList<>(lineIndexesByProduct.keySet()))) {
+      products.put(product.getId(), product);
+    }
+    List<StockReceiveRequest> acceptedLines = new ArrayList<>();
+    List<StockBatch> newBatches = new ArrayList<>();
+    for (Map.Entry<Integer, List<Integer>> entry : lineIndexesByProduct.entrySet()) {
+      Product product = products.get(entry.getKey());
+      List<Integer> lineIndexes = entry.getValue();
+      if (product == null || product.isDeleted()) {
+        for (int index : lineIndexes) {
+          failures.add(
+              new StockReceiveFailure(
+                  index, requests.get(index), "The product could not be found."));
+        }
+        continue;
+      }
+      int incomingQuantity = 0;
+      long incomingValueCents = 0L;
+      for (int index : lineIndexes) {
+        StockReceiveRequest request = requests.get(index);
+        incomingQuantity += request.quantity();
+        incomingValueCents =
+            Math.addExact(
+                incomingValueCents,
+                Math.multiplyExact(request.unitCostCents(), request.quantity()));
+      }
+      long newAverageUnitCostCents =
+          this.weightedAverageCostCents(
+              product.getAverageUnitCostCents(),
+              product.getCurrentStock(),
+              incomingValueCents,
+              incomingQuantity);
+      boolean success =
+          this.productDAO.updateStockTotalAndCost(
+              product.getId(), incomingQuantity, newAverageUnitCostCents);
+      if (!success) {
+        throw new DataAccessException("Stock update failed.");
+      }
+      for (int index : lineIndexes) {
+        StockReceiveRequest request = requests.get(index);
+        acceptedLines.add(request);
+        newBatches.add(
+            StockBatch.createNew(
+                request.productId(),
+                request.supplierId(),
+                request.batchCode(),
+                request.expiryDate(),
+                request.quantity(),
+                request.unitCostCents()));
+      }
+    }
+    List<StockBatch> savedBatches = this.stockBatchDAO.saveAll(newBatches);
+    List<InventoryTransaction> ledgerEntries = new ArrayList<>(savedBatches.size());
+    for (int i = 0; i < savedBatches.size(); i++) {
+      StockBatch savedBatch = savedBatches.get(i);
+      ledgerEntries.add(
+          this.newTransaction(
+              savedBatch.getProductId(),
+              savedBatch.getId(),
+              userId,
+              SYSTEM_REFERENCE_ID,
+              savedBatch.getQuantityReceived(),
+              TransactionType.STOCK_IN,
+              acceptedLines.get(i).reason()));
+    }
+    this.inventoryTransactionDAO.saveAll(ledgerEntries);
+    failures.sort(Comparator.comparingInt(StockReceiveFailure::lineIndex));
+    return new BulkReceiveResult(savedBatches.size(), failures);
+  }
+
+  private String validateReceiveLine(StockReceiveRequest request) {
+    if (request == null) {
+      return "The receive line is empty.";
+    }
+    if (request.quantity() <= 0) {
+      return "Quantity must be greater than zero.";
+    }
+    if (request.unitCostCents() < 0) {
+      return "Unit cost must not be negative.";
+    }
+    return null;
+  }
+
+  // Rounded to four decimal places first and then to whole cents, both HALF_UP
+  private long weightedAverageCostCents(
+      long currentAverageUnitCostCents,
+      int currentStock,
+      long incomingValueCents,
+      int incomingQuantity) {
+    int totalQuantity = currentStock + incomingQuantity;
+    if (totalQuantity <= 0) {
+      return 0L;
+    }
+    long totalValueCents =
+        Math.addExact(
+            Math.multiplyExact(currentAverageUnitCostCents, currentStock), incomingValueCents);
+    long averageHundredthsOfCent =
+        CurrencyUtil.divideHalfUp(Math.multiplyExact(totalValueCents, 100), totalQuantity);
+    return CurrencyUtil.divideHalfUp(averageHundredthsOfCent, 100);
+  }
+
   public List<InventoryTransaction> getTransactionHistory(int productId) {
     return this.inventoryTransactionDAO.findAllByProductId(productId);
   }
 
+  public List<InventoryTransaction> getTransactionHistoryPage(
+      int productId, InventoryTransaction lastTransaction, int pageSize) {
+    if (lastTransaction == null) {
+      return this.inventoryTransactionDAO.findPageByProductId(productId, null, 0, pageSize);
+    }
+    return this.inventoryTransactionDAO.findPageByProductId(
+        productId, lastTransaction.getCreatedAt(), lastTransaction.getId(), pageSize);
+  }
+
   public void processReturn(StockReturnRequest returnRequest, int userId) {
     transactionManager.executeInTransaction(
         () -> {
@@ -154,29 +285,23 @@ public class InventoryService {
   private List<StockAllocation> deductFromInventoryInternal(
       StockDeductRequest request, int userId) {
     this.applyStockChange(request.productId(), -request.quantity());
-    List<StockAllocation> allocations = new ArrayList<>();
-    List<StockBatch> batches = this.stockBatchDAO.findAllAvailableByProductId(request.productId());
-    int remainingAmount = request.quantity();
-    for (StockBatch batch : batches) {
-      if (remainingAmount <= 0) {
-        break;
-      }
-      int takeAmount = Math.min(batch.getQuantityRemaining(), remainingAmount);
-      boolean success = this.stockBatchDAO.updateStockTotal(batch.getId(), -takeAmount);
-      if (!success) {
-        throw new DataAccessException("Concurrent inventory change detected. Please retry.");
-      }
-      this.logTransaction(
-          request.productId(),
-          batch.getId(),
-          userId,
-          SYSTEM_REFERENCE_ID,
-          -takeAmount,
-          request.type(),
-          request.reason());
-      allocations.add(new StockAllocation(batch.getId(), takeAmount, batch.getUnitCost()));
-      remainingAmount -= takeAmount;
+    List<StockBatchRecord> batches =
+        this.stockBatchDAO.findFifoBatchesCovering(request.productId(), request.quantity());
+    List<StockAllocation> allocations = FifoAllocator.allocate(batches, request.quantity());
+    this.stockBatchDAO.applyDeductions(allocations);
+    List<InventoryTransaction> ledgerEntries = new ArrayList<>(allocations.size());
+    for (StockAllocation allocation : allocations) {
+      ledgerEntries.add(
+          this.newTransaction(
+              request.productId(),
+              allocation.batchId(),
+              userId,
+              SYSTEM_REFERENCE_ID,
+              -allocation.quantity(),
+              request.type(),
+              request.reason()));
     }
+    this.inventoryTransactionDAO.saveAll(ledgerEntries);
     return allocations;
   }
 
@@ -204,9 +329,19 @@ public class InventoryService {
       int quantity,
       TransactionType type,
       String reason) {
-    InventoryTransaction transaction =
-        new InventoryTransaction(
-            -1, productId, batchId, userId, referenceId, quantity, type, reason, null, null, false);
-    this.inventoryTransactionDAO.save(transaction);
+    this.inventoryTransactionDAO.save(
+        this.newTransaction(productId, batchId, userId, referenceId, quantity, type, reason));
+  }
+
+  private InventoryTransaction newTransaction(
+      int productId,
+      int batchId,
+      int userId,
+      int referenceId,
+      int quantity,
+      TransactionType type,
+      String reason) {
+    return new InventoryTransaction(
+        -1, productId, batchId, userId, referenceId, quantity, type, reason, null, null, false);
   }
 }
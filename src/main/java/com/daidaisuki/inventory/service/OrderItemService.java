@@ -5,15 +5,19 @@ import com.daidaisuki.inventory.db.TransactionManager;
 import com.daidaisuki.inventory.model.OrderItem;
 import com.daidaisuki.inventory.model.dto.StockAllocation;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
 
 public class OrderItemService {
   private final TransactionManager transactionManager;
   private final OrderItemDAO orderItemDAO;
 
-  public OrderItemService(Connection connection) {
+  public OrderItemService(Connection connection, DataSource readerDataSource) {
     this.transactionManager = new TransactionManager(connection);
-    this.orderItemDAO = new OrderItemDAO(connection);
+    this.orderItemDAO = new OrderItemDAO(connection, readerDataSource);
   }
 
   public OrderItem createItem(OrderItem uiItem, int persistentOrderId, StockAllocation allocation) {
@@ -32,13 +36,20 @@ public class OrderItemService {
     return orderItemDAO.findAllByOrderId(orderId);
   }
 
+  public Map<Integer, List<OrderItem>> listByOrderIds(List<Integer> orderIds) {
+    if (orderIds.isEmpty()) {
+      return Map.of();
+    }
+    return orderItemDAO.findAllByOrderIds(orderIds).stream()
+        .collect(Collectors.groupingBy(OrderItem::getOrderId));
+  }
+
   public void removeAllByOrderId(int orderId) {
     transactionManager.executeInTransaction(() -> removeAllByOrderIdInternal(orderId));
   }
 
   OrderItem createItemInternal(
       OrderItem uiItem, int persistentOrderId, StockAllocation allocation) {
-    // Need to update this later
     OrderItem itemToPersist =
         new OrderItem(
             persistentOrderId,
@@ -46,10 +57,26 @@ public class OrderItemService {
             allocation.batchId(),
             allocation.quantity(),
             uiItem.getUnitPriceAtSaleCents(),
-            0);
+            allocation.unitCostCents());
     return orderItemDAO.save(itemToPersist);
   }
 
+  List<OrderItem> createItemsInternal(
+      OrderItem uiItem, int persistentOrderId, List<StockAllocation> allocations) {
+    List<OrderItem> itemsToPersist = new ArrayList<>(allocations.size());
+    for (StockAllocation allocation : allocations) {
+      itemsToPersist.add(
+          new OrderItem(
+              persistentOrderId,
+              uiItem.getProductId(),
+              allocation.batchId(),
+              allocation.quantity(),
+              uiItem.getUnitPriceAtSaleCents(),
+              allocation.unitCostCents()));
+    }
+    return orderItemDAO.saveAll(itemsToPersist);
+  }
+
   void removeAllByOrderIdInternal(int orderId) {
     orderItemDAO.deleteAllByOrderId(orderId);
   }
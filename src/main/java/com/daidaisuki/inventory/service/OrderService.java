@@ -8,6 +8,8 @@ import com.daidaisuki.inventory.model.Order;
 import com.daidaisuki.inventory.model.OrderItem;
 import java.sql.Connection;
 import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
 
 public class OrderService {
   private final TransactionManager transactionManager;
@@ -15,18 +17,19 @@ public class OrderService {
   // private final InventoryService inventoryService;
   private final OrderItemService orderItemService;
 
-  public OrderService(Connection connection) {
+  public OrderService(Connection connection, DataSource readerDataSource) {
     transactionManager = new TransactionManager(connection);
-    this.orderDAO = new OrderDAO(connection);
-    // this.inventoryService = new InventoryService(connection);
-    this.orderItemService = new OrderItemService(connection);
+    this.orderDAO = new OrderDAO(connection, readerDataSource);
+    // this.inventoryService = new InventoryService(connection, readerDataSource);
+    this.orderItemService = new OrderItemService(connection, readerDataSource);
   }
 
   public List<Order> listOrdersWithDetails() {
     List<Order> orders = orderDAO.findAll();
+    List<Integer> orderIds = orders.stream().map(Order::getId).toList();
+    Map<Integer, List<OrderItem>> itemsByOrderId = orderItemService.listByOrderIds(orderIds);
     for (Order order : orders) {
-      List<OrderItem> items = orderItemService.listByOrderId(order.getId());
-      order.setItems(items);
+      order.setItems(itemsByOrderId.getOrDefault(order.getId(), List.of()));
       order.updateTotals();
     }
     return orders;
@@ -89,9 +92,9 @@ public class OrderService {
       List<StockAllocation> allocations =
           inventoryService.deductFromInventoryInternal(uiItem.getProductId(), uiItem.getQuantity());
 
-      for (StockAllocation allocation : allocations) {
-        OrderItem savedItem =
-            orderItemService.createItemInternal(uiItem, uiOrder.getId(), allocation);
+      List<OrderItem> savedItems =
+          orderItemService.createItemsInternal(uiItem, uiOrder.getId(), allocations);
+      for (OrderItem savedItem : savedItems) {
         savedItem.setProduct(uiItem.getProduct());
         persistentItems.add(savedItem);
       }
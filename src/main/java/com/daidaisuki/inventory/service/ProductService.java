@@ -5,22 +5,38 @@ import com.daidaisuki.inventory.db.TransactionManager;
 import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.Product;
 import java.sql.Connection;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import javax.sql.DataSource;
 
 public class ProductService {
   private final TransactionManager transactionManager;
   private final ProductDAO productDAO;
 
-  public ProductService(Connection connection) {
+  public ProductService(Connection connection, DataSource readerDataSource) {
     this.transactionManager = new TransactionManager(connection);
-    this.productDAO = new ProductDAO(connection);
+    this.productDAO = new ProductDAO(connection, readerDataSource);
   }
 
   public List<Product> listProducts() {
     return this.productDAO.findAll();
   }
 
+  public List<Product> listProductsAfter(
+      String filterText, boolean archived, Product lastProduct, int pageSize) {
+    if (lastProduct == null) {
+      return this.productDAO.findPageAfter(filterText, archived, null, 0, pageSize);
+    }
+    return this.productDAO.findPageAfter(
+        filterText, archived, lastProduct.getName(), lastProduct.getId(), pageSize);
+  }
+
+  public List<Product> listProductsChangedSince(OffsetDateTime since) {
+    return this.productDAO.findAllUpdatedSince(since);
+  }
+
   public void createProduct(Product product) {
     if (this.productDAO.existsBySku(product.getSku())) {
       throw new IllegalArgumentException("A product with this sku already exists.");
@@ -53,6 +69,10 @@ public class ProductService {
     transactionManager.executeInTransaction(() -> this.productDAO.remove(productId));
   }
 
+  public Optional<Product> findByBarcode(String barcode) {
+    return this.productDAO.findByBarcode(barcode);
+  }
+
   public Product getProduct(int productId) {
     return this.productDAO
         .findById(productId)
@@ -0,0 +1,88 @@
+package com.daidaisuki.inventory.service;
+
+import com.daidaisuki.inventory.dao.impl.SalesRollupDAO;
+import com.daidaisuki.inventory.dao.impl.StockBatchDAO;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.enums.PeriodGrain;
+import com.daidaisuki.inventory.enums.SalesDimension;
+import com.daidaisuki.inventory.model.dto.ValuationReport;
+import com.daidaisuki.inventory.model.projection.CategoryValuation;
+import com.daidaisuki.inventory.model.projection.MarginRow;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+
+public class ReportService {
+  public static final String TOTAL_LABEL = "Total";
+
+  private final TransactionManager transactionManager;
+  private final StockBatchDAO stockBatchDAO;
+  private final SalesRollupDAO salesRollupDAO;
+
+  public ReportService(Connection connection, DataSource readerDataSource) {
+    this.transactionManager = new TransactionManager(connection);
+    this.stockBatchDAO = new StockBatchDAO(connection, readerDataSource);
+    this.salesRollupDAO = new SalesRollupDAO(connection, readerDataSource);
+  }
+
+  public ValuationReport getInventoryValuation() {
+    long start = System.nanoTime();
+    List<CategoryValuation> categories = this.stockBatchDAO.findValuationByCategory();
+    int productCount = 0;
+    int batchCount = 0;
+    long quantity = 0;
+    long fifoValueCents = 0;
+    long averageCostValueCents = 0;
+    // Categories never share a product, so their counts add up
+    for (CategoryValuation category : categories) {
+      productCount += category.productCount();
+      batchCount += category.batchCount();
+      quantity += category.quantity();
+      fifoValueCents += category.fifoValueCents();
+      averageCostValueCents += category.averageCostValueCents();
+    }
+    CategoryValuation total =
+        new CategoryValuation(
+            TOTAL_LABEL, productCount, batchCount, quantity, fifoValueCents, averageCostValueCents);
+    return new ValuationReport(
+        categories,
+        total,
+        OffsetDateTime.now(ZoneOffset.UTC),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Revenue, cost of goods sold and gross margin per period for every period touching {@code
+   * [from, to]}, broken down by the given dimension.
+   *
+   * <p>Closed periods are aggregated once and served from the rollup cache afterwards; only the
+   * current period, which can still change, is summed from the order lines on every call.
+   */
+  public List<MarginRow> getMarginReport(
+      PeriodGrain grain, SalesDimension dimension, LocalDate from, LocalDate to) {
+    LocalDate firstPeriod = grain.startOf(from);
+    LocalDate until = grain.next(grain.startOf(to));
+    LocalDate openFrom = grain.startOf(LocalDate.now(ZoneOffset.UTC));
+    this.cacheClosedPeriods(grain, firstPeriod, openFrom.isBefore(until) ? openFrom : until);
+    // Any period invalidated since is summed live by the same read, so nothing goes missing
+    return this.salesRollupDAO.findMargins(grain, dimension, firstPeriod, until);
+  }
+
+  // One transaction per period, like the stock snapshots, so a long range never holds the writer
+  private void cacheClosedPeriods(PeriodGrain grain, LocalDate from, LocalDate until) {
+    Set<LocalDate> cached = this.salesRollupDAO.findCachedPeriods(grain, from, until);
+    for (LocalDate period = from; period.isBefore(until); period = grain.next(period)) {
+      if (!cached.contains(period)) {
+        LocalDate closedPeriod = period;
+        transactionManager.executeInTransaction(
+            () -> {
+              salesRollupDAO.cachePeriod(grain, closedPeriod);
+            });
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.daidaisuki.inventory.service;
+
+import com.daidaisuki.inventory.dao.impl.StockSnapshotDAO;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.model.projection.StockPosition;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps daily stock snapshots up to date and answers "stock as of date" from them.
+ *
+ * <p>Only closed UTC days are captured. The background job runs at startup and then hourly, so
+ * the previous day is snapshotted soon after midnight and missed days are caught up on the next
+ * run.
+ */
+public class StockSnapshotService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(StockSnapshotService.class);
+  private static final long CAPTURE_INTERVAL_MINUTES = 60;
+
+  private final TransactionManager transactionManager;
+  private final StockSnapshotDAO stockSnapshotDAO;
+  private ScheduledExecutorService scheduler;
+
+  public StockSnapshotService(Connection connection, DataSource readerDataSource) {
+    this.transactionManager = new TransactionManager(connection);
+    this.stockSnapshotDAO = new StockSnapshotDAO(connection, readerDataSource);
+  }
+
+  /** Snapshots every closed day with movements since the latest snapshot; returns rows written. */
+  public synchronized int captureClosedDays() {
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    LocalDate from =
+        this.stockSnapshotDAO.findLatestSnapshotDate().map(day -> day.plusDays(1)).orElse(null);
+    int written = 0;
+    // One transaction per day, so a long first run never holds the writer for the whole history
+    for (LocalDate day : this.stockSnapshotDAO.findDaysWithMovements(from, today)) {
+      written += transactionManager.executeInTransaction(() -> stockSnapshotDAO.captureDay(day));
+    }
+    return written;
+  }
+
+  /** Discards every snapshot and captures them again from the full ledger. */
+  public synchronized int rebuildSnapshots() {
+    return transactionManager.executeInTransaction(
+        () -> {
+          stockSnapshotDAO.deleteAll();
+          return captureClosedDays();
+        });
+  }
+
+  /** Every product with stock on hand at the close of the given UTC day. */
+  public List<StockPosition> getStockAsOf(LocalDate date) {
+    return this.stockSnapshotDAO.findPositionsAsOf(date);
+  }
+
+  public StockPosition getProductStockAsOf(int productId, LocalDate date) {
+    return this.stockSnapshotDAO
+        .findPositionAsOf(productId, date)
+        .orElse(new StockPosition(productId, date, 0, 0));
+  }
+
+  public synchronized void startScheduledCapture() {
+    if (this.scheduler != null) {
+      return;
+    }
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stock-snapshots");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.scheduler.scheduleWithFixedDelay(
+        this::captureQuietly, 0, CAPTURE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+  }
+
+  public synchronized void stopScheduledCapture() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+    }
+  }
+
+  // A failed run must not cancel the schedule; the next run picks up the same days
+  private void captureQuietly() {
+    try {
+      int written = this.captureClosedDays();
+      if (written > 0) {
+        LOGGER.info("Captured {} stock snapshot rows", written);
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Stock snapshot capture failed", e);
+    }
+  }
+}
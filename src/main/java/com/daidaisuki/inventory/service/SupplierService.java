@@ -5,14 +5,15 @@ import com.daidaisuki.inventory.db.TransactionManager;
 import com.daidaisuki.inventory.model.Supplier;
 import java.sql.Connection;
 import java.util.List;
+import javax.sql.DataSource;
 
 public class SupplierService {
   private final TransactionManager transactionManager;
   private final SupplierDAO supplierDAO;
 
-  public SupplierService(Connection connection) {
+  public SupplierService(Connection connection, DataSource readerDataSource) {
     this.transactionManager = new TransactionManager(connection);
-    this.supplierDAO = new SupplierDAO(connection);
+    this.supplierDAO = new SupplierDAO(connection, readerDataSource);
   }
 
   public List<Supplier> listAll() {
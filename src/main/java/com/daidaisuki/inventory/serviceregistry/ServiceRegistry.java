@@ -1,38 +1,77 @@
 package com.daidaisuki.inventory.serviceregistry;
 
+import com.daidaisuki.inventory.service.DiagnosticsService;
+import com.daidaisuki.inventory.service.ExportService;
 import com.daidaisuki.inventory.service.InventoryService;
 import com.daidaisuki.inventory.service.ProductService;
+import com.daidaisuki.inventory.service.ReportService;
+import com.daidaisuki.inventory.service.StockSnapshotService;
 import com.daidaisuki.inventory.service.SupplierService;
 import java.sql.Connection;
+import javax.sql.DataSource;
 
 public class ServiceRegistry {
   private final Connection connection;
+  private final DataSource readerDataSource;
   private ProductService productService;
   private InventoryService inventoryService;
   private SupplierService supplierService;
+  private ExportService exportService;
+  private StockSnapshotService stockSnapshotService;
+  private ReportService reportService;
+  private DiagnosticsService diagnosticsService;
 
-  public ServiceRegistry(Connection connection) {
+  public ServiceRegistry(Connection connection, DataSource readerDataSource) {
     this.connection = connection;
+    this.readerDataSource = readerDataSource;
   }
 
   public ProductService getProductService() {
     if (productService == null) {
-      this.productService = new ProductService(connection);
+      this.productService = new ProductService(connection, readerDataSource);
     }
     return this.productService;
   }
 
   public InventoryService getInventoryService() {
     if (inventoryService == null) {
-      this.inventoryService = new InventoryService(connection);
+      this.inventoryService = new InventoryService(connection, readerDataSource);
     }
     return this.inventoryService;
   }
 
   public SupplierService getSupplierService() {
     if(supplierService == null) {
-        this.supplierService = new SupplierService(connection);
+        this.supplierService = new SupplierService(connection, readerDataSource);
     }
     return this.supplierService;
   }
+
+  public ExportService getExportService() {
+    if (exportService == null) {
+      this.exportService = new ExportService(connection, readerDataSource);
+    }
+    return this.exportService;
+  }
+
+  public StockSnapshotService getStockSnapshotService() {
+    if (stockSnapshotService == null) {
+      this.stockSnapshotService = new StockSnapshotService(connection, readerDataSource);
+    }
+    return this.stockSnapshotService;
+  }
+
+  public ReportService getReportService() {
+    if (reportService == null) {
+      this.reportService = new ReportService(connection, readerDataSource);
+    }
+    return this.reportService;
+  }
+
+  public DiagnosticsService getDiagnosticsService() {
+    if (diagnosticsService == null) {
+      this.diagnosticsService = new DiagnosticsService(connection);
+    }
+    return this.diagnosticsService;
+  }
 }
@@ -5,6 +5,10 @@ import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.util.Locale;
 
+/**
+ * Money helpers. Amounts are carried as {@code long} cents everywhere below the UI, and only
+ * become a {@link BigDecimal} when they are parsed from or formatted for the user.
+ */
 public final class CurrencyUtil {
   private static final NumberFormat CURRENCY_FORMATTER =
       NumberFormat.getCurrencyInstance(Locale.US);
@@ -23,6 +27,17 @@ public final class CurrencyUtil {
         : CURRENCY_FORMATTER.format(amount);
   }
 
+  public static String formatCents(long cents) {
+    return CURRENCY_FORMATTER.format(longToBigDecimal(cents));
+  }
+
+  /** The amount as a plain decimal with two places, e.g. {@code -0.05}, for exports. */
+  public static String toPlainString(long cents) {
+    long units = Math.abs(cents / 100);
+    int fraction = (int) Math.abs(cents % 100);
+    return (cents < 0 ? "-" : "") + units + (fraction < 10 ? ".0" : ".") + fraction;
+  }
+
   public static BigDecimal longToBigDecimal(long value) {
     return BigDecimal.valueOf(value).movePointLeft(2);
   }
@@ -32,4 +47,16 @@ public final class CurrencyUtil {
         ? 0L
         : value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
   }
+
+  /**
+   * Divides and rounds half away from zero, the integer equivalent of {@link RoundingMode#HALF_UP}.
+   */
+  public static long divideHalfUp(long dividend, long divisor) {
+    long quotient = dividend / divisor;
+    long remainder = dividend % divisor;
+    if (Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+      quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+    }
+    return quotient;
+  }
 }
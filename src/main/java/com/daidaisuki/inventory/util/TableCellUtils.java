@@ -1,7 +1,6 @@
 package com.daidaisuki.inventory.util;
 
 import com.daidaisuki.inventory.interfaces.Displayable;
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.function.Consumer;
 import javafx.geometry.Pos;
@@ -15,9 +14,8 @@ import javafx.util.Callback;
  * Utility class for creating reusable and styled {@link TableCell} factories for JavaFX {@link
  * javafx.scene.control.TableView} columns.
  *
- * <p>Includes formatting and alignment helpers for common cell types such as {@code String}, {@code
- * Integer}, and {@code BigDecimal}, with built-in support for center alignment and currency
- * formatting.
+ * <p>Includes formatting and alignment helpers for common cell types such as {@code String} and
+ * {@code Integer}, with built-in support for center alignment and formatting money held in cents.
  */
 public final class TableCellUtils {
   private TableCellUtils() {
@@ -79,25 +77,24 @@ public final class TableCellUtils {
 
   /**
    * Creates a {@link javafx.util.Callback} for a {@link javafx.scene.control.TableColumn} that
-   * produces center-aligned {@link javafx.scene.control.TableCell}s for {@code Number} values
-   * formatted as currency in a {@link TableColumn}.
+   * produces center-aligned {@link javafx.scene.control.TableCell}s for amounts in cents formatted
+   * as currency in a {@link TableColumn}.
    *
    * @param <T> the type of the objects contained within the TableView rows
-   * @return a cell factory for center-aligned currency-formatted {@code Number} cells
+   * @return a cell factory for center-aligned currency-formatted cents cells
    */
   public static <T>
-      Callback<TableColumn<T, BigDecimal>, TableCell<T, BigDecimal>>
-          centerAlignedCurrencyCellFactory() {
+      Callback<TableColumn<T, Number>, TableCell<T, Number>> centerAlignedCurrencyCellFactory() {
     return col ->
         new TableCell<>() {
           @Override
-          protected void updateItem(BigDecimal item, boolean empty) {
+          protected void updateItem(Number item, boolean empty) {
             super.updateItem(item, empty);
             if (empty || item == null) {
               setText(null);
               setGraphic(null);
             } else {
-              setText(CurrencyUtil.format(item));
+              setText(CurrencyUtil.formatCents(item.longValue()));
               setGraphic(null);
               setAlignment(Pos.CENTER);
             }
@@ -174,8 +171,8 @@ public final class TableCellUtils {
   }
 
   @SafeVarargs
-  public static <T> void setupCurrencyCells(TableColumn<T, BigDecimal>... cells) {
-    for (TableColumn<T, BigDecimal> cell : cells) {
+  public static <T> void setupCurrencyCells(TableColumn<T, Number>... cells) {
+    for (TableColumn<T, Number> cell : cells) {
       cell.setCellFactory(centerAlignedCurrencyCellFactory());
     }
   }
@@ -0,0 +1,58 @@
+package com.daidaisuki.inventory.util;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.Skin;
+import javafx.scene.control.TableView;
+
+public final class TableViewUtils {
+  private static final double NEAR_END_RATIO = 0.9;
+
+  private TableViewUtils() {
+    // Prevent instantiation
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Runs the action whenever the table's vertical scroll bar moves into the last tenth of its
+   * range. Used to pull the next page of a keyset-paged list on scroll.
+   */
+  public static void onScrolledNearEnd(TableView<?> table, Runnable action) {
+    if (table.getSkin() != null) {
+      attachScrollListener(table, action);
+      return;
+    }
+    // Scroll bars only exist once the skin has been created
+    ChangeListener<Skin<?>> skinListener =
+        new ChangeListener<>() {
+          @Override
+          public void changed(
+              ObservableValue<? extends Skin<?>> obs,
+              Skin<?> oldSkin,
+              Skin<?> newSkin) {
+            if (newSkin != null) {
+              table.skinProperty().removeListener(this);
+              attachScrollListener(table, action);
+            }
+          }
+        };
+    table.skinProperty().addListener(skinListener);
+  }
+
+  private static void attachScrollListener(TableView<?> table, Runnable action) {
+    for (Node node : table.lookupAll(".scroll-bar")) {
+      if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+        bar.valueProperty()
+            .addListener(
+                (obs, oldValue, newValue) -> {
+                  if (newValue.doubleValue() >= bar.getMax() * NEAR_END_RATIO) {
+                    action.run();
+                  }
+                });
+      }
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.daidaisuki.inventory.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/** Timestamps are stored as UTC epoch milliseconds; these convert at the model boundary. */
+public final class TimestampUtil {
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  private TimestampUtil() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  public static long nowMillis() {
+    return System.currentTimeMillis();
+  }
+
+  public static OffsetDateTime toOffsetDateTime(long epochMillis) {
+    return Instant.ofEpochMilli(epochMillis).atOffset(ZoneOffset.UTC);
+  }
+
+  public static long toEpochMillis(OffsetDateTime dateTime) {
+    return dateTime.toInstant().toEpochMilli();
+  }
+
+  public static Long toEpochMillisOrNull(OffsetDateTime dateTime) {
+    return dateTime == null ? null : toEpochMillis(dateTime);
+  }
+
+  /** The first millisecond of the given UTC day. */
+  public static long startOfDayMillis(LocalDate day) {
+    return day.toEpochDay() * MILLIS_PER_DAY;
+  }
+}
@@ -5,6 +5,8 @@ import java.util.regex.Pattern;
 public final class ValidationUtils {
   private static final Pattern DECIMAL_PATTERN = Pattern.compile("\\d+(\\.\\d+)?");
   private static final Pattern INTEGER_PATTERN = Pattern.compile("\\d+");
+  // Money is kept in whole cents, so anything finer than a cent is rejected rather than rounded
+  private static final Pattern MONEY_PATTERN = Pattern.compile("\\d+(\\.\\d{1,2})?");
 
   private ValidationUtils() {
     // Prevent instantiation
@@ -32,4 +34,12 @@ public final class ValidationUtils {
     }
     return true;
   }
+
+  public static boolean isMoney(String text, String fieldName, StringBuilder errorMessage) {
+    if (text == null || text.isBlank() || !MONEY_PATTERN.matcher(text).matches()) {
+      errorMessage.append(fieldName).append(" must be an amount with at most two decimals.\n");
+      return false;
+    }
+    return true;
+  }
 }
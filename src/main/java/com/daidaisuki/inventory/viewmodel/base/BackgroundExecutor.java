@@ -0,0 +1,78 @@
+package com.daidaisuki.inventory.viewmodel.base;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-wide pool that runs view model tasks off the FX thread.
+ *
+ * <p>All database work funnels into one SQLite writer and a small reader pool, so the worker count
+ * is kept to a fixed bound (system property {@code inventory.executor.threads}, default 4) and any
+ * extra work waits in the queue instead of piling up as contending threads.
+ */
+public final class BackgroundExecutor {
+  public static final String THREADS_PROPERTY = "inventory.executor.threads";
+  public static final int DEFAULT_THREADS = 4;
+
+  private static BackgroundExecutor instance;
+
+  private final ThreadPoolExecutor executor;
+  private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+  private BackgroundExecutor(int threads) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadFactory threadFactory =
+        runnable -> {
+          Thread thread = new Thread(runnable, "inventory-worker-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        };
+    this.executor =
+        new ThreadPoolExecutor(
+            threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  public static synchronized BackgroundExecutor getInstance() {
+    if (instance == null) {
+      int threads = Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+      instance = new BackgroundExecutor(Math.max(1, threads));
+    }
+    return instance;
+  }
+
+  public void execute(Runnable task) {
+    this.executor.execute(task);
+    this.peakQueueDepth.accumulateAndGet(this.executor.getQueue().size(), Math::max);
+  }
+
+  public static synchronized void shutdown() {
+    if (instance != null) {
+      instance.executor.shutdownNow();
+      instance = null;
+    }
+  }
+
+  public int getQueueDepth() {
+    return this.executor.getQueue().size();
+  }
+
+  public int getPeakQueueDepth() {
+    return this.peakQueueDepth.get();
+  }
+
+  public int getActiveCount() {
+    return this.executor.getActiveCount();
+  }
+
+  public int getMaximumPoolSize() {
+    return this.executor.getMaximumPoolSize();
+  }
+
+  public long getCompletedTaskCount() {
+    return this.executor.getCompletedTaskCount();
+  }
+}
@@ -0,0 +1,39 @@
+package com.daidaisuki.inventory.viewmodel.base;
+
+/** A list view model whose rows can be added, updated and deleted from the view. */
+public abstract class BaseCrudViewModel<T> extends BaseListViewModel<T> {
+  public abstract void add(T item);
+
+  public abstract void update(T item);
+
+  public abstract void delete(T item);
+
+  /** Reloads the list after a change. Subclasses that can patch only the changed rows override. */
+  public void refreshChanges() {
+    this.refresh();
+  }
+
+  /** Drops a hard-deleted row from the list without waiting for a reload. */
+  protected void removeItem(T item) {
+    this.dataList.remove(item);
+  }
+
+  protected void runAsync(TaskAction action, Runnable onSucceeded) {
+    executeTask(
+        () -> {
+          action.run();
+          return null;
+        },
+        result -> {
+          if (onSucceeded != null) {
+            onSucceeded.run();
+          }
+          this.refreshChanges();
+        });
+  }
+
+  @FunctionalInterface
+  public interface TaskAction {
+    void run() throws Exception;
+  }
+}
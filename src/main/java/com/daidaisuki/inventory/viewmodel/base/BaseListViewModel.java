@@ -17,8 +17,16 @@ import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.concurrent.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Read-only list state shared by every table view: loading, filtering, sorting and selection.
+ * Views that edit their rows extend {@link BaseCrudViewModel} instead.
+ */
 public abstract class BaseListViewModel<T> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BaseListViewModel.class);
+
   protected final ObservableList<T> dataList = FXCollections.observableArrayList();
   protected final FilteredList<T> filteredList;
   protected final SortedList<T> sortedList;
@@ -44,8 +52,7 @@ public abstract class BaseListViewModel<T> {
             Bindings.createObjectBinding(
                 () -> {
                   boolean showingArchived = this.showArchived.get();
-                  String filterText =
-                      Optional.ofNullable(searchFilter.get()).orElse("").trim().toLowerCase();
+                  String filterText = this.getFilterText();
                   return (T item) -> {
                     if (isArchived(item) != showingArchived) {
                       return false;
@@ -60,20 +67,31 @@ public abstract class BaseListViewModel<T> {
                 this.searchFilter));
   }
 
+  /** The search text as the filter applies it: trimmed and lower-case, empty when unset. */
+  protected final String getFilterText() {
+    return Optional.ofNullable(this.searchFilter.get()).orElse("").trim().toLowerCase();
+  }
+
   protected abstract List<T> fetchItems() throws Exception;
 
+  /** Called on the FX thread after a refresh has been applied. */
+  protected void afterRefresh() {}
+
   protected abstract boolean matchesSearch(T item, String filterText);
 
   protected abstract boolean isArchived(T item);
 
-  public abstract void add(T item);
-
-  public abstract void update(T item);
-
-  public abstract void delete(T item);
-
   public void refresh() {
-    executeLoadingTask(this::fetchItems, this.dataList::setAll);
+    executeLoadingTask(
+        this::fetchItems,
+        items -> {
+          this.replaceAll(items);
+          this.afterRefresh();
+        });
+  }
+
+  protected void replaceAll(List<T> items) {
+    this.dataList.setAll(items);
   }
 
   protected <V> void executeLoadingTask(Callable<V> worker, Consumer<V> onSuccess) {
@@ -84,19 +102,30 @@ public abstract class BaseListViewModel<T> {
     internalExecute(worker, onSuccess, this.isBusy);
   }
 
+  /**
+   * Runs the worker on the shared executor without the busy guard and returns its task, so a
+   * caller can cancel a load that a newer one has superseded. A cancelled task never reports.
+   */
+  protected <V> Task<V> submitTask(Callable<V> worker, Consumer<V> onSuccess) {
+    Task<V> task = createTask(worker);
+    task.setOnSucceeded(
+        e -> {
+          if (onSuccess != null) {
+            onSuccess.accept(task.getValue());
+          }
+        });
+    task.setOnFailed(e -> this.handleError(task.getException()));
+    BackgroundExecutor.getInstance().execute(task);
+    return task;
+  }
+
   private <V> void internalExecute(
       Callable<V> worker, Consumer<V> onSuccess, BooleanProperty state) {
     if (state.get()) {
       return;
     }
     state.set(true);
-    Task<V> task =
-        new Task<>() {
-          @Override
-          protected V call() throws Exception {
-            return worker.call();
-          }
-        };
+    Task<V> task = createTask(worker);
     task.setOnSucceeded(
         e -> {
           state.set(false);
@@ -109,36 +138,22 @@ public abstract class BaseListViewModel<T> {
           state.set(false);
           this.handleError(task.getException());
         });
-    Thread thread = new Thread(task);
-    thread.setDaemon(true);
-    thread.start();
-  }
-
-  protected void runAsync(TaskAction action, Runnable onSucceeded) {
-    executeTask(
-        () -> {
-          action.run();
-          return null;
-        },
-        result -> {
-          if (onSucceeded != null) {
-            onSucceeded.run();
-          }
-          this.refresh();
-        });
+    BackgroundExecutor.getInstance().execute(task);
   }
 
-  @FunctionalInterface
-  public interface TaskAction {
-    void run() throws Exception;
+  private static <V> Task<V> createTask(Callable<V> worker) {
+    return new Task<>() {
+      @Override
+      protected V call() throws Exception {
+        return worker.call();
+      }
+    };
   }
 
   public void handleError(Throwable exception) {
+    LOGGER.error("Background task failed in {}", getClass().getSimpleName(), exception);
     if (this.errorReporter != null) {
       Platform.runLater(() -> this.errorReporter.accept(exception));
-    } else {
-      // May change to logger in the future.
-      exception.printStackTrace();
     }
   }
 
@@ -0,0 +1,182 @@
+package com.daidaisuki.inventory.viewmodel.base;
+
+import com.daidaisuki.inventory.model.base.BaseModel;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A CRUD view model that loads its rows in keyset pages and, after a change, patches in only the
+ * rows whose updated_at moved past the newest one it has seen.
+ *
+ * <p>The search text and archived toggle are applied by the query, so a page holds only matching
+ * rows and a filter change starts over from the first page. The list's own predicate then only
+ * hides patched rows that no longer match.
+ */
+public abstract class PagedCrudViewModel<T extends BaseModel> extends BaseCrudViewModel<T> {
+  private boolean hasMorePages;
+  private T lastPageItem;
+  // The filter the loaded pages were fetched with, so later pages continue the same query
+  private String pageFilterText = "";
+  private boolean pageArchived;
+  // Work asked for while another load ran, held back instead of dropped by the loading guard
+  private boolean reloadPending;
+  private boolean refreshPending;
+
+  // Where each loaded row sits in dataList, and the newest updated_at seen
+  private final Map<Integer, Integer> indexById = new HashMap<>();
+  private OffsetDateTime syncWatermark;
+
+  public PagedCrudViewModel() {
+    this.searchFilter.addListener((obs, oldValue, newValue) -> this.refresh());
+    this.showArchived.addListener((obs, oldValue, newValue) -> this.refresh());
+    this.isLoading.addListener(
+        (obs, wasLoading, loading) -> {
+          if (loading) {
+            return;
+          }
+          // This runs just before the finished load applies its rows, so a held delta refresh
+          // starts from the older watermark; that can only fetch more rows, never miss one. A
+          // reload fetches every change a pending delta refresh would have.
+          if (this.reloadPending) {
+            this.reloadPending = false;
+            this.refreshPending = false;
+            this.refresh();
+          } else if (this.refreshPending) {
+            this.refreshPending = false;
+            this.refreshChanges();
+          }
+        });
+  }
+
+  protected abstract int getPageSize();
+
+  /**
+   * Fetches the page of rows matching the filter that follows {@code lastItem}, or the first page
+   * when it is null. {@code filterText} is trimmed and lower-case, and empty when unfiltered.
+   */
+  protected abstract List<T> fetchPage(
+      String filterText, boolean archived, T lastItem, int pageSize) throws Exception;
+
+  /** Fetches rows whose updated_at is at or after the watermark, including soft-deleted ones. */
+  protected abstract List<T> fetchChangedSince(OffsetDateTime watermark) throws Exception;
+
+  /** Reloads the first page under the current filter, after any load still running. */
+  @Override
+  public void refresh() {
+    if (this.isLoading.get()) {
+      this.reloadPending = true;
+      return;
+    }
+    this.pageFilterText = this.getFilterText();
+    this.pageArchived = this.showArchived.get();
+    // The old cursor belongs to the old filter; no page may continue from it
+    this.hasMorePages = false;
+    this.lastPageItem = null;
+    super.refresh();
+  }
+
+  @Override
+  protected final List<T> fetchItems() throws Exception {
+    return this.fetchPage(this.pageFilterText, this.pageArchived, null, this.getPageSize());
+  }
+
+  @Override
+  protected void replaceAll(List<T> items) {
+    super.replaceAll(items);
+    this.hasMorePages = items.size() == this.getPageSize();
+    this.lastPageItem = items.isEmpty() ? null : items.get(items.size() - 1);
+    this.indexById.clear();
+    this.syncWatermark = null;
+    for (int i = 0; i < items.size(); i++) {
+      T item = items.get(i);
+      this.indexById.put(item.getId(), i);
+      this.advanceWatermark(item);
+    }
+  }
+
+  /**
+   * Patches only the rows changed since the last sync, or reloads when nothing is loaded yet. A
+   * call made while another load runs is held until that load finishes.
+   */
+  @Override
+  public void refreshChanges() {
+    if (this.isLoading.get()) {
+      this.refreshPending = true;
+      return;
+    }
+    if (this.syncWatermark == null) {
+      this.refresh();
+      return;
+    }
+    OffsetDateTime watermark = this.syncWatermark;
+    executeLoadingTask(
+        () -> this.fetchChangedSince(watermark),
+        changes -> {
+          this.mergeById(changes);
+          this.afterRefresh();
+        });
+  }
+
+  /** Appends the next page when more rows remain, e.g. on scroll. */
+  public void loadNextPage() {
+    if (!this.hasMorePages || this.lastPageItem == null) {
+      return;
+    }
+    T lastItem = this.lastPageItem;
+    String filterText = this.pageFilterText;
+    boolean archived = this.pageArchived;
+    int pageSize = this.getPageSize();
+    executeLoadingTask(
+        () -> this.fetchPage(filterText, archived, lastItem, pageSize),
+        page -> {
+          this.hasMorePages = page.size() == pageSize;
+          if (!page.isEmpty()) {
+            this.lastPageItem = page.get(page.size() - 1);
+          }
+          // Rows already patched in by a delta refresh must not be added twice
+          this.mergeById(page);
+        });
+  }
+
+  /** Drops a hard-deleted row, which a delta refresh has no way of seeing. */
+  @Override
+  protected void removeItem(T item) {
+    Integer index = this.indexById.remove(item.getId());
+    if (index == null) {
+      return;
+    }
+    this.dataList.remove(index.intValue());
+    for (int i = index; i < this.dataList.size(); i++) {
+      this.indexById.put(this.dataList.get(i).getId(), i);
+    }
+  }
+
+  private void mergeById(List<T> items) {
+    List<T> added = new ArrayList<>();
+    for (T item : items) {
+      Integer index = this.indexById.get(item.getId());
+      if (index == null) {
+        this.indexById.put(item.getId(), this.dataList.size() + added.size());
+        added.add(item);
+      } else if (!Objects.equals(this.dataList.get(index).getUpdatedAt(), item.getUpdatedAt())) {
+        this.dataList.set(index, item);
+      }
+      this.advanceWatermark(item);
+    }
+    this.dataList.addAll(added);
+  }
+
+  private void advanceWatermark(T item) {
+    OffsetDateTime updatedAt = item.getUpdatedAt();
+    if (updatedAt == null) {
+      return;
+    }
+    if (this.syncWatermark == null || updatedAt.isAfter(this.syncWatermark)) {
+      this.syncWatermark = updatedAt;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import com.daidaisuki.inventory.exception.DataAccessException;
 import com.daidaisuki.inventory.model.Product;
 import com.daidaisuki.inventory.service.ProductService;
 import com.daidaisuki.inventory.ui.validation.ValidationStatus;
+import com.daidaisuki.inventory.util.CurrencyUtil;
 import com.daidaisuki.inventory.util.StringCleaner;
 import com.daidaisuki.inventory.util.ValidationUtils;
 import com.daidaisuki.inventory.viewmodel.base.BaseDialogViewModel;
@@ -57,7 +58,7 @@ public class ProductDialogViewModel extends BaseDialogViewModel<Product> {
               ValidationUtils.isFieldEmpty(cleanCategory, "Category", errors);
               ValidationUtils.isFieldEmpty(cleanUnitType, "Unit Type", errors);
               ValidationUtils.isNumeric(this.weight.get(), "Weight", errors, true);
-              ValidationUtils.isNumeric(this.price.get(), "Price", errors, true);
+              ValidationUtils.isMoney(this.price.get(), "Price", errors);
               return new ValidationStatus(errors.isEmpty(), errors.toString());
             },
             this.sku,
@@ -76,7 +77,8 @@ public class ProductDialogViewModel extends BaseDialogViewModel<Product> {
     result.setCategory(this.category.get());
     result.setDescription(this.description.get());
     result.setWeight(Integer.parseInt(this.weight.get().isEmpty() ? "0" : weight.get()));
-    result.setSellingPrice(new BigDecimal(price.get().isEmpty() ? "0" : price.get()));
+    result.setSellingPriceCents(
+        CurrencyUtil.bigDecimalToLong(new BigDecimal(price.get().isEmpty() ? "0" : price.get())));
     result.setUnitType(this.unitType.get());
     result.setActive(isActive.get());
     return result;
@@ -106,7 +108,7 @@ public class ProductDialogViewModel extends BaseDialogViewModel<Product> {
     this.category.set(model.getCategory());
     this.description.set(model.getDescription());
     this.weight.set(Integer.toString(model.getWeight()));
-    this.price.set(model.getSellingPrice().toPlainString());
+    this.price.set(CurrencyUtil.toPlainString(model.getSellingPriceCents()));
     this.unitType.set(model.getUnitType());
     this.isActive.set(model.isActive());
   }
@@ -4,6 +4,7 @@ import com.daidaisuki.inventory.model.Product;
 import com.daidaisuki.inventory.model.Supplier;
 import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
 import com.daidaisuki.inventory.ui.validation.ValidationStatus;
+import com.daidaisuki.inventory.util.CurrencyUtil;
 import com.daidaisuki.inventory.util.ValidationUtils;
 import com.daidaisuki.inventory.viewmodel.base.BaseDialogViewModel;
 import java.math.BigDecimal;
@@ -52,7 +53,7 @@ public class ReceiveStockDialogViewModel extends BaseDialogViewModel<StockReceiv
             () -> {
               StringBuilder errors = new StringBuilder();
               ValidationUtils.isNumeric(this.quantity.get(), "Quantity", errors, false);
-              ValidationUtils.isNumeric(this.unitCost.get(), "Unit Cost", errors, true);
+              ValidationUtils.isMoney(this.unitCost.get(), "Unit Cost", errors);
               return new ValidationStatus(errors.isEmpty(), errors.toString());
             },
             this.quantity,
@@ -74,7 +75,7 @@ public class ReceiveStockDialogViewModel extends BaseDialogViewModel<StockReceiv
         this.selectedSupplier.get().getId(),
         this.batchCode.get(),
         Integer.parseInt(this.quantity.get()),
-        new BigDecimal(this.unitCost.get()),
+        CurrencyUtil.bigDecimalToLong(new BigDecimal(this.unitCost.get())),
         this.expiryDate.get() != null
             ? this.expiryDate.get().atStartOfDay(ZoneOffset.UTC).toOffsetDateTime()
             : null,
@@ -0,0 +1,103 @@
+package com.daidaisuki.inventory.viewmodel.view;
+
+import com.daidaisuki.inventory.model.dto.DiagnosticsSnapshot;
+import com.daidaisuki.inventory.model.projection.StatementMetrics;
+import com.daidaisuki.inventory.service.DiagnosticsService;
+import com.daidaisuki.inventory.viewmodel.base.BaseListViewModel;
+import java.util.List;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+public class DiagnosticsViewModel extends BaseListViewModel<StatementMetrics> {
+  private final DiagnosticsService diagnosticsService;
+
+  private final StringProperty statementCountText = new SimpleStringProperty("0");
+  private final StringProperty totalTimeText = new SimpleStringProperty("0 ms");
+  private final StringProperty cacheHitRateText = new SimpleStringProperty("-");
+  private final StringProperty cacheDetailText = new SimpleStringProperty("");
+  private final StringProperty generatedText = new SimpleStringProperty("");
+
+  public DiagnosticsViewModel(DiagnosticsService diagnosticsService) {
+    this.diagnosticsService = diagnosticsService;
+  }
+
+  // The cache counters come with the rows, so load the whole snapshot rather than just the list
+  @Override
+  public void refresh() {
+    executeLoadingTask(this.diagnosticsService::getSnapshot, this::applySnapshot);
+  }
+
+  public void resetMetrics() {
+    executeTask(
+        () -> {
+          this.diagnosticsService.resetStatementMetrics();
+          return this.diagnosticsService.getSnapshot();
+        },
+        this::applySnapshot);
+  }
+
+  @Override
+  protected List<StatementMetrics> fetchItems() throws Exception {
+    return this.diagnosticsService.getSnapshot().statements();
+  }
+
+  private void applySnapshot(DiagnosticsSnapshot snapshot) {
+    this.dataList.setAll(snapshot.statements());
+    long calls = 0;
+    long totalNanos = 0;
+    for (StatementMetrics metrics : snapshot.statements()) {
+      calls += metrics.calls();
+      totalNanos += metrics.totalNanos();
+    }
+    this.statementCountText.set(String.valueOf(calls));
+    this.totalTimeText.set(String.format("%.1f ms", totalNanos / 1e6));
+    long lookups = snapshot.statementCacheHits() + snapshot.statementCacheMisses();
+    this.cacheHitRateText.set(
+        lookups == 0
+            ? "-"
+            : String.format("%.1f%%", 100.0 * snapshot.statementCacheHits() / lookups));
+    this.cacheDetailText.set(
+        snapshot.statementCacheSize()
+            + " cached, "
+            + snapshot.statementCacheMisses()
+            + " prepared, "
+            + snapshot.statementCacheEvictions()
+            + " evicted");
+    this.generatedText.set(
+        "Slow query threshold "
+            + snapshot.slowQueryThresholdMillis()
+            + " ms, taken at "
+            + snapshot.takenAt().toLocalTime().withNano(0)
+            + " UTC");
+  }
+
+  @Override
+  protected boolean matchesSearch(StatementMetrics metrics, String filterText) {
+    return metrics.sql().toLowerCase().contains(filterText);
+  }
+
+  @Override
+  protected boolean isArchived(StatementMetrics metrics) {
+    return false;
+  }
+
+  public StringProperty statementCountTextProperty() {
+    return this.statementCountText;
+  }
+
+  public StringProperty totalTimeTextProperty() {
+    return this.totalTimeText;
+  }
+
+  public StringProperty cacheHitRateTextProperty() {
+    return this.cacheHitRateText;
+  }
+
+  public StringProperty cacheDetailTextProperty() {
+    return this.cacheDetailText;
+  }
+
+  public StringProperty generatedTextProperty() {
+    return this.generatedText;
+  }
+}
@@ -4,35 +4,49 @@ import com.daidaisuki.inventory.model.InventoryTransaction;
 import com.daidaisuki.inventory.model.Product;
 import com.daidaisuki.inventory.model.StockBatch;
 import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
+import com.daidaisuki.inventory.service.ExportService;
 import com.daidaisuki.inventory.service.InventoryService;
 import com.daidaisuki.inventory.service.ProductService;
 import com.daidaisuki.inventory.service.SupplierService;
 import com.daidaisuki.inventory.util.CurrencyUtil;
 import com.daidaisuki.inventory.util.NumberUtils;
-import com.daidaisuki.inventory.viewmodel.base.BaseListViewModel;
+import com.daidaisuki.inventory.viewmodel.base.PagedCrudViewModel;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.util.Pair;
 
-public class InventoryViewModel extends BaseListViewModel<Product> {
+public class InventoryViewModel extends PagedCrudViewModel<Product> {
+  private static final int PRODUCT_PAGE_SIZE = 200;
+  private static final int TRANSACTION_PAGE_SIZE = 100;
+
   private final ProductService productService;
   private final InventoryService inventoryService;
   private final SupplierService supplierService;
+  private final ExportService exportService;
 
   private final ObservableList<StockBatch> selectedProductBatches =
       FXCollections.observableArrayList();
   private final ObservableList<InventoryTransaction> selectedProductTransactions =
       FXCollections.observableArrayList();
 
+  private boolean hasMoreTransactions;
+  private Task<?> detailTask;
+
   private final StringProperty barcodeText = new SimpleStringProperty("--");
   private final StringProperty reorderingLevelText = new SimpleStringProperty("--");
   private final StringProperty taxCategoryText = new SimpleStringProperty("--");
@@ -46,10 +60,12 @@ public class InventoryViewModel extends BaseListViewModel<Product> {
   public InventoryViewModel(
       ProductService productService,
       InventoryService inventoryService,
-      SupplierService supplierService) {
+      SupplierService supplierService,
+      ExportService exportService) {
     this.productService = productService;
     this.inventoryService = inventoryService;
     this.supplierService = supplierService;
+    this.exportService = exportService;
     this.setupSelectedItemListener();
     this.sortedList.setComparator(Comparator.comparing(Product::getName));
   }
@@ -61,8 +77,10 @@ public class InventoryViewModel extends BaseListViewModel<Product> {
             this.updatePresentation(newProduct);
             this.refreshDetail(newProduct.getId());
           } else {
+            this.cancelDetailTask();
             this.selectedProductBatches.clear();
             this.selectedProductTransactions.clear();
+            this.hasMoreTransactions = false;
             this.clearPresentation();
           }
         });
@@ -75,40 +93,75 @@ public class InventoryViewModel extends BaseListViewModel<Product> {
     this.weightText.set(String.valueOf(product.getWeight()));
     this.unitTypeText.set(product.getUnitType());
     this.minStockLevelText.set(String.valueOf(product.getMinStockLevel()));
-    this.averageUnitCostText.set(CurrencyUtil.format(product.getAverageUnitCost()));
-    BigDecimal averageUnitCost =
-        Optional.ofNullable(product.getAverageUnitCost()).orElse(BigDecimal.ZERO);
-    BigDecimal price = product.getSellingPrice();
-    if (price == null || averageUnitCost.signum() == 0) {
+    long averageUnitCostCents = product.getAverageUnitCostCents();
+    this.averageUnitCostText.set(CurrencyUtil.formatCents(averageUnitCostCents));
+    if (averageUnitCostCents == 0) {
       this.markupText.set("0%");
     } else {
       BigDecimal markup =
-          price
-              .subtract(averageUnitCost)
-              .divide(averageUnitCost, 4, RoundingMode.HALF_UP)
+          BigDecimal.valueOf(product.getSellingPriceCents() - averageUnitCostCents)
+              .divide(BigDecimal.valueOf(averageUnitCostCents), 4, RoundingMode.HALF_UP)
               .multiply(BigDecimal.valueOf(100));
       this.markupText.set(NumberUtils.percentage(markup));
     }
-    BigDecimal totalValue = averageUnitCost.multiply(BigDecimal.valueOf(product.getCurrentStock()));
-    this.totalValueText.set(CurrencyUtil.format(totalValue));
+    this.totalValueText.set(
+        CurrencyUtil.formatCents(averageUnitCostCents * product.getCurrentStock()));
   }
 
   private void refreshDetail(int productId) {
+    // Only the latest selection matters, so drop any detail load it supersedes
+    this.cancelDetailTask();
+    this.detailTask =
+        this.submitTask(
+            () -> {
+              List<StockBatch> batches = this.inventoryService.listInventoryByProduct(productId);
+              List<InventoryTransaction> transactions =
+                  this.inventoryService.getTransactionHistoryPage(
+                      productId, null, TRANSACTION_PAGE_SIZE);
+              return new Pair<>(batches, transactions);
+            },
+            result -> {
+              if (this.isSelected(productId)) {
+                this.selectedProductBatches.setAll(result.getKey());
+                this.selectedProductTransactions.setAll(result.getValue());
+                this.hasMoreTransactions = result.getValue().size() == TRANSACTION_PAGE_SIZE;
+              }
+            });
+  }
+
+  private void cancelDetailTask() {
+    if (this.detailTask != null) {
+      this.detailTask.cancel(false);
+      this.detailTask = null;
+    }
+  }
+
+  public void loadMoreTransactions() {
+    Product product = this.selectedItem.get();
+    if (product == null
+        || !this.hasMoreTransactions
+        || this.selectedProductTransactions.isEmpty()) {
+      return;
+    }
+    int productId = product.getId();
+    InventoryTransaction lastTransaction =
+        this.selectedProductTransactions.get(this.selectedProductTransactions.size() - 1);
     this.executeLoadingTask(
-        () -> {
-          List<StockBatch> batches = this.inventoryService.listInventoryByProduct(productId);
-          List<InventoryTransaction> transactions =
-              this.inventoryService.getTransactionHistory(productId);
-          return new Pair<>(batches, transactions);
-        },
-        result -> {
-          if (this.selectedItem.get() != null && this.selectedItem.get().getId() == productId) {
-            this.selectedProductBatches.setAll(result.getKey());
-            this.selectedProductTransactions.setAll(result.getValue());
+        () ->
+            this.inventoryService.getTransactionHistoryPage(
+                productId, lastTransaction, TRANSACTION_PAGE_SIZE),
+        page -> {
+          if (this.isSelected(productId)) {
+            this.hasMoreTransactions = page.size() == TRANSACTION_PAGE_SIZE;
+            this.selectedProductTransactions.addAll(page);
           }
         });
   }
 
+  private boolean isSelected(int productId) {
+    return this.selectedItem.get() != null && this.selectedItem.get().getId() == productId;
+  }
+
   private void clearPresentation() {
     this.barcodeText.set("--");
     this.reorderingLevelText.set("--");
@@ -122,8 +175,26 @@ public class InventoryViewModel extends BaseListViewModel<Product> {
   }
 
   @Override
-  protected List<Product> fetchItems() throws Exception {
-    return this.productService.listProducts();
+  protected int getPageSize() {
+    return PRODUCT_PAGE_SIZE;
+  }
+
+  @Override
+  protected List<Product> fetchPage(
+      String filterText, boolean archived, Product lastProduct, int pageSize) throws Exception {
+    return this.productService.listProductsAfter(filterText, archived, lastProduct, pageSize);
+  }
+
+  @Override
+  protected List<Product> fetchChangedSince(OffsetDateTime watermark) throws Exception {
+    return this.productService.listProductsChangedSince(watermark);
+  }
+
+  @Override
+  protected void afterRefresh() {
+    if (this.selectedItem.get() != null) {
+      this.refreshDetail(this.selectedItem.get().getId());
+    }
   }
 
   @Override
@@ -151,22 +222,37 @@ public class InventoryViewModel extends BaseListViewModel<Product> {
 
   @Override
   public void delete(Product item) {
-    this.runInventoryTask(() -> this.productService.removeProduct(item.getId()));
+    this.runAsync(
+        () -> this.productService.removeProduct(item.getId()), () -> this.removeItem(item));
   }
 
   public void receiveStock(StockReceiveRequest receiveRequest, int userId) {
     this.runInventoryTask(() -> this.inventoryService.receiveNewStock(receiveRequest, userId));
   }
 
-  private void runInventoryTask(TaskAction action) {
-    this.runAsync(
-        action,
+  public void exportProductCatalog(Path file, Consumer<Long> onExported) {
+    this.executeTask(
         () -> {
-          this.refresh();
-          if (this.selectedItem.get() != null) {
-            this.refreshDetail(this.selectedItem.get().getId());
+          try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return this.exportService.exportProductCatalog(writer);
           }
-        });
+        },
+        onExported);
+  }
+
+  public void exportTransactionLedger(Path file, Consumer<Long> onExported) {
+    this.executeTask(
+        () -> {
+          try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return this.exportService.exportTransactionLedger(writer);
+          }
+        },
+        onExported);
+  }
+
+  private void runInventoryTask(TaskAction action) {
+    // runAsync patches the changed rows in, and afterRefresh reloads the selected product's detail
+    this.runAsync(action, null);
   }
 
   public ProductService getProductService() {
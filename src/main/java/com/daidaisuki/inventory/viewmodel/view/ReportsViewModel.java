@@ -0,0 +1,78 @@
+package com.daidaisuki.inventory.viewmodel.view;
+
+import com.daidaisuki.inventory.model.dto.ValuationReport;
+import com.daidaisuki.inventory.model.projection.CategoryValuation;
+import com.daidaisuki.inventory.service.ReportService;
+import com.daidaisuki.inventory.util.CurrencyUtil;
+import com.daidaisuki.inventory.viewmodel.base.BaseListViewModel;
+import java.util.List;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+public class ReportsViewModel extends BaseListViewModel<CategoryValuation> {
+  private final ReportService reportService;
+
+  private final StringProperty fifoValueText = new SimpleStringProperty("$0.00");
+  private final StringProperty averageCostValueText = new SimpleStringProperty("$0.00");
+  private final StringProperty valueDifferenceText = new SimpleStringProperty("$0.00");
+  private final StringProperty quantityText = new SimpleStringProperty("0");
+  private final StringProperty generatedText = new SimpleStringProperty("");
+
+  public ReportsViewModel(ReportService reportService) {
+    this.reportService = reportService;
+  }
+
+  // The totals come with the rows, so load the whole report rather than just the list
+  @Override
+  public void refresh() {
+    executeLoadingTask(this.reportService::getInventoryValuation, this::applyReport);
+  }
+
+  @Override
+  protected List<CategoryValuation> fetchItems() throws Exception {
+    return this.reportService.getInventoryValuation().categories();
+  }
+
+  private void applyReport(ValuationReport report) {
+    this.dataList.setAll(report.categories());
+    CategoryValuation total = report.total();
+    this.fifoValueText.set(CurrencyUtil.formatCents(total.fifoValueCents()));
+    this.averageCostValueText.set(CurrencyUtil.formatCents(total.averageCostValueCents()));
+    this.valueDifferenceText.set(
+        CurrencyUtil.formatCents(total.fifoValueCents() - total.averageCostValueCents()));
+    this.quantityText.set(String.valueOf(total.quantity()));
+    this.generatedText.set(
+        total.batchCount() + " open batches valued in " + report.elapsedMillis() + " ms");
+  }
+
+  @Override
+  protected boolean matchesSearch(CategoryValuation valuation, String filterText) {
+    return valuation.category() != null
+        && valuation.category().toLowerCase().contains(filterText);
+  }
+
+  @Override
+  protected boolean isArchived(CategoryValuation valuation) {
+    return false;
+  }
+
+  public StringProperty fifoValueTextProperty() {
+    return this.fifoValueText;
+  }
+
+  public StringProperty averageCostValueTextProperty() {
+    return this.averageCostValueText;
+  }
+
+  public StringProperty valueDifferenceTextProperty() {
+    return this.valueDifferenceText;
+  }
+
+  public StringProperty quantityTextProperty() {
+    return this.quantityText;
+  }
+
+  public StringProperty generatedTextProperty() {
+    return this.generatedText;
+  }
+}
@@ -2,12 +2,12 @@ package com.daidaisuki.inventory.viewmodel.view;
 
 import com.daidaisuki.inventory.model.Supplier;
 import com.daidaisuki.inventory.service.SupplierService;
-import com.daidaisuki.inventory.viewmodel.base.BaseListViewModel;
+import com.daidaisuki.inventory.viewmodel.base.BaseCrudViewModel;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
 
-public class SupplierViewModel extends BaseListViewModel<Supplier> {
+public class SupplierViewModel extends BaseCrudViewModel<Supplier> {
   private SupplierService supplierService;
 
   public SupplierViewModel(SupplierService supplierService) {
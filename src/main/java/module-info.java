@@ -5,6 +5,8 @@ module com.daidaisuki.inventory {
   requires javafx.base;
   requires transitive java.sql;
   requires org.xerial.sqlitejdbc;
+  requires com.zaxxer.hikari;
+  requires org.slf4j;
 
   opens com.daidaisuki.inventory.controller.dialog to
       javafx.fxml;
@@ -20,6 +22,7 @@ module com.daidaisuki.inventory {
   exports com.daidaisuki.inventory.interfaces;
   exports com.daidaisuki.inventory.model;
   exports com.daidaisuki.inventory.model.dto;
+  exports com.daidaisuki.inventory.model.projection;
   exports com.daidaisuki.inventory.service;
   exports com.daidaisuki.inventory.serviceregistry;
   exports com.daidaisuki.inventory.util;
@@ -0,0 +1,131 @@
+package com.daidaisuki.inventory.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.model.Product;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProductCacheTest {
+  private Connection connection;
+  private TransactionManager transactionManager;
+  private ProductDAO productDAO;
+  private int productId;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.transactionManager = new TransactionManager(this.connection);
+    this.productDAO = new ProductDAO(this.connection, null);
+    this.productId =
+        this.productDAO
+            .save(
+                new ProductBuilder()
+                    .withSku("OLD-SKU")
+                    .withBarcode("OLD-CODE")
+                    .withName("Old name")
+                    .withAverageUnitCost(250)
+                    .build())
+            .getId();
+    // Warm both the cache and the code index before each scenario
+    assertTrue(this.productDAO.findBySku("OLD-SKU").isPresent());
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("A rolled-back update leaves the cached row and its codes as they were")
+  void testRollbackLeavesCacheAndIndexUntouched() throws SQLException {
+    Product edited = this.productDAO.findById(this.productId).orElseThrow();
+    edited.setSku("NEW-SKU");
+    edited.setBarcode("NEW-CODE");
+    edited.setName("New name");
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            this.transactionManager.executeInTransaction(
+                () -> {
+                  this.productDAO.update(edited);
+                  this.productDAO.updateStockTotalAndCost(this.productId, 6, 300);
+                  throw new IllegalStateException("rollback");
+                }));
+
+    Product cached = this.productDAO.findById(this.productId).orElseThrow();
+    assertEquals("Old name", cached.getName());
+    assertEquals(0, cached.getCurrentStock());
+    assertEquals(250, cached.getAverageUnitCostCents());
+    assertEquals("Old name", this.storedName());
+    assertTrue(this.productDAO.findBySku("OLD-SKU").isPresent());
+    assertTrue(this.productDAO.findByBarcode("NEW-CODE").isEmpty());
+    assertFalse(this.productDAO.existsBySku("NEW-SKU"));
+  }
+
+  @Test
+  @DisplayName("Committed writes replace the cached row and move its codes in the index")
+  void testCommittedWritesAreVisibleThroughCacheAndIndex() throws SQLException {
+    Product edited = this.productDAO.findById(this.productId).orElseThrow();
+    edited.setSku("NEW-SKU");
+    edited.setName("New name");
+
+    this.transactionManager.executeInTransaction(
+        () -> {
+          this.productDAO.update(edited);
+          this.productDAO.updateStockTotalAndCost(this.productId, 6, 300);
+        });
+
+    Product cached = this.productDAO.findBySku("NEW-SKU").orElseThrow();
+    assertEquals("New name", cached.getName());
+    assertEquals("New name", this.storedName());
+    assertEquals(6, cached.getCurrentStock());
+    assertEquals(300, cached.getAverageUnitCostCents());
+    assertTrue(this.productDAO.findBySku("OLD-SKU").isEmpty());
+    assertTrue(this.productDAO.existsByBarcode("OLD-CODE"));
+
+    this.productDAO.archive(this.productId);
+
+    assertTrue(this.productDAO.findById(this.productId).orElseThrow().isDeleted());
+    assertFalse(this.productDAO.existsBySku("NEW-SKU"));
+    // Archived rows keep their codes, which the UNIQUE constraints still cover
+    assertTrue(this.productDAO.findBySku("NEW-SKU").isPresent());
+
+    this.productDAO.remove(this.productId);
+
+    assertTrue(this.productDAO.findById(this.productId).isEmpty());
+    assertTrue(this.productDAO.findByBarcode("OLD-CODE").isEmpty());
+  }
+
+  private String storedName() throws SQLException {
+    try (PreparedStatement stmt =
+        this.connection.prepareStatement("SELECT name FROM products WHERE id = ?")) {
+      stmt.setInt(1, this.productId);
+      try (ResultSet rs = stmt.executeQuery()) {
+        rs.next();
+        return rs.getString(1);
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.daidaisuki.inventory.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.model.Product;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProductPageQueryTest {
+  private static final int PRODUCTS = 60;
+  private static final int PAGE_SIZE = 7;
+  private static final String[] CATEGORIES = {"Tea", "Snacks", "Gift Sets"};
+
+  private Connection connection;
+  private ProductDAO productDAO;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.productDAO = new ProductDAO(this.connection, null);
+    for (int i = 0; i < PRODUCTS; i++) {
+      // Repeated names make the id tie-breaker part of the cursor
+      Product product =
+          this.productDAO.save(
+              new ProductBuilder()
+                  .withSku("SKU-" + i)
+                  .withBarcode("CODE-" + i)
+                  .withName((i % 3 == 0 ? "Matcha " : "Hojicha ") + (i % 10))
+                  .withCategory(CATEGORIES[i % CATEGORIES.length])
+                  .build());
+      if (i % 4 == 0) {
+        this.productDAO.archive(product.getId());
+      }
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("Filtered keyset pages return exactly the matching rows, in order, once each")
+  void testFilteredPagesMatchClientSideFilter() {
+    for (String filterText : List.of("", "matcha", "sku-1", "gift", "nothing")) {
+      for (boolean archived : List.of(false, true)) {
+        List<Product> expected =
+            this.productDAO.findAll().stream()
+                .filter(product -> product.isDeleted() == archived)
+                .filter(product -> matches(product, filterText))
+                .sorted(Comparator.comparing(Product::getName).thenComparing(Product::getId))
+                .toList();
+
+        assertEquals(
+            ids(expected), ids(this.readAllPages(filterText, archived)), filterText + archived);
+      }
+    }
+  }
+
+  private List<Product> readAllPages(String filterText, boolean archived) {
+    List<Product> rows = new ArrayList<>();
+    List<Product> page = this.productDAO.findPageAfter(filterText, archived, null, 0, PAGE_SIZE);
+    while (!page.isEmpty()) {
+      rows.addAll(page);
+      Product last = page.get(page.size() - 1);
+      page =
+          this.productDAO.findPageAfter(
+              filterText, archived, last.getName(), last.getId(), PAGE_SIZE);
+    }
+    return rows;
+  }
+
+  private static boolean matches(Product product, String filterText) {
+    return Stream.of(product.getName(), product.getSku(), product.getCategory())
+        .anyMatch(value -> value.toLowerCase().contains(filterText));
+  }
+
+  private static List<Integer> ids(List<Product> products) {
+    return products.stream().map(Product::getId).toList();
+  }
+}
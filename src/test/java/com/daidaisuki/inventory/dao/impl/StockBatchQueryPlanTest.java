@@ -0,0 +1,73 @@
+package com.daidaisuki.inventory.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.daidaisuki.inventory.db.DatabaseManager;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StockBatchQueryPlanTest {
+  private static final String AVAILABLE_INDEX = "idx_batches_available";
+
+  private Connection connection;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("Available batches seek the partial index in FIFO order without sorting")
+  void testFindAllAvailableUsesPartialIndex() throws SQLException {
+    String plan = explain(StockBatchDAO.FIND_ALL_AVAILABLE_SQL);
+
+    assertTrue(plan.contains("USING INDEX " + AVAILABLE_INDEX + " (product_id=?)"), plan);
+    assertFalse(plan.contains("TEMP B-TREE"), plan);
+  }
+
+  @Test
+  @DisplayName("Oldest available batch is the first entry of the partial index")
+  void testFindOldestAvailableUsesPartialIndex() throws SQLException {
+    String plan = explain(StockBatchDAO.FIND_OLDEST_AVAILABLE_SQL);
+
+    assertTrue(plan.contains("USING INDEX " + AVAILABLE_INDEX + " (product_id=?)"), plan);
+    assertFalse(plan.contains("TEMP B-TREE"), plan);
+  }
+
+  @Test
+  @DisplayName("FIFO allocation reads only the covering index and sorts just the covering rows")
+  void testFifoCoveringUsesCoveringIndex() throws SQLException {
+    String plan = explain(StockBatchDAO.FIFO_COVERING_SQL);
+
+    assertTrue(plan.contains("USING COVERING INDEX " + AVAILABLE_INDEX + " (product_id=?)"), plan);
+    // The window runs in index order; the only sort is the outer ORDER BY over the filtered rows
+    assertEquals(1, plan.split("TEMP B-TREE", -1).length - 1, plan);
+    assertTrue(plan.contains("USE TEMP B-TREE FOR ORDER BY"), plan);
+  }
+
+  private String explain(String sql) throws SQLException {
+    StringBuilder plan = new StringBuilder();
+    try (PreparedStatement stmt = this.connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+        ResultSet rs = stmt.executeQuery()) {
+      while (rs.next()) {
+        plan.append(rs.getString("detail")).append('\n');
+      }
+    }
+    return plan.toString();
+  }
+}
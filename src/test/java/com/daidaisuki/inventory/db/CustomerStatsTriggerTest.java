@@ -0,0 +1,149 @@
+package com.daidaisuki.inventory.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CustomerStatsTriggerTest {
+  private static final long SEED = 14;
+  private static final int CUSTOMERS = 5;
+  private static final int STEPS = 300;
+  private static final long BASE_MILLIS = 1_767_225_600_000L;
+
+  // Totals straight from orders, in the shape customer_stats keeps them
+  private static final String EXPECTED_SQL =
+      """
+      SELECT customer_id, COUNT(id), COALESCE(SUM(final_amount_cents), 0),
+          COALESCE(SUM(discount_amount_cents), 0), MAX(created_at)
+      FROM orders
+      WHERE is_deleted = 0
+      GROUP BY customer_id
+      ORDER BY customer_id
+      """;
+  // Customers whose last order went away keep a zeroed row, which reads the same in the view
+  private static final String ACTUAL_SQL =
+      """
+      SELECT customer_id, total_orders, total_spent_cents, total_discount_cents, last_order_date
+      FROM customer_stats
+      WHERE total_orders > 0
+      ORDER BY customer_id
+      """;
+
+  private Connection connection;
+  private Random random;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.random = new Random(SEED);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("customer_stats matches a full re-total after every insert, edit and delete")
+  void testStatsFollowEveryOrderChange() throws SQLException {
+    List<Integer> orderIds = new ArrayList<>();
+    for (int step = 0; step < STEPS; step++) {
+      int action = orderIds.isEmpty() ? 0 : this.random.nextInt(6);
+      switch (action) {
+        case 0, 1 -> orderIds.add(this.insertOrder());
+        case 2 -> this.updateOrder(this.pick(orderIds), "customer_id", this.randomCustomer());
+        case 3 -> this.updateOrder(this.pick(orderIds), "final_amount_cents", this.randomAmount());
+        case 4 -> this.updateOrder(this.pick(orderIds), "is_deleted", this.random.nextInt(2));
+        default -> {
+          int orderId = orderIds.remove(this.random.nextInt(orderIds.size()));
+          this.execute("DELETE FROM orders WHERE id = ?", orderId);
+        }
+      }
+      assertEquals(this.rows(EXPECTED_SQL), this.rows(ACTUAL_SQL), "after step " + step);
+    }
+    // Zeroed rows must really be empty, not stale totals for a customer with no orders
+    assertEquals(
+        List.of(),
+        this.rows(
+            """
+            SELECT customer_id FROM customer_stats
+            WHERE total_orders = 0
+              AND (total_spent_cents <> 0 OR total_discount_cents <> 0
+                OR last_order_date IS NOT NULL)
+            """));
+  }
+
+  private int insertOrder() throws SQLException {
+    long createdAt = BASE_MILLIS + this.random.nextInt(1_000_000_000);
+    this.execute(
+        """
+        INSERT INTO orders (customer_id, fulfillment_type, fulfillment_status, total_items,
+            subtotal_cents, discount_amount_cents, final_amount_cents, created_at, updated_at,
+            is_deleted)
+        VALUES (?, 'PICKUP', 'PENDING', 1, ?, ?, ?, ?, ?, ?)
+        """,
+        this.randomCustomer(),
+        this.randomAmount(),
+        this.random.nextInt(500),
+        this.randomAmount(),
+        createdAt,
+        createdAt,
+        this.random.nextInt(5) == 0 ? 1 : 0);
+    return this.rows("SELECT last_insert_rowid()").get(0).get(0).intValue();
+  }
+
+  private void updateOrder(int orderId, String column, Object value) throws SQLException {
+    this.execute("UPDATE orders SET " + column + " = ? WHERE id = ?", value, orderId);
+  }
+
+  private int pick(List<Integer> orderIds) {
+    return orderIds.get(this.random.nextInt(orderIds.size()));
+  }
+
+  private int randomCustomer() {
+    return 1 + this.random.nextInt(CUSTOMERS);
+  }
+
+  private long randomAmount() {
+    return this.random.nextInt(100_000);
+  }
+
+  private void execute(String sql, Object... params) throws SQLException {
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql)) {
+      for (int i = 0; i < params.length; i++) {
+        stmt.setObject(i + 1, params[i]);
+      }
+      stmt.executeUpdate();
+    }
+  }
+
+  private List<List<Long>> rows(String sql) throws SQLException {
+    List<List<Long>> rows = new ArrayList<>();
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql);
+        ResultSet rs = stmt.executeQuery()) {
+      int columns = rs.getMetaData().getColumnCount();
+      while (rs.next()) {
+        List<Long> row = new ArrayList<>(columns);
+        for (int i = 1; i <= columns; i++) {
+          row.add(rs.getLong(i));
+        }
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+}
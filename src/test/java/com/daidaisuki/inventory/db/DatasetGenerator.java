@@ -0,0 +1,547 @@
+package com.daidaisuki.inventory.db;
+
+import com.daidaisuki.inventory.model.Product;
+import com.daidaisuki.inventory.model.factory.ProductFactory;
+import com.daidaisuki.inventory.util.TimestampUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Random;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fills an empty, migrated database with a synthetic dataset for load tests, benchmarks and UI
+ * stress runs. The same seed and scale always produce the same rows.
+ *
+ * <p>Rows go in through JDBC batches with explicit ids, committed once per chunk. The stock adds
+ * up: every batch holds its receipt minus its stock-out transactions, and every product holds the
+ * sum of its batches. Most batches are sold out; only the newest two of each product stay open.
+ *
+ * <p>To build a file the app can be started against:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.daidaisuki.inventory.db.DatasetGenerator \
+ *     -Dexec.args="stress/inventory.db LARGE 42"
+ * </pre>
+ */
+public class DatasetGenerator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DatasetGenerator.class);
+
+  public static final long DEFAULT_SEED = 42L;
+  public static final int SUPPLIERS = 50;
+  public static final int USER_ID = 1;
+  public static final OffsetDateTime HISTORY_START =
+      OffsetDateTime.of(2023, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+  public static final long HISTORY_SECONDS = 730L * 24 * 60 * 60;
+
+  private static final int CATEGORIES = 40;
+  private static final int OPEN_BATCHES = 2;
+  private static final int PRODUCT_CHUNK = 5_000;
+  private static final int ORDER_CHUNK = 20_000;
+  private static final String[] ACQUISITION_SOURCES = {
+    "Instagram", "Referral", "Walk-in", "Website"
+  };
+
+  /** Row counts to generate; transactions per batch include the receipt. */
+  public record Scale(
+      int products,
+      int batchesPerProduct,
+      int transactionsPerBatch,
+      int customers,
+      int orders,
+      int itemsPerOrder) {
+    public static final Scale SMALL = new Scale(2_000, 4, 3, 500, 5_000, 3);
+    public static final Scale MEDIUM = new Scale(20_000, 10, 5, 5_000, 100_000, 3);
+    // 2M batches, 10M inventory transactions, 1M orders
+    public static final Scale LARGE = new Scale(200_000, 10, 5, 50_000, 1_000_000, 3);
+
+    public Scale {
+      if (products < 1 || batchesPerProduct < 1 || transactionsPerBatch < 1) {
+        throw new IllegalArgumentException("Products, batches and transactions must be positive.");
+      }
+      if (customers < 1 || orders < 0 || itemsPerOrder < 1) {
+        throw new IllegalArgumentException("Invalid customer or order counts.");
+      }
+    }
+
+    public static Scale named(String name) {
+      return switch (name.toUpperCase(Locale.ROOT)) {
+        case "SMALL" -> SMALL;
+        case "MEDIUM" -> MEDIUM;
+        case "LARGE" -> LARGE;
+        default -> throw new IllegalArgumentException("Unknown scale: " + name);
+      };
+    }
+  }
+
+  public record Summary(
+      int products,
+      long batches,
+      long transactions,
+      int customers,
+      int orders,
+      long orderItems,
+      long elapsedMillis) {}
+
+  private final long seed;
+  private final Scale scale;
+  private Random random;
+  private long[] unitCosts;
+  private long[] sellingPrices;
+  private long transactions;
+
+  public DatasetGenerator(long seed, Scale scale) {
+    this.seed = seed;
+    this.scale = scale;
+  }
+
+  /** Writes the dataset and returns the number of rows added per table. */
+  public Summary generate(Connection conn) throws SQLException {
+    long start = System.nanoTime();
+    this.ensureEmpty(conn);
+    this.random = new Random(this.seed);
+    this.unitCosts = new long[this.scale.products() + 1];
+    this.sellingPrices = new long[this.scale.products() + 1];
+    this.transactions = 0;
+    boolean autoCommit = conn.getAutoCommit();
+    conn.setAutoCommit(false);
+    long orderItems;
+    try {
+      this.insertSuppliers(conn);
+      this.insertCustomers(conn);
+      conn.commit();
+      this.insertCatalog(conn);
+      orderItems = this.insertOrders(conn);
+    } catch (SQLException | RuntimeException e) {
+      conn.rollback();
+      throw e;
+    } finally {
+      conn.setAutoCommit(autoCommit);
+    }
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute("PRAGMA optimize;");
+    }
+    Summary summary =
+        new Summary(
+            this.scale.products(),
+            (long) this.scale.products() * this.scale.batchesPerProduct(),
+            this.transactions,
+            this.scale.customers(),
+            this.scale.orders(),
+            orderItems,
+            (System.nanoTime() - start) / 1_000_000);
+    LOGGER.info("Generated {}", summary);
+    return summary;
+  }
+
+  // Ids are assigned here rather than read back, so the tables must start out empty
+  private void ensureEmpty(Connection conn) throws SQLException {
+    String sql =
+        """
+        SELECT
+          (SELECT COUNT(*) FROM products WHERE id > 0)
+          + (SELECT COUNT(*) FROM stock_batches WHERE id > 0)
+          + (SELECT COUNT(*) FROM customers)
+          + (SELECT COUNT(*) FROM orders)
+        """;
+    try (Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(sql)) {
+      if (rs.next() && rs.getLong(1) > 0) {
+        throw new IllegalStateException("The dataset generator needs an empty database.");
+      }
+    }
+  }
+
+  private void insertSuppliers(Connection conn) throws SQLException {
+    String sql =
+        """
+        INSERT INTO suppliers(id, name, short_code, email, created_at, updated_at, is_deleted)
+        VALUES (?, ?, ?, ?, ?, ?, 0)
+        """;
+    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+      long createdAt = TimestampUtil.toEpochMillis(HISTORY_START);
+      for (int id = 1; id <= SUPPLIERS; id++) {
+        stmt.setInt(1, id);
+        stmt.setString(2, "Supplier " + this.word());
+        stmt.setString(3, "SUP" + id);
+        stmt.setString(4, "orders@supplier" + id + ".example.com");
+        stmt.setLong(5, createdAt);
+        stmt.setLong(6, createdAt);
+        stmt.addBatch();
+      }
+      stmt.executeBatch();
+    }
+  }
+
+  private void insertCustomers(Connection conn) throws SQLException {
+    String sql =
+        """
+        INSERT INTO customers(
+          id,
+          full_name,
+          phone_number,
+          email,
+          address,
+          acquisition_source,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+        """;
+    int customers = this.scale.customers();
+    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+      for (int id = 1; id <= customers; id++) {
+        long createdAt = this.at((long) id * HISTORY_SECONDS / 2 / customers);
+        stmt.setInt(1, id);
+        stmt.setString(2, this.capitalized(this.word()) + " " + this.capitalized(this.word()));
+        stmt.setString(3, String.valueOf(5_550_000_000L + id));
+        stmt.setString(4, "customer" + id + "@example.com");
+        stmt.setString(5, (1 + this.random.nextInt(9_999)) + " " + this.capitalized(this.word()));
+        stmt.setString(6, ACQUISITION_SOURCES[this.random.nextInt(ACQUISITION_SOURCES.length)]);
+        stmt.setLong(7, createdAt);
+        stmt.setLong(8, createdAt);
+        stmt.addBatch();
+      }
+      stmt.executeBatch();
+    }
+  }
+
+  // Products, their batches and the batches' ledger rows, a chunk of products per commit
+  private void insertCatalog(Connection conn) throws SQLException {
+    String productSql =
+        """
+        INSERT INTO products(
+          id,
+          sku,
+          barcode,
+          name,
+          category,
+          description,
+          weight,
+          current_stock,
+          min_stock_level,
+          max_stock_level,
+          reordering_level,
+          selling_price_cents,
+          average_unit_cost_cents,
+          is_active,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 1, ?, ?, 0)
+        """;
+    String batchSql =
+        """
+        INSERT INTO stock_batches(
+          id,
+          product_id,
+          supplier_id,
+          batch_code,
+          quantity_received,
+          quantity_remaining,
+          unit_cost_cents,
+          landed_cost_cents,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+        """;
+    String transactionSql =
+        """
+        INSERT INTO inventory_transactions(
+          product_id,
+          batch_id,
+          user_id,
+          reference_id,
+          change_amount,
+          transaction_type,
+          reason_code,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+        """;
+    int products = this.scale.products();
+    try (PreparedStatement productStmt = conn.prepareStatement(productSql);
+        PreparedStatement batchStmt = conn.prepareStatement(batchSql);
+        PreparedStatement transactionStmt = conn.prepareStatement(transactionSql)) {
+      for (int productId = 1; productId <= products; productId++) {
+        this.addProduct(productId, productStmt, batchStmt, transactionStmt);
+        if (productId % PRODUCT_CHUNK == 0 || productId == products) {
+          // Products first: the batches and ledger rows reference them
+          productStmt.executeBatch();
+          batchStmt.executeBatch();
+          transactionStmt.executeBatch();
+          conn.commit();
+          LOGGER.debug("Generated {} of {} products", productId, products);
+        }
+      }
+    }
+  }
+
+  private void addProduct(
+      int productId,
+      PreparedStatement productStmt,
+      PreparedStatement batchStmt,
+      PreparedStatement transactionStmt)
+      throws SQLException {
+    int batches = this.scale.batchesPerProduct();
+    int outflows = this.scale.transactionsPerBatch() - 1;
+    // Products appear during the first quarter of the history and restock over the rest
+    long createdSecond = (long) productId * (HISTORY_SECONDS / 4) / this.scale.products();
+    long restockInterval = (HISTORY_SECONDS - createdSecond) / batches;
+    long baseCost = 100 + this.random.nextInt(5_000);
+    int stock = 0;
+    long stockValue = 0;
+    for (int b = 0; b < batches; b++) {
+      long batchId = (long) (productId - 1) * batches + b + 1;
+      long receivedSecond = createdSecond + b * restockInterval;
+      long receivedAt = this.at(receivedSecond);
+      int received = outflows + 20 + this.random.nextInt(200);
+      // At least one unit per stock-out row; with no stock-out rows nothing can have sold
+      int remaining = received;
+      if (outflows > 0) {
+        remaining = b >= batches - OPEN_BATCHES ? this.random.nextInt(received - outflows + 1) : 0;
+      }
+      long unitCost = baseCost - baseCost / 10 + this.random.nextInt((int) (baseCost / 5) + 1);
+      batchStmt.setLong(1, batchId);
+      batchStmt.setInt(2, productId);
+      batchStmt.setInt(3, 1 + this.random.nextInt(SUPPLIERS));
+      batchStmt.setString(4, "B" + batchId);
+      batchStmt.setInt(5, received);
+      batchStmt.setInt(6, remaining);
+      batchStmt.setLong(7, unitCost);
+      batchStmt.setLong(8, unitCost + this.random.nextInt(50));
+      batchStmt.setLong(9, receivedAt);
+      batchStmt.setLong(10, receivedAt);
+      batchStmt.addBatch();
+
+      this.addTransaction(
+          transactionStmt, productId, batchId, 0, received, "STOCK_IN", "RECEIVED", receivedAt);
+      int sold = received - remaining;
+      for (int t = 0; t < outflows; t++) {
+        int left = outflows - t - 1;
+        int quantity =
+            left == 0 ? sold : 1 + this.random.nextInt(Math.max(1, (sold - left) / (left + 1)));
+        sold -= quantity;
+        long soldSecond = receivedSecond + (t + 1) * restockInterval / (outflows + 1);
+        int orderId = this.scale.orders() == 0 ? 0 : 1 + this.random.nextInt(this.scale.orders());
+        this.addTransaction(
+            transactionStmt,
+            productId,
+            batchId,
+            orderId,
+            -quantity,
+            "STOCK_OUT",
+            "SOLD",
+            this.at(soldSecond));
+      }
+      stock += remaining;
+      stockValue += remaining * unitCost;
+    }
+    long averageCost = stock > 0 ? Math.round((double) stockValue / stock) : baseCost;
+    long sellingPrice = baseCost * (130 + this.random.nextInt(120)) / 100;
+    this.unitCosts[productId] = averageCost;
+    this.sellingPrices[productId] = sellingPrice;
+
+    Product product =
+        ProductFactory.aStandardProduct()
+            .withId(productId)
+            .withSku(sku(productId))
+            .withBarcode(String.valueOf(4_900_000_000_000L + productId))
+            .withName(this.capitalized(this.word()) + " " + this.word())
+            .withCategory("Category " + this.random.nextInt(CATEGORIES))
+            .withWeight(10 + this.random.nextInt(2_000))
+            .withStock(stock)
+            .withPrice(sellingPrice)
+            .withAverageUnitCost(averageCost)
+            .withCreatedAt(HISTORY_START.plusSeconds(createdSecond))
+            .build();
+    long createdAt = TimestampUtil.toEpochMillis(product.getCreatedAt());
+    productStmt.setInt(1, product.getId());
+    productStmt.setString(2, product.getSku());
+    productStmt.setString(3, product.getBarcode());
+    productStmt.setString(4, product.getName());
+    productStmt.setString(5, product.getCategory());
+    productStmt.setString(6, product.getDescription());
+    productStmt.setInt(7, product.getWeight());
+    productStmt.setInt(8, product.getCurrentStock());
+    productStmt.setInt(9, product.getMinStockLevel());
+    productStmt.setInt(10, product.getMaxStockLevel());
+    productStmt.setInt(11, product.getReorderingLevel());
+    productStmt.setLong(12, product.getSellingPriceCents());
+    productStmt.setLong(13, product.getAverageUnitCostCents());
+    productStmt.setLong(14, createdAt);
+    productStmt.setLong(15, createdAt);
+    productStmt.addBatch();
+  }
+
+  private void addTransaction(
+      PreparedStatement stmt,
+      int productId,
+      long batchId,
+      int referenceId,
+      int changeAmount,
+      String type,
+      String reason,
+      long createdAt)
+      throws SQLException {
+    stmt.setInt(1, productId);
+    stmt.setLong(2, batchId);
+    stmt.setInt(3, USER_ID);
+    stmt.setInt(4, referenceId);
+    stmt.setInt(5, changeAmount);
+    stmt.setString(6, type);
+    stmt.setString(7, reason);
+    stmt.setLong(8, createdAt);
+    stmt.setLong(9, createdAt);
+    stmt.addBatch();
+    this.transactions++;
+  }
+
+  private long insertOrders(Connection conn) throws SQLException {
+    String orderSql =
+        """
+        INSERT INTO orders(
+          id,
+          customer_id,
+          fulfillment_type,
+          fulfillment_status,
+          total_items,
+          subtotal_cents,
+          tax_amount_cents,
+          discount_amount_cents,
+          shipping_cost_cents,
+          shipping_cost_actual_cents,
+          final_amount_cents,
+          payment_method,
+          tracking_number,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+        """;
+    String itemSql =
+        """
+        INSERT INTO order_items(
+          order_id,
+          product_id,
+          batch_id,
+          quantity,
+          unit_price_at_sale_cents,
+          unit_cost_at_sale_cents,
+          created_at,
+          updated_at,
+          is_deleted)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)
+        """;
+    int orders = this.scale.orders();
+    long items = 0;
+    try (PreparedStatement orderStmt = conn.prepareStatement(orderSql);
+        PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+      for (int orderId = 1; orderId <= orders; orderId++) {
+        long createdAt = this.at((long) orderId * HISTORY_SECONDS / orders);
+        int totalItems = 0;
+        long subtotal = 0;
+        for (int i = 0; i < this.scale.itemsPerOrder(); i++) {
+          int productId = this.popularProductId();
+          int batch = this.random.nextInt(this.scale.batchesPerProduct());
+          int quantity = 1 + this.random.nextInt(4);
+          totalItems += quantity;
+          subtotal += quantity * this.sellingPrices[productId];
+          itemStmt.setInt(1, orderId);
+          itemStmt.setInt(2, productId);
+          itemStmt.setLong(3, (long) (productId - 1) * this.scale.batchesPerProduct() + batch + 1);
+          itemStmt.setInt(4, quantity);
+          itemStmt.setLong(5, this.sellingPrices[productId]);
+          itemStmt.setLong(6, this.unitCosts[productId]);
+          itemStmt.setLong(7, createdAt);
+          itemStmt.setLong(8, createdAt);
+          itemStmt.addBatch();
+          items++;
+        }
+        boolean shipped = this.random.nextInt(3) == 0;
+        long discount = this.random.nextInt(10) == 0 ? subtotal / 10 : 0;
+        long shipping = shipped ? 500 + this.random.nextInt(1_000) : 0;
+        orderStmt.setInt(1, orderId);
+        orderStmt.setInt(2, this.popularCustomerId());
+        orderStmt.setString(3, shipped ? "SHIPPING" : "PICKUP");
+        orderStmt.setString(4, this.random.nextInt(20) == 0 ? "PENDING" : "COMPLETED");
+        orderStmt.setInt(5, totalItems);
+        orderStmt.setLong(6, subtotal);
+        orderStmt.setLong(7, discount);
+        orderStmt.setLong(8, shipping);
+        orderStmt.setLong(9, shipping);
+        orderStmt.setLong(10, subtotal - discount + shipping);
+        orderStmt.setString(11, this.random.nextBoolean() ? "CASH" : "VENMO");
+        orderStmt.setString(12, shipped ? "TRK" + orderId : null);
+        orderStmt.setLong(13, createdAt);
+        orderStmt.setLong(14, createdAt);
+        orderStmt.addBatch();
+        if (orderId % ORDER_CHUNK == 0 || orderId == orders) {
+          orderStmt.executeBatch();
+          itemStmt.executeBatch();
+          conn.commit();
+          LOGGER.debug("Generated {} of {} orders", orderId, orders);
+        }
+      }
+    }
+    return items;
+  }
+
+  public static String sku(int productId) {
+    return String.format("GEN-%07d", productId);
+  }
+
+  // Skewed towards low ids, so a few products and customers account for most sales
+  private int popularProductId() {
+    double r = this.random.nextDouble();
+    return 1 + (int) (r * r * this.scale.products());
+  }
+
+  private int popularCustomerId() {
+    double r = this.random.nextDouble();
+    return 1 + (int) (r * r * this.scale.customers());
+  }
+
+  private long at(long secondsIntoHistory) {
+    return TimestampUtil.toEpochMillis(HISTORY_START) + secondsIntoHistory * 1_000;
+  }
+
+  private String word() {
+    return Integer.toString(46_656 + this.random.nextInt(1_632_960), 36);
+  }
+
+  private String capitalized(String word) {
+    return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+  }
+
+  /** Writes a new database file: {@code <path> [SMALL|MEDIUM|LARGE] [seed]}. */
+  public static void main(String[] args) throws IOException, SQLException {
+    if (args.length < 1) {
+      throw new IllegalArgumentException(
+          "Usage: DatasetGenerator <database file> [SMALL|MEDIUM|LARGE] [seed]");
+    }
+    Path path = Path.of(args[0]).toAbsolutePath();
+    if (Files.exists(path)) {
+      throw new IllegalStateException("Refusing to write into existing file " + path);
+    }
+    Files.createDirectories(path.getParent());
+    Scale scale = args.length > 1 ? Scale.named(args[1]) : Scale.MEDIUM;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+    try (Connection conn = PragmaProfile.FAST.openWriter("jdbc:sqlite:" + path)) {
+      DatabaseManager.migrate(conn);
+      new DatasetGenerator(seed, scale).generate(conn);
+    }
+  }
+}
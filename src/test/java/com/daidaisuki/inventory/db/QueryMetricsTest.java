@@ -0,0 +1,68 @@
+package com.daidaisuki.inventory.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import com.daidaisuki.inventory.model.projection.StatementMetrics;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class QueryMetricsTest {
+  private static final long CONSUMER_MILLIS = 50;
+
+  private Connection connection;
+  private ProductDAO productDAO;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.productDAO = new ProductDAO(this.connection, null);
+    for (String sku : new String[] {"STREAM-A", "STREAM-B", "STREAM-C"}) {
+      this.productDAO.save(
+          new ProductBuilder().withSku(sku).withBarcode(sku).withName(sku).build());
+    }
+    QueryMetrics.reset();
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    QueryMetrics.reset();
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("A streamed statement is timed without the time spent in its consumer")
+  void testStreamTimingExcludesConsumer() {
+    long streamed =
+        this.productDAO.streamAllActiveRecords(
+            product -> {
+              try {
+                Thread.sleep(CONSUMER_MILLIS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+              }
+            });
+
+    assertEquals(3, streamed);
+    StatementMetrics metrics = QueryMetrics.snapshot().get(0);
+    assertEquals(1, metrics.calls());
+    assertEquals(3, metrics.rowsReturned());
+    assertTrue(
+        metrics.maxNanos() < TimeUnit.MILLISECONDS.toNanos(CONSUMER_MILLIS),
+        metrics.maxNanos() + " ns");
+  }
+}
@@ -0,0 +1,149 @@
+package com.daidaisuki.inventory.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SchemaMigratorTest {
+  private static final int TEXT_TIMESTAMP_VERSION = 5;
+
+  private Connection connection;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("A new database reaches the latest version, and migrating again applies nothing")
+  void testMigrateIsIdempotent() throws SQLException {
+    SchemaMigrator migrator = new SchemaMigrator(this.connection, DatabaseManager.MIGRATIONS);
+
+    assertEquals(DatabaseManager.MIGRATIONS.size(), migrator.migrate().size());
+    assertEquals(migrator.getLatestVersion(), migrator.getCurrentVersion());
+    assertTrue(migrator.migrate().isEmpty());
+    assertEquals(migrator.getLatestVersion(), migrator.getCurrentVersion());
+  }
+
+  @Test
+  @DisplayName("A failing step rolls back along with its version, and newer files are refused")
+  void testFailedStepKeepsPreviousVersion() throws SQLException {
+    List<Migration> migrations =
+        List.of(
+            new Migration(1, "First", stmt -> stmt.execute("CREATE TABLE first (id INTEGER);")),
+            new Migration(
+                2,
+                "Broken",
+                stmt -> {
+                  stmt.execute("CREATE TABLE second (id INTEGER);");
+                  stmt.execute("INSERT INTO missing VALUES (1);");
+                }));
+    SchemaMigrator migrator = new SchemaMigrator(this.connection, migrations);
+
+    assertThrows(SQLException.class, migrator::migrate);
+    assertEquals(1, migrator.getCurrentVersion());
+    assertEquals(0L, this.queryLong("SELECT COUNT(*) FROM sqlite_master WHERE name = 'second'"));
+
+    this.execute("PRAGMA user_version = 3;");
+    assertThrows(SQLException.class, migrator::migrate);
+  }
+
+  @Test
+  @DisplayName("Version 6 turns ISO text timestamps into UTC epoch millis and keeps bad text")
+  void testTextTimestampsConvertToEpochMillis() throws SQLException {
+    new SchemaMigrator(
+            this.connection, DatabaseManager.MIGRATIONS.subList(0, TEXT_TIMESTAMP_VERSION))
+        .migrate();
+    // Past midnight at +02:00 is still the previous day in UTC
+    String createdAt = "2026-03-09T01:15:00+02:00";
+    String updatedAt = "2026-03-09T10:00:00.123Z";
+    int orderId = this.insertOrder(1, createdAt, updatedAt);
+    int brokenOrderId = this.insertOrder(2, "not a date", updatedAt);
+    this.execute(
+        """
+        INSERT INTO order_items (order_id, product_id, batch_id, quantity,
+            unit_price_at_sale_cents, unit_cost_at_sale_cents, created_at, updated_at, is_deleted)
+        VALUES (%d, 1, 1, 2, 500, 300, '%s', '%s', 0)
+        """
+            .formatted(orderId, createdAt, updatedAt));
+
+    DatabaseManager.migrate(this.connection);
+
+    long createdMillis = OffsetDateTime.parse(createdAt).toInstant().toEpochMilli();
+    assertEquals(
+        "integer", this.queryString("SELECT typeof(created_at) FROM orders WHERE id = " + orderId));
+    assertEquals(
+        createdMillis, this.queryLong("SELECT created_at FROM orders WHERE id = " + orderId));
+    assertEquals(
+        Instant.parse(updatedAt).toEpochMilli(),
+        this.queryLong("SELECT updated_at FROM order_items"));
+    assertEquals(
+        createdMillis,
+        this.queryLong("SELECT last_order_date FROM customer_stats WHERE customer_id = 1"));
+    assertEquals(
+        "not a date",
+        this.queryString("SELECT created_at FROM orders WHERE id = " + brokenOrderId));
+
+    // The rebuilt rollup triggers read the converted order date as a UTC day
+    this.execute("INSERT INTO sales_rollup_periods VALUES ('DAY', '2026-03-08', 0);");
+    this.execute("INSERT INTO sales_rollup_periods VALUES ('DAY', '2026-03-09', 0);");
+    this.execute("UPDATE order_items SET quantity = 3;");
+    assertEquals(1L, this.queryLong("SELECT COUNT(*) FROM sales_rollup_periods"));
+    assertEquals("2026-03-09", this.queryString("SELECT period_start FROM sales_rollup_periods"));
+  }
+
+  private int insertOrder(int customerId, String createdAt, String updatedAt)
+      throws SQLException {
+    this.execute(
+        """
+        INSERT INTO orders (customer_id, fulfillment_type, fulfillment_status, total_items,
+            subtotal_cents, final_amount_cents, created_at, updated_at, is_deleted)
+        VALUES (%d, 'PICKUP', 'PENDING', 2, 1000, 1000, '%s', '%s', 0)
+        """
+            .formatted(customerId, createdAt, updatedAt));
+    return (int) this.queryLong("SELECT last_insert_rowid()");
+  }
+
+  private void execute(String sql) throws SQLException {
+    try (Statement stmt = this.connection.createStatement()) {
+      stmt.execute(sql);
+    }
+  }
+
+  private long queryLong(String sql) throws SQLException {
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql);
+        ResultSet rs = stmt.executeQuery()) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private String queryString(String sql) throws SQLException {
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql);
+        ResultSet rs = stmt.executeQuery()) {
+      rs.next();
+      return rs.getString(1);
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.daidaisuki.inventory.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.model.Product;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TransactionManagerTest {
+  private static final long TIMEOUT_SECONDS = 10;
+  // Long enough for the second thread to reach the writer before the first one finishes
+  private static final long HOLD_MILLIS = 200;
+
+  private Connection connection;
+  private TransactionManager transactionManager;
+  private ProductDAO productDAO;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.transactionManager = new TransactionManager(this.connection);
+    this.productDAO = new ProductDAO(this.connection, null);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("A transaction on another thread waits and survives the first one's rollback")
+  void testConcurrentTransactionIsNotRolledBackByAnother() throws Exception {
+    CountDownLatch firstOpened = new CountDownLatch(1);
+    CountDownLatch secondStarted = new CountDownLatch(1);
+    CountDownLatch secondDone = new CountDownLatch(1);
+
+    CompletableFuture<Void> first =
+        CompletableFuture.runAsync(
+            () ->
+                this.transactionManager.executeInTransaction(
+                    () -> {
+                      this.productDAO.save(product("FIRST"));
+                      firstOpened.countDown();
+                      await(secondStarted);
+                      sleep(HOLD_MILLIS);
+                      assertEquals(1, secondDone.getCount(), "second ran inside the first");
+                      throw new IllegalStateException("rollback");
+                    }));
+    CompletableFuture<Void> second =
+        CompletableFuture.runAsync(
+            () -> {
+              await(firstOpened);
+              secondStarted.countDown();
+              this.transactionManager.executeInTransaction(
+                  () -> {
+                    this.productDAO.save(product("SECOND"));
+                  });
+              secondDone.countDown();
+            });
+
+    Exception failure =
+        assertThrows(Exception.class, () -> first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertTrue(failure.getCause() instanceof IllegalStateException, failure.toString());
+    second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertFalse(this.skuExists("FIRST"));
+    assertTrue(this.skuExists("SECOND"));
+  }
+
+  @Test
+  @DisplayName("The cache only publishes what was committed when transactions overlap")
+  void testCacheNeverPublishesRolledBackValues() throws Exception {
+    Product saved = this.productDAO.save(product("STOCKED"));
+    this.productDAO.updateStockTotal(saved.getId(), 10);
+    // Loads the row into the cache so both writers have a cached row to change
+    this.productDAO.findById(saved.getId());
+    CountDownLatch firstOpened = new CountDownLatch(1);
+
+    CompletableFuture<Void> first =
+        CompletableFuture.runAsync(
+            () ->
+                this.transactionManager.executeInTransaction(
+                    () -> {
+                      this.productDAO.updateStockTotal(saved.getId(), 5);
+                      firstOpened.countDown();
+                      sleep(HOLD_MILLIS);
+                      throw new IllegalStateException("rollback");
+                    }));
+    CompletableFuture<Void> second =
+        CompletableFuture.runAsync(
+            () -> {
+              await(firstOpened);
+              this.transactionManager.executeInTransaction(
+                  () -> {
+                    this.productDAO.updateStockTotal(saved.getId(), 1);
+                  });
+            });
+
+    assertThrows(Exception.class, () -> first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    assertEquals(11, this.storedStock(saved.getId()));
+    assertEquals(11, this.productDAO.findById(saved.getId()).orElseThrow().getCurrentStock());
+  }
+
+  @Test
+  @DisplayName("A nested call on the same thread joins the open transaction")
+  void testNestedTransactionJoinsOuter() throws SQLException {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            this.transactionManager.executeInTransaction(
+                () -> {
+                  this.transactionManager.executeInTransaction(
+                      () -> {
+                        this.productDAO.save(product("NESTED"));
+                      });
+                  assertTrue(TransactionManager.isInTransaction());
+                  throw new IllegalStateException("rollback");
+                }));
+
+    assertFalse(TransactionManager.isInTransaction());
+    assertFalse(this.skuExists("NESTED"));
+    assertTrue(this.connection.getAutoCommit());
+  }
+
+  private static Product product(String sku) {
+    return new ProductBuilder().withSku(sku).withBarcode(sku).withName(sku).build();
+  }
+
+  private boolean skuExists(String sku) throws SQLException {
+    try (PreparedStatement stmt =
+        this.connection.prepareStatement("SELECT 1 FROM products WHERE sku = ?")) {
+      stmt.setString(1, sku);
+      try (ResultSet rs = stmt.executeQuery()) {
+        return rs.next();
+      }
+    }
+  }
+
+  private int storedStock(int productId) throws SQLException {
+    try (PreparedStatement stmt =
+        this.connection.prepareStatement("SELECT current_stock FROM products WHERE id = ?")) {
+      stmt.setInt(1, productId);
+      try (ResultSet rs = stmt.executeQuery()) {
+        rs.next();
+        return rs.getInt(1);
+      }
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Timed out waiting for the other thread.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
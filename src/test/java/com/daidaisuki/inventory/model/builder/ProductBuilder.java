@@ -1,5 +1,6 @@
 package com.daidaisuki.inventory.model.builder;
 
+import com.daidaisuki.inventory.model.Product;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 
@@ -7,8 +8,12 @@ public class ProductBuilder {
   // 1. Set "Sane Defaults" for all 14 fields
   private int id = 101;
   private String sku = "SKU-001";
+  private String barcode = "BAR-001";
   private String name = "Default Product";
+  private String category = "Electronics";
+  private int weight = 0;
   private long price = 1000L;
+  private long averageUnitCost = 500L;
   private int stock = 10;
   private OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
 
@@ -23,11 +28,26 @@ public class ProductBuilder {
     return this;
   }
 
+  public ProductBuilder withBarcode(String barcode) {
+    this.barcode = barcode;
+    return this;
+  }
+
   public ProductBuilder withName(String name) {
     this.name = name;
     return this;
   }
 
+  public ProductBuilder withCategory(String category) {
+    this.category = category;
+    return this;
+  }
+
+  public ProductBuilder withWeight(int weight) {
+    this.weight = weight;
+    return this;
+  }
+
   public ProductBuilder withStock(int stock) {
     this.stock = stock;
     return this;
@@ -38,14 +58,37 @@ public class ProductBuilder {
     return this;
   }
 
+  public ProductBuilder withAverageUnitCost(long averageUnitCost) {
+    this.averageUnitCost = averageUnitCost;
+    return this;
+  }
+
   public ProductBuilder withCreatedAt(OffsetDateTime now) {
     this.now = now;
     return this;
   }
 
   // 3. The "Build" method calls the actual Product constructor
-  /*public Product build() {
+  public Product build() {
     return new Product(
-        id, sku, "BAR-001", name, "Electronics", "Desc", 0, stock, price, 5, true, now, now, false);
-  }*/
+        id,
+        sku,
+        barcode,
+        name,
+        category,
+        "each",
+        "standard",
+        "Desc",
+        weight,
+        stock,
+        2,
+        100,
+        5,
+        price,
+        averageUnitCost,
+        true,
+        now,
+        now,
+        false);
+  }
 }
@@ -0,0 +1,92 @@
+package com.daidaisuki.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExportServiceTest {
+  private static final long CREATED_AT = 1_773_050_400_000L;
+
+  private Connection connection;
+  private ExportService exportService;
+  private ProductDAO productDAO;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.exportService = new ExportService(this.connection, null);
+    this.productDAO = new ProductDAO(this.connection, null);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("Ledger reason codes holding a separator, quote or line break are quoted")
+  void testLedgerQuotesSpecialFields() throws IOException, SQLException {
+    this.insertTransaction("Recount");
+    this.insertTransaction("Damaged\rbox, \"wet\"");
+    StringWriter writer = new StringWriter();
+
+    assertEquals(2, this.exportService.exportTransactionLedger(writer));
+    String csv = writer.toString();
+    assertTrue(csv.contains(",STOCK_IN,Recount,"), csv);
+    assertTrue(csv.contains(",STOCK_IN,\"Damaged\rbox, \"\"wet\"\"\","), csv);
+  }
+
+  @Test
+  @DisplayName("Fields holding a separator, quote or line break are quoted in the catalog")
+  void testCatalogQuotesSpecialFields() throws IOException {
+    this.productDAO.save(
+        new ProductBuilder()
+            .withSku("CR-1")
+            .withBarcode("CR-1")
+            .withName("Old\rMac")
+            .withCategory("Tea, \"loose\"")
+            .build());
+    StringWriter writer = new StringWriter();
+
+    assertEquals(1, this.exportService.exportProductCatalog(writer));
+    String csv = writer.toString();
+    assertTrue(csv.contains(",\"Old\rMac\",\"Tea, \"\"loose\"\"\","), csv);
+  }
+
+  private void insertTransaction(String reasonCode) throws SQLException {
+    try (PreparedStatement stmt =
+        this.connection.prepareStatement(
+            """
+            INSERT INTO inventory_transactions (product_id, batch_id, user_id, reference_id,
+                change_amount, transaction_type, reason_code, created_at, updated_at, is_deleted)
+            VALUES (0, 0, 1, 0, 5, 'STOCK_IN', ?, ?, ?, 0)
+            """)) {
+      stmt.setString(1, reasonCode);
+      stmt.setLong(2, CREATED_AT);
+      stmt.setLong(3, CREATED_AT);
+      stmt.executeUpdate();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.daidaisuki.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.dao.impl.StockBatchDAO;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.enums.TransactionType;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import com.daidaisuki.inventory.model.dto.StockAdjustRequest;
+import com.daidaisuki.inventory.model.projection.StockBatchRecord;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InventoryServiceFifoTest {
+  private static final int USER_ID = 1;
+
+  private Connection connection;
+  private InventoryService inventoryService;
+  private StockBatchDAO stockBatchDAO;
+  private int productId;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.inventoryService = new InventoryService(this.connection, null);
+    this.stockBatchDAO = new StockBatchDAO(this.connection, null);
+    ProductDAO productDAO = new ProductDAO(this.connection, null);
+    this.productId =
+        productDAO
+            .save(new ProductBuilder().withSku("FIFO").withBarcode("FIFO").withName("FIFO").build())
+            .getId();
+    // Ids and receipt times deliberately disagree, and batches 2 and 4 share a timestamp
+    this.insertBatch(1, 3_000L, 5);
+    this.insertBatch(2, 1_000L, 5);
+    this.insertBatch(3, 2_000L, 5);
+    this.insertBatch(4, 1_000L, 5);
+    productDAO.updateStockTotal(this.productId, 20);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("Covering batches come back oldest first with ties broken by id")
+  void testCoveringBatchesAreInFifoOrder() {
+    List<Integer> allIds = new ArrayList<>();
+    for (StockBatchRecord batch : this.stockBatchDAO.findFifoBatchesCovering(this.productId, 20)) {
+      allIds.add(batch.id());
+    }
+    List<Integer> coveringIds = new ArrayList<>();
+    for (StockBatchRecord batch : this.stockBatchDAO.findFifoBatchesCovering(this.productId, 7)) {
+      coveringIds.add(batch.id());
+    }
+
+    assertEquals(List.of(2, 4, 3, 1), allIds);
+    assertEquals(List.of(2, 4), coveringIds);
+  }
+
+  @Test
+  @DisplayName("A deduction drains the oldest batches first and leaves the newest untouched")
+  void testDeductionAllocatesInFifoOrder() throws SQLException {
+    this.inventoryService.stockAdjust(
+        new StockAdjustRequest(this.productId, -12, 0L, TransactionType.DAMAGE, "test"), USER_ID);
+
+    assertEquals(Map.of(1, 5, 2, 0, 3, 3, 4, 0), this.remainingByBatch());
+    assertEquals(Map.of(2, -5, 4, -5, 3, -2), this.ledgerByBatch());
+    assertEquals(List.of(2, 4, 3), new ArrayList<>(this.ledgerByBatch().keySet()));
+  }
+
+  private void insertBatch(int id, long createdAt, int quantity) throws SQLException {
+    String sql =
+        """
+        INSERT INTO stock_batches (id, product_id, supplier_id, quantity_received,
+            quantity_remaining, unit_cost_cents, landed_cost_cents, created_at, updated_at,
+            is_deleted)
+        VALUES (?, ?, 0, ?, ?, 100, 100, ?, ?, 0)
+        """;
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql)) {
+      stmt.setInt(1, id);
+      stmt.setInt(2, this.productId);
+      stmt.setInt(3, quantity);
+      stmt.setInt(4, quantity);
+      stmt.setLong(5, createdAt);
+      stmt.setLong(6, createdAt);
+      stmt.executeUpdate();
+    }
+  }
+
+  private Map<Integer, Integer> remainingByBatch() throws SQLException {
+    return this.queryMap("SELECT id, quantity_remaining FROM stock_batches ORDER BY id");
+  }
+
+  private Map<Integer, Integer> ledgerByBatch() throws SQLException {
+    return this.queryMap("SELECT batch_id, change_amount FROM inventory_transactions ORDER BY id");
+  }
+
+  private Map<Integer, Integer> queryMap(String sql) throws SQLException {
+    Map<Integer, Integer> result = new LinkedHashMap<>();
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql);
+        ResultSet rs = stmt.executeQuery()) {
+      while (rs.next()) {
+        result.put(rs.getInt(1), rs.getInt(2));
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,183 @@
+package com.daidaisuki.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.model.Product;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import com.daidaisuki.inventory.model.dto.BulkReceiveResult;
+import com.daidaisuki.inventory.model.dto.StockReceiveFailure;
+import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
+import com.daidaisuki.inventory.util.CurrencyUtil;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InventoryServiceReceiveTest {
+  private static final int USER_ID = 1;
+  private static final int MISSING_PRODUCT_ID = 999;
+
+  private Connection connection;
+  private InventoryService inventoryService;
+  private ProductDAO productDAO;
+  private int firstProductId;
+  private int secondProductId;
+  private int archivedProductId;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.inventoryService = new InventoryService(this.connection, null);
+    this.productDAO = new ProductDAO(this.connection, null);
+    this.firstProductId = this.productDAO.save(product("RECV-A")).getId();
+    this.secondProductId = this.productDAO.save(product("RECV-B")).getId();
+    this.archivedProductId = this.productDAO.save(product("RECV-C")).getId();
+    this.productDAO.archive(this.archivedProductId);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("A bulk receipt books the valid lines and reports the rest by line index")
+  void testBulkReceiveBooksValidLinesAndReportsFailures() throws SQLException {
+    this.inventoryService.receiveNewStock(line(this.firstProductId, 10, 333), USER_ID);
+    List<StockReceiveRequest> lines =
+        List.of(
+            line(this.firstProductId, 5, 199),
+            line(this.secondProductId, 3, 1_000),
+            line(this.firstProductId, 0, 100),
+            line(this.archivedProductId, 2, 100),
+            line(MISSING_PRODUCT_ID, 1, 100),
+            line(this.firstProductId, 7, 250),
+            line(this.secondProductId, 1, -1));
+
+    BulkReceiveResult result = this.inventoryService.receiveNewStockBulk(lines, USER_ID);
+
+    assertEquals(3, result.receivedLines());
+    List<Integer> failedLines = new ArrayList<>();
+    for (StockReceiveFailure failure : result.failures()) {
+      failedLines.add(failure.lineIndex());
+    }
+    assertEquals(List.of(2, 3, 4, 6), failedLines);
+    assertEquals(22, this.storedLong("current_stock", this.firstProductId));
+    assertEquals(
+        oldAverageCostCents(333, 10, 5 * 199 + 7 * 250, 12),
+        this.storedLong("average_unit_cost_cents", this.firstProductId));
+    assertEquals(3, this.storedLong("current_stock", this.secondProductId));
+    assertEquals(0, this.storedLong("current_stock", this.archivedProductId));
+    Product cached = this.productDAO.findById(this.firstProductId).orElseThrow();
+    assertEquals(22, cached.getCurrentStock());
+    // One STOCK_IN row per received batch, for its own product and quantity; bulk lines are
+    // written grouped by product
+    assertEquals(
+        List.of(
+            List.of((long) this.firstProductId, 10L),
+            List.of((long) this.firstProductId, 5L),
+            List.of((long) this.firstProductId, 7L),
+            List.of((long) this.secondProductId, 3L)),
+        this.rows(
+            """
+            SELECT b.product_id, b.quantity_received
+            FROM inventory_transactions t
+            JOIN stock_batches b ON b.id = t.batch_id
+              AND b.product_id = t.product_id AND b.quantity_received = t.change_amount
+            WHERE t.transaction_type = 'STOCK_IN'
+            ORDER BY t.id
+            """));
+  }
+
+  @Test
+  @DisplayName("Average unit cost in cents matches the BigDecimal formula it replaced")
+  void testAverageCostMatchesBigDecimalFormula() throws SQLException {
+    Random random = new Random(25);
+    long averageCents = 0;
+    int stock = 0;
+    for (int i = 0; i < 200; i++) {
+      int quantity = 1 + random.nextInt(random.nextBoolean() ? 10 : 5_000);
+      long unitCostCents = random.nextInt(random.nextBoolean() ? 200 : 1_000_000);
+      if (random.nextBoolean()) {
+        this.inventoryService.receiveNewStock(
+            line(this.firstProductId, quantity, unitCostCents), USER_ID);
+      } else {
+        this.inventoryService.receiveNewStockBulk(
+            List.of(line(this.firstProductId, quantity, unitCostCents)), USER_ID);
+      }
+      averageCents =
+          oldAverageCostCents(averageCents, stock, unitCostCents * quantity, quantity);
+      stock += quantity;
+
+      assertEquals(
+          averageCents,
+          this.storedLong("average_unit_cost_cents", this.firstProductId),
+          "receipt " + i);
+    }
+    assertEquals(
+        averageCents,
+        this.productDAO.findById(this.firstProductId).orElseThrow().getAverageUnitCostCents());
+  }
+
+  // The pre-cents weighted average: HALF_UP to four places, then HALF_UP to cents on store
+  private static long oldAverageCostCents(
+      long averageCents, int stock, long incomingValueCents, int incomingQuantity) {
+    BigDecimal totalValue =
+        CurrencyUtil.longToBigDecimal(averageCents)
+            .multiply(BigDecimal.valueOf(stock))
+            .add(CurrencyUtil.longToBigDecimal(incomingValueCents));
+    BigDecimal average =
+        totalValue.divide(
+            BigDecimal.valueOf(stock + incomingQuantity), 4, RoundingMode.HALF_UP);
+    return CurrencyUtil.bigDecimalToLong(average);
+  }
+
+  private long storedLong(String column, int productId) throws SQLException {
+    return this.rows("SELECT " + column + " FROM products WHERE id = " + productId).get(0).get(0);
+  }
+
+  private List<List<Long>> rows(String sql) throws SQLException {
+    List<List<Long>> rows = new ArrayList<>();
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql);
+        ResultSet rs = stmt.executeQuery()) {
+      int columns = rs.getMetaData().getColumnCount();
+      while (rs.next()) {
+        List<Long> row = new ArrayList<>(columns);
+        for (int i = 1; i <= columns; i++) {
+          row.add(rs.getLong(i));
+        }
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private static StockReceiveRequest line(int productId, int quantity, long unitCostCents) {
+    return new StockReceiveRequest(productId, 0, null, quantity, unitCostCents, null, "test");
+  }
+
+  private static Product product(String sku) {
+    return new ProductBuilder().withSku(sku).withBarcode(sku).withName(sku).build();
+  }
+}
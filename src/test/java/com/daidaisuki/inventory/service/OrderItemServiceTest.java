@@ -0,0 +1,90 @@
+package com.daidaisuki.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.model.OrderItem;
+import com.daidaisuki.inventory.model.dto.StockAllocation;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OrderItemServiceTest {
+  private static final int ORDER_ID = 7;
+
+  private Connection connection;
+  private TransactionManager transactionManager;
+  private OrderItemService orderItemService;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.transactionManager = new TransactionManager(this.connection);
+    this.orderItemService = new OrderItemService(this.connection, null);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("Batch-created order lines come back with the ids they were stored under")
+  void testCreateItemsReturnsStoredIds() {
+    this.orderItemService.createItem(
+        new OrderItem(ORDER_ID, 1, 1, 1, 450, 0), ORDER_ID, new StockAllocation(1, 1, 100));
+    OrderItem uiItem = new OrderItem(ORDER_ID, 2, 0, 8, 450, 0);
+    List<StockAllocation> allocations =
+        List.of(
+            new StockAllocation(3, 2, 100),
+            new StockAllocation(4, 5, 120),
+            new StockAllocation(9, 1, 130));
+
+    List<OrderItem> created =
+        this.transactionManager.executeInTransaction(
+            () -> this.orderItemService.createItemsInternal(uiItem, ORDER_ID, allocations));
+
+    assertEquals(allocations.size(), created.size());
+    Map<Integer, String> returned = new TreeMap<>();
+    for (int i = 0; i < created.size(); i++) {
+      assertEquals(allocations.get(i).batchId(), created.get(i).getBatchId());
+      assertEquals(allocations.get(i).unitCostCents(), created.get(i).getUnitCostAtSaleCents());
+      returned.put(created.get(i).getId(), describe(created.get(i)));
+    }
+    Map<Integer, String> stored = new TreeMap<>();
+    for (OrderItem item : this.orderItemService.listByOrderId(ORDER_ID)) {
+      if (item.getProductId() == uiItem.getProductId()) {
+        stored.put(item.getId(), describe(item));
+      }
+    }
+    assertEquals(stored, returned);
+  }
+
+  private static String describe(OrderItem item) {
+    return item.getOrderId()
+        + "/"
+        + item.getBatchId()
+        + "/"
+        + item.getQuantity()
+        + "/"
+        + item.getUnitPriceAtSaleCents()
+        + "/"
+        + item.getUnitCostAtSaleCents();
+  }
+}
@@ -0,0 +1,294 @@
+package com.daidaisuki.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.dao.impl.SalesRollupDAO;
+import com.daidaisuki.inventory.dao.impl.StockBatchDAO;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.enums.PeriodGrain;
+import com.daidaisuki.inventory.enums.SalesDimension;
+import com.daidaisuki.inventory.enums.TransactionType;
+import com.daidaisuki.inventory.model.Order;
+import com.daidaisuki.inventory.model.OrderItem;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import com.daidaisuki.inventory.model.dto.StockAdjustRequest;
+import com.daidaisuki.inventory.model.dto.StockAllocation;
+import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
+import com.daidaisuki.inventory.model.dto.ValuationReport;
+import com.daidaisuki.inventory.model.projection.CategoryValuation;
+import com.daidaisuki.inventory.model.projection.MarginRow;
+import com.daidaisuki.inventory.util.TimestampUtil;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ReportServiceTest {
+  // A Sunday, the last day of its Monday-based week
+  private static final LocalDate SUNDAY = LocalDate.of(2026, 3, 8);
+  private static final LocalDate MONDAY = SUNDAY.plusDays(1);
+  private static final long NOON_MILLIS = 12 * 3_600_000L;
+
+  private Connection connection;
+  private ReportService reportService;
+  private SalesRollupDAO salesRollupDAO;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.reportService = new ReportService(this.connection, null);
+    this.salesRollupDAO = new SalesRollupDAO(this.connection, null);
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("SQL period starts agree with PeriodGrain.startOf on every weekday")
+  void testSqlPeriodStartMatchesJava() throws SQLException {
+    LocalDate until = MONDAY.plusDays(7);
+    for (PeriodGrain grain : PeriodGrain.values()) {
+      for (LocalDate day = SUNDAY.minusDays(7); day.isBefore(until); day = day.plusDays(1)) {
+        try (PreparedStatement stmt =
+            this.connection.prepareStatement(
+                "SELECT %s, %s".formatted(grain.sqlStartOf("?1"), grain.sqlNext("?2")))) {
+          stmt.setString(1, day.toString());
+          stmt.setString(2, grain.startOf(day).toString());
+          try (ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            assertEquals(grain.startOf(day).toString(), rs.getString(1), grain + " " + day);
+            assertEquals(grain.next(grain.startOf(day)).toString(), rs.getString(2), grain + "");
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Editing a Sunday order line drops its day, Monday week and month from the cache")
+  void testOrderLineChangeInvalidatesContainingPeriods() throws SQLException {
+    int sundayOrder = this.insertOrder(SUNDAY);
+    int sundayLine = this.insertOrderItem(sundayOrder, 2, 500, 300);
+    this.insertOrderItem(this.insertOrder(MONDAY), 1, 700, 400);
+    for (PeriodGrain grain : PeriodGrain.values()) {
+      this.reportService.getMarginReport(grain, SalesDimension.TOTAL, SUNDAY, MONDAY);
+    }
+    assertTrue(this.isCached(PeriodGrain.WEEK, LocalDate.of(2026, 3, 2)));
+    assertTrue(this.isCached(PeriodGrain.WEEK, MONDAY));
+
+    this.execute("UPDATE order_items SET quantity = 5 WHERE id = " + sundayLine);
+
+    assertFalse(this.isCached(PeriodGrain.DAY, SUNDAY));
+    assertFalse(this.isCached(PeriodGrain.WEEK, LocalDate.of(2026, 3, 2)));
+    assertFalse(this.isCached(PeriodGrain.MONTH, LocalDate.of(2026, 3, 1)));
+    assertTrue(this.isCached(PeriodGrain.DAY, MONDAY));
+    assertTrue(this.isCached(PeriodGrain.WEEK, MONDAY));
+    List<MarginRow> weeks =
+        this.reportService.getMarginReport(PeriodGrain.WEEK, SalesDimension.TOTAL, SUNDAY, MONDAY);
+    assertEquals(2, weeks.size());
+    assertEquals(5, weeks.get(0).quantity());
+    assertEquals(2_500, weeks.get(0).revenueCents());
+    assertEquals(1, weeks.get(1).quantity());
+  }
+
+  @Test
+  @DisplayName("Backdating an order into a cached period drops that period and reports the order")
+  void testBackdatedOrderInvalidatesTargetPeriod() throws SQLException {
+    this.insertOrderItem(this.insertOrder(SUNDAY), 1, 1_000, 600);
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    int lateOrder = this.insertOrder(today);
+    this.insertOrderItem(lateOrder, 3, 200, 100);
+    List<MarginRow> before =
+        this.reportService.getMarginReport(PeriodGrain.MONTH, SalesDimension.TOTAL, SUNDAY, today);
+    assertEquals(1_000, before.get(0).revenueCents());
+    assertTrue(this.isCached(PeriodGrain.MONTH, LocalDate.of(2026, 3, 1)));
+
+    this.execute(
+        "UPDATE orders SET created_at = %d WHERE id = %d"
+            .formatted(TimestampUtil.startOfDayMillis(MONDAY) + NOON_MILLIS, lateOrder));
+
+    assertFalse(this.isCached(PeriodGrain.MONTH, LocalDate.of(2026, 3, 1)));
+    List<MarginRow> after =
+        this.reportService.getMarginReport(PeriodGrain.MONTH, SalesDimension.TOTAL, SUNDAY, today);
+    assertEquals(LocalDate.of(2026, 3, 1), after.get(0).periodStart());
+    assertEquals(1_600, after.get(0).revenueCents());
+    assertEquals(4, after.get(0).quantity());
+    assertEquals(1, after.size());
+  }
+
+  @Test
+  @DisplayName("A period that lost its cache marker is summed live, never dropped or doubled")
+  void testUncachedPeriodIsSummedLive() throws SQLException {
+    this.insertOrderItem(this.insertOrder(SUNDAY), 2, 500, 300);
+    this.insertOrderItem(this.insertOrder(MONDAY), 1, 700, 400);
+    List<MarginRow> cached =
+        this.reportService.getMarginReport(PeriodGrain.DAY, SalesDimension.TOTAL, SUNDAY, MONDAY);
+
+    // Stale rollup rows stay behind, as if the marker was dropped between the fill and the read
+    this.execute("DELETE FROM sales_rollup_periods WHERE period_start = '" + SUNDAY + "'");
+
+    assertEquals(
+        cached,
+        this.salesRollupDAO.findMargins(
+            PeriodGrain.DAY, SalesDimension.TOTAL, SUNDAY, MONDAY.plusDays(1)));
+    assertEquals(List.of(1_000L, 700L), revenues(cached));
+  }
+
+  @Test
+  @DisplayName("Weighted average values the recorded stock, FIFO only what the open batches hold")
+  void testValuationBasesDifferForStockWithoutBatch() {
+    int productId =
+        new ProductDAO(this.connection, null)
+            .save(
+                new ProductBuilder()
+                    .withSku("VAL")
+                    .withBarcode("VAL")
+                    .withName("VAL")
+                    .withCategory("Tea")
+                    .build())
+            .getId();
+    InventoryService inventoryService = new InventoryService(this.connection, null);
+    inventoryService.receiveNewStock(receipt(productId, 4, 300), 1);
+    inventoryService.receiveNewStock(receipt(productId, 6, 500), 1);
+    // Found stock is booked without a batch; the sale then drains the oldest batch first
+    inventoryService.stockAdjust(
+        new StockAdjustRequest(productId, 5, 0, TransactionType.ADJUSTMENT, "count"), 1);
+    inventoryService.stockAdjust(
+        new StockAdjustRequest(productId, -3, 0, TransactionType.STOCK_OUT, "sale"), 1);
+
+    ValuationReport report = this.reportService.getInventoryValuation();
+
+    assertEquals(1, report.categories().size());
+    CategoryValuation tea = report.categories().get(0);
+    assertEquals("Tea", tea.category());
+    assertEquals(1, tea.productCount());
+    assertEquals(2, tea.batchCount());
+    assertEquals(7, tea.quantity());
+    assertEquals(300 + 6 * 500, tea.fifoValueCents());
+    assertEquals(12 * 420, tea.averageCostValueCents());
+    assertEquals(tea.averageCostValueCents(), report.total().averageCostValueCents());
+  }
+
+  @Test
+  @DisplayName("Lines sold across two batches report COGS at each batch's unit cost")
+  void testSoldLinesCarryBatchCostIntoCogs() {
+    int productId =
+        new ProductDAO(this.connection, null)
+            .save(new ProductBuilder().withSku("COGS").withBarcode("COGS").withName("COGS").build())
+            .getId();
+    InventoryService inventoryService = new InventoryService(this.connection, null);
+    inventoryService.receiveNewStock(receipt(productId, 4, 300), 1);
+    inventoryService.receiveNewStock(receipt(productId, 10, 450), 1);
+    Order order = new OrderService(this.connection, null).createOrder(new Order());
+    // The allocation a sale of six units takes: four from the older batch, two from the newer
+    List<StockAllocation> allocations =
+        FifoAllocator.allocate(
+            new StockBatchDAO(this.connection, null).findFifoBatchesCovering(productId, 6), 6);
+    OrderItemService orderItemService = new OrderItemService(this.connection, null);
+    new TransactionManager(this.connection)
+        .executeInTransaction(
+            () ->
+                orderItemService.createItemsInternal(
+                    new OrderItem(order.getId(), productId, 0, 6, 1_000, 0),
+                    order.getId(),
+                    allocations));
+
+    LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    List<MarginRow> rows =
+        this.reportService.getMarginReport(PeriodGrain.DAY, SalesDimension.TOTAL, today, today);
+
+    assertEquals(1, rows.size());
+    assertEquals(6, rows.get(0).quantity());
+    assertEquals(6_000, rows.get(0).revenueCents());
+    assertEquals(4 * 300 + 2 * 450, rows.get(0).cogsCents());
+  }
+
+  private int insertOrder(LocalDate day) throws SQLException {
+    String sql =
+        """
+        INSERT INTO orders (customer_id, fulfillment_type, fulfillment_status, total_items,
+            subtotal_cents, final_amount_cents, created_at, updated_at, is_deleted)
+        VALUES (1, 'PICKUP', 'PENDING', 0, 0, 0, ?, ?, 0)
+        """;
+    long createdAt = TimestampUtil.startOfDayMillis(day) + NOON_MILLIS;
+    return this.insertReturningId(sql, createdAt, createdAt);
+  }
+
+  private int insertOrderItem(int orderId, int quantity, long priceCents, long costCents)
+      throws SQLException {
+    String sql =
+        """
+        INSERT INTO order_items (order_id, product_id, batch_id, quantity,
+            unit_price_at_sale_cents, unit_cost_at_sale_cents, created_at, updated_at, is_deleted)
+        VALUES (?, 1, 1, ?, ?, ?, 0, 0, 0)
+        """;
+    return this.insertReturningId(sql, orderId, quantity, priceCents, costCents);
+  }
+
+  private int insertReturningId(String sql, Object... params) throws SQLException {
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql)) {
+      for (int i = 0; i < params.length; i++) {
+        stmt.setObject(i + 1, params[i]);
+      }
+      stmt.executeUpdate();
+    }
+    try (PreparedStatement stmt = this.connection.prepareStatement("SELECT last_insert_rowid()");
+        ResultSet rs = stmt.executeQuery()) {
+      rs.next();
+      return rs.getInt(1);
+    }
+  }
+
+  private boolean isCached(PeriodGrain grain, LocalDate periodStart) throws SQLException {
+    try (PreparedStatement stmt =
+        this.connection.prepareStatement(
+            "SELECT 1 FROM sales_rollup_periods WHERE grain = ? AND period_start = ?")) {
+      stmt.setString(1, grain.name());
+      stmt.setString(2, periodStart.toString());
+      try (ResultSet rs = stmt.executeQuery()) {
+        return rs.next();
+      }
+    }
+  }
+
+  private void execute(String sql) throws SQLException {
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql)) {
+      stmt.executeUpdate();
+    }
+  }
+
+  private static StockReceiveRequest receipt(int productId, int quantity, long unitCostCents) {
+    return new StockReceiveRequest(productId, 0, null, quantity, unitCostCents, null, "test");
+  }
+
+  private static List<Long> revenues(List<MarginRow> rows) {
+    List<Long> revenues = new ArrayList<>();
+    for (MarginRow row : rows) {
+      revenues.add(row.revenueCents());
+    }
+    return revenues;
+  }
+}
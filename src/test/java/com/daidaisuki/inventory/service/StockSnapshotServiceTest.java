@@ -0,0 +1,237 @@
+package com.daidaisuki.inventory.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.daidaisuki.inventory.dao.ProductCache;
+import com.daidaisuki.inventory.dao.ProductCodeIndex;
+import com.daidaisuki.inventory.dao.impl.ProductDAO;
+import com.daidaisuki.inventory.dao.impl.StockBatchDAO;
+import com.daidaisuki.inventory.db.DatabaseManager;
+import com.daidaisuki.inventory.db.StatementCache;
+import com.daidaisuki.inventory.db.TransactionManager;
+import com.daidaisuki.inventory.enums.TransactionType;
+import com.daidaisuki.inventory.model.Product;
+import com.daidaisuki.inventory.model.builder.ProductBuilder;
+import com.daidaisuki.inventory.model.dto.StockAdjustRequest;
+import com.daidaisuki.inventory.model.dto.StockReceiveRequest;
+import com.daidaisuki.inventory.model.projection.CategoryValuation;
+import com.daidaisuki.inventory.model.projection.StockPosition;
+import com.daidaisuki.inventory.util.TimestampUtil;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StockSnapshotServiceTest {
+  private static final int USER_ID = 1;
+  private static final long HOUR_MILLIS = 3_600_000L;
+
+  private Connection connection;
+  private InventoryService inventoryService;
+  private StockSnapshotService stockSnapshotService;
+  private StockBatchDAO stockBatchDAO;
+  private LocalDate today;
+  private int firstProductId;
+  private int secondProductId;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    this.connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    DatabaseManager.migrate(this.connection);
+    this.inventoryService = new InventoryService(this.connection, null);
+    this.stockSnapshotService = new StockSnapshotService(this.connection, null);
+    this.stockBatchDAO = new StockBatchDAO(this.connection, null);
+    this.today = LocalDate.now(ZoneOffset.UTC);
+    ProductDAO productDAO = new ProductDAO(this.connection, null);
+    this.firstProductId = productDAO.save(product("SNAP-A")).getId();
+    this.secondProductId = productDAO.save(product("SNAP-B")).getId();
+  }
+
+  @AfterEach
+  void tearDown() throws SQLException {
+    StatementCache.invalidate(this.connection);
+    ProductCache.invalidate(this.connection);
+    ProductCodeIndex.invalidate(this.connection);
+    TransactionManager.invalidate(this.connection);
+    this.connection.close();
+  }
+
+  @Test
+  @DisplayName("Stock as of yesterday matches a full ledger replay before and after capture")
+  void testStockAsOfMatchesLedgerReplay() throws SQLException {
+    this.receive(this.firstProductId, 10, 250);
+    this.receive(this.firstProductId, 5, 199);
+    this.deduct(this.firstProductId, 7);
+    this.receive(this.secondProductId, 4, 1_000);
+    this.deduct(this.secondProductId, 1);
+    this.deduct(this.firstProductId, 3);
+    this.spreadLedgerOverPastDays();
+    // Landed charges make the two cost bases disagree, so valuing on the wrong one shows up
+    this.execute("UPDATE stock_batches SET landed_cost_cents = unit_cost_cents + 37");
+    LocalDate yesterday = this.today.minusDays(1);
+    List<StockPosition> replayed = this.replayLedger(yesterday);
+
+    assertEquals(2, replayed.size());
+    assertEquals(replayed, this.stockSnapshotService.getStockAsOf(yesterday));
+    assertTrue(this.stockSnapshotService.captureClosedDays() > 0);
+    assertEquals(replayed, this.stockSnapshotService.getStockAsOf(yesterday));
+    long snapshotValueCents = 0;
+    for (StockPosition position : replayed) {
+      snapshotValueCents += position.valueCents();
+    }
+    long fifoValueCents = 0;
+    for (CategoryValuation valuation : this.stockBatchDAO.findValuationByCategory()) {
+      fifoValueCents += valuation.fifoValueCents();
+    }
+    assertEquals(fifoValueCents, snapshotValueCents);
+
+    this.receive(this.secondProductId, 6, 500);
+
+    assertEquals(replayed, this.stockSnapshotService.getStockAsOf(yesterday));
+    assertEquals(replayed, this.replayLedger(yesterday));
+  }
+
+  @Test
+  @DisplayName("Back-dated, moved and soft-deleted ledger rows drop the snapshots they make stale")
+  void testLedgerEditsInvalidateLaterSnapshots() throws SQLException {
+    this.receive(this.firstProductId, 10, 250);
+    this.receive(this.secondProductId, 4, 1_000);
+    this.deduct(this.firstProductId, 3);
+    this.deduct(this.secondProductId, 1);
+    this.spreadLedgerOverPastDays();
+    assertTrue(this.stockSnapshotService.captureClosedDays() > 0);
+    LocalDate yesterday = this.today.minusDays(1);
+    LocalDate threeDaysAgo = this.today.minusDays(3);
+    int batchId = this.stockBatchDAO.findAllByProductId(this.secondProductId).get(0).getId();
+
+    this.execute(
+        """
+        INSERT INTO inventory_transactions (product_id, batch_id, user_id, reference_id,
+            change_amount, transaction_type, reason_code, created_at, updated_at, is_deleted)
+        VALUES (%d, %d, 1, 0, -2, 'DAMAGE', 'late count', %d, %d, 0)
+        """
+            .formatted(
+                this.secondProductId,
+                batchId,
+                TimestampUtil.startOfDayMillis(threeDaysAgo) + HOUR_MILLIS,
+                TimestampUtil.nowMillis()));
+
+    assertEquals(0, this.countSnapshotsFrom(threeDaysAgo));
+    assertTrue(this.countSnapshotsFrom(this.today.minusDays(4)) > 0);
+    assertTrue(this.stockSnapshotService.captureClosedDays() > 0);
+    assertEquals(
+        this.replayLedger(threeDaysAgo), this.stockSnapshotService.getStockAsOf(threeDaysAgo));
+    assertEquals(this.replayLedger(yesterday), this.stockSnapshotService.getStockAsOf(yesterday));
+
+    this.execute("UPDATE inventory_transactions SET is_deleted = 1 WHERE id = 1");
+
+    assertEquals(0, this.countSnapshotsFrom(this.today.minusDays(4)));
+    this.stockSnapshotService.captureClosedDays();
+    assertEquals(this.replayLedger(yesterday), this.stockSnapshotService.getStockAsOf(yesterday));
+
+    this.execute(
+        "UPDATE inventory_transactions SET created_at = %d WHERE id = 2"
+            .formatted(TimestampUtil.startOfDayMillis(yesterday) + HOUR_MILLIS));
+
+    assertEquals(0, this.countSnapshotsFrom(this.today.minusDays(3)));
+    this.stockSnapshotService.captureClosedDays();
+    assertEquals(
+        this.replayLedger(threeDaysAgo), this.stockSnapshotService.getStockAsOf(threeDaysAgo));
+    assertEquals(this.replayLedger(yesterday), this.stockSnapshotService.getStockAsOf(yesterday));
+  }
+
+  private void receive(int productId, int quantity, long unitCostCents) {
+    this.inventoryService.receiveNewStock(
+        new StockReceiveRequest(productId, 0, null, quantity, unitCostCents, null, "test"),
+        USER_ID);
+  }
+
+  private void deduct(int productId, int quantity) {
+    this.inventoryService.stockAdjust(
+        new StockAdjustRequest(productId, -quantity, 0L, TransactionType.DAMAGE, "test"),
+        USER_ID);
+  }
+
+  // Moves the ledger so the last movement lands yesterday and each earlier one a day before it
+  private void spreadLedgerOverPastDays() throws SQLException {
+    List<Integer> ids = new ArrayList<>();
+    try (PreparedStatement stmt =
+            this.connection.prepareStatement("SELECT id FROM inventory_transactions ORDER BY id");
+        ResultSet rs = stmt.executeQuery()) {
+      while (rs.next()) {
+        ids.add(rs.getInt(1));
+      }
+    }
+    try (PreparedStatement stmt =
+        this.connection.prepareStatement(
+            "UPDATE inventory_transactions SET created_at = ? WHERE id = ?")) {
+      for (int i = 0; i < ids.size(); i++) {
+        LocalDate day = this.today.minusDays(ids.size() - i);
+        stmt.setLong(1, TimestampUtil.startOfDayMillis(day) + HOUR_MILLIS);
+        stmt.setInt(2, ids.get(i));
+        stmt.executeUpdate();
+      }
+    }
+  }
+
+  private List<StockPosition> replayLedger(LocalDate asOf) throws SQLException {
+    Map<Integer, long[]> totals = new TreeMap<>();
+    String sql =
+        """
+        SELECT t.product_id, t.change_amount, b.unit_cost_cents
+        FROM inventory_transactions t
+        JOIN stock_batches b ON b.id = t.batch_id
+        WHERE t.created_at < ? AND t.is_deleted = 0
+        ORDER BY t.id
+        """;
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql)) {
+      stmt.setLong(1, TimestampUtil.startOfDayMillis(asOf.plusDays(1)));
+      try (ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          long[] total = totals.computeIfAbsent(rs.getInt(1), id -> new long[2]);
+          total[0] += rs.getInt(2);
+          total[1] += rs.getInt(2) * rs.getLong(3);
+        }
+      }
+    }
+    List<StockPosition> positions = new ArrayList<>();
+    totals.forEach(
+        (productId, total) ->
+            positions.add(new StockPosition(productId, asOf, (int) total[0], total[1])));
+    return positions;
+  }
+
+  private long countSnapshotsFrom(LocalDate day) throws SQLException {
+    try (PreparedStatement stmt =
+        this.connection.prepareStatement(
+            "SELECT COUNT(*) FROM stock_snapshots WHERE snapshot_date >= ?")) {
+      stmt.setString(1, day.toString());
+      try (ResultSet rs = stmt.executeQuery()) {
+        rs.next();
+        return rs.getLong(1);
+      }
+    }
+  }
+
+  private void execute(String sql) throws SQLException {
+    try (PreparedStatement stmt = this.connection.prepareStatement(sql)) {
+      stmt.executeUpdate();
+    }
+  }
+
+  private static Product product(String sku) {
+    return new ProductBuilder().withSku(sku).withBarcode(sku).withName(sku).build();
+  }
+}
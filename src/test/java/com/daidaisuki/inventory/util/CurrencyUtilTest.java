@@ -0,0 +1,54 @@
+package com.daidaisuki.inventory.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CurrencyUtilTest {
+  private static final long SEED = 25;
+  private static final int SAMPLES = 100_000;
+
+  @Test
+  @DisplayName("divideHalfUp rounds like BigDecimal HALF_UP, ties and negatives included")
+  void testDivideHalfUpMatchesBigDecimal() {
+    Random random = new Random(SEED);
+    for (int i = 0; i < SAMPLES; i++) {
+      long divisor = 1 + random.nextInt(1_000);
+      if (random.nextBoolean()) {
+        divisor = -divisor;
+      }
+      // Every fourth sample lands exactly on a half, where HALF_UP and HALF_EVEN disagree
+      long dividend =
+          i % 4 == 0
+              ? divisor * 2 * random.nextInt(1_000_000) + divisor
+              : random.nextLong() % 10_000_000_000L;
+      long expected =
+          BigDecimal.valueOf(dividend)
+              .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+              .longValueExact();
+
+      assertEquals(
+          expected, CurrencyUtil.divideHalfUp(dividend, divisor), dividend + " / " + divisor);
+    }
+  }
+
+  @Test
+  @DisplayName("Cents print and parse the same as their BigDecimal amounts")
+  void testCentsRoundTripThroughBigDecimal() {
+    Random random = new Random(SEED);
+    for (int i = 0; i < SAMPLES; i++) {
+      long cents = i % 2 == 0 ? random.nextInt(2_001) - 1_000 : random.nextLong() % 1_000_000_000L;
+      BigDecimal amount = CurrencyUtil.longToBigDecimal(cents);
+
+      assertEquals(amount.toPlainString(), CurrencyUtil.toPlainString(cents));
+      assertEquals(cents, CurrencyUtil.bigDecimalToLong(amount));
+    }
+    assertEquals(13, CurrencyUtil.bigDecimalToLong(new BigDecimal("0.125")));
+    assertEquals(-13, CurrencyUtil.bigDecimalToLong(new BigDecimal("-0.125")));
+    assertEquals(12, CurrencyUtil.bigDecimalToLong(new BigDecimal("0.1249")));
+  }
+}